@@ -1,6 +1,7 @@
 package com.william.authservice;
 
 import com.william.authservice.config.RsaKeyProperties;
+import com.william.authservice.config.ServiceClientProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -9,7 +10,7 @@ import org.springframework.cloud.openfeign.EnableFeignClients;
 
 @SpringBootApplication
 @EnableDiscoveryClient
-@EnableConfigurationProperties(RsaKeyProperties.class)
+@EnableConfigurationProperties({RsaKeyProperties.class, ServiceClientProperties.class})
 @EnableFeignClients
 public class AuthApplication {
 
@@ -0,0 +1,30 @@
+package com.william.authservice.config;
+
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+
+/**
+ * Publica el pool de conexiones de Feign (Apache HttpClient 5, ver spring.cloud.openfeign.httpclient.*)
+ * como {@code httpcomponents.httpclient.pool.*}. El unico cliente es {@link PersonaFeign}, que valida
+ * credenciales en cada login: un pool agotado se nota primero como logins lentos. Las llamadas ya salen
+ * como {@code http.client.requests} con la observacion por defecto de spring-cloud-openfeign.
+ */
+@Configuration
+public class FeignClientConfig {
+
+    @Bean
+    public MeterBinder feignPoolMetrics(ObjectProvider<HttpClientConnectionManager> connectionManager) {
+        return registry -> {
+            if (connectionManager.getIfAvailable() instanceof PoolingHttpClientConnectionManager pool) {
+                new PoolingHttpClientConnectionManagerMetricsBinder(pool, "feign").bindTo(registry);
+            }
+        };
+    }
+}
@@ -0,0 +1,25 @@
+package com.william.authservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Servicios que pueden pedir un token propio (auth.service-clients.<id>.secret y .scopes), p. ej. el
+ * relay de pagos de credito-service, que no debe reutilizar el token de un usuario.
+ */
+@ConfigurationProperties(prefix = "auth")
+public record ServiceClientProperties(Map<String, ServiceClient> serviceClients) {
+
+    public ServiceClientProperties {
+        serviceClients = serviceClients == null ? Map.of() : Map.copyOf(serviceClients);
+    }
+
+    public record ServiceClient(String secret, List<String> scopes) {
+
+        public ServiceClient {
+            scopes = scopes == null ? List.of() : List.copyOf(scopes);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.william.authservice.controller;
 
 import com.william.authservice.domain.dto.AuthResponse;
 import com.william.authservice.domain.dto.LoginDTO;
+import com.william.authservice.domain.dto.ServiceTokenRequest;
 import com.william.authservice.domain.dto.TokenRequest;
 import com.william.authservice.service.AuthService;
 import jakarta.validation.Valid;
@@ -47,6 +48,11 @@ public class AuthController {
         return ResponseEntity.ok(authService.refreshToken(request.accessToken()));
     }
 
+    @PostMapping("/service-token")
+    public AuthResponse serviceToken(@Valid @RequestBody ServiceTokenRequest request) {
+        return authService.authenticateService(request.clientId(), request.clientSecret());
+    }
+
 
 
 }
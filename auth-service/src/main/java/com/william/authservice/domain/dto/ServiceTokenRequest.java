@@ -0,0 +1,10 @@
+package com.william.authservice.domain.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record ServiceTokenRequest(
+        @NotBlank(message = "Se debe proporcionar el id del cliente")
+        String clientId,
+        @NotBlank(message = "Se debe proporcionar la clave del cliente")
+        String clientSecret) {
+}
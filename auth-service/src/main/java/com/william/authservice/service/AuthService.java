@@ -2,6 +2,7 @@ package com.william.authservice.service;
 
 import com.william.authservice.config.AuthenticationException;
 import com.william.authservice.config.PersonaFeign;
+import com.william.authservice.config.ServiceClientProperties;
 import com.william.authservice.config.TokenException;
 import com.william.authservice.domain.dto.AuthResponse;
 import com.william.authservice.domain.dto.LoginDTO;
@@ -18,6 +19,8 @@ import org.springframework.data.util.Pair;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.time.Instant;
 import java.util.Objects;
 
@@ -31,12 +34,15 @@ public class AuthService {
     private final TokenService tokenService;
     private final RefreshTokenRepository refreshTokenRepository;
     private final PersonaRepository personaRepository;
+    private final ServiceClientProperties serviceClientProperties;
 
-    public AuthService(PersonaFeign personaFeign, TokenService tokenService, RefreshTokenRepository refreshTokenRepository, PersonaRepository personaRepository) {
+    public AuthService(PersonaFeign personaFeign, TokenService tokenService, RefreshTokenRepository refreshTokenRepository, PersonaRepository personaRepository,
+                       ServiceClientProperties serviceClientProperties) {
         this.personaFeign = personaFeign;
         this.tokenService = tokenService;
         this.refreshTokenRepository = refreshTokenRepository;
         this.personaRepository = personaRepository;
+        this.serviceClientProperties = serviceClientProperties;
     }
 
     public AuthResponse authenticate(String document, String password) {
@@ -60,6 +66,21 @@ public class AuthService {
 
     }
 
+    /**
+     * Token de corta duracion para un servicio registrado en auth.service-clients. La clave se compara
+     * en tiempo constante; un cliente sin clave configurada queda deshabilitado.
+     */
+    public AuthResponse authenticateService(String clientId, String clientSecret) {
+        ServiceClientProperties.ServiceClient client = serviceClientProperties.serviceClients().get(clientId);
+        if (client == null || client.secret() == null || client.secret().isBlank() || !MessageDigest.isEqual(
+                client.secret().getBytes(StandardCharsets.UTF_8), clientSecret.getBytes(StandardCharsets.UTF_8))) {
+            throw new AuthenticationException("Error al autenticarse. Credenciales de servicio inválidas.");
+        }
+        Pair<String, Instant> datosToken = tokenService.generateServiceToken(clientId, client.scopes());
+        log.info("Token de servicio generado para: {}", clientId);
+        return new AuthResponse(datosToken.getFirst(), "service", datosToken.getSecond(), null);
+    }
+
     public AuthResponse refreshToken(String expiredToken) {
 
 
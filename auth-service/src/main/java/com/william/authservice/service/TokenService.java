@@ -14,6 +14,7 @@ import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.Optional;
 
 
@@ -51,6 +52,21 @@ public class TokenService {
         return Pair.of(this.encoder.encode(JwtEncoderParameters.from(claims)).getTokenValue(), claims.getExpiresAt());
     }
 
+    /**
+     * Token de un servicio: sin personId, con el cliente como subject y sus permisos en el claim scope.
+     */
+    public Pair<String, Instant> generateServiceToken(String clientId, List<String> scopes) {
+        Instant now = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer(issuerUri)
+                .issuedAt(now)
+                .expiresAt(now.plus(ACCESS_TOKEN_MINUTES_TO_EXPIRE, ACCESS_TOKEN_UNIT))
+                .subject(clientId)
+                .claim("scope", String.join(" ", scopes))
+                .build();
+        return Pair.of(this.encoder.encode(JwtEncoderParameters.from(claims)).getTokenValue(), claims.getExpiresAt());
+    }
+
     public Long extractPersonIdFromExpiredToken(String token) {
         Jwt jwt = decoder.decode(token);
         return (Long) jwt.getClaims().get("personId");
@@ -0,0 +1,11 @@
+-- Esquema que hasta ahora generaba ddl-auto=update. IF NOT EXISTS permite aplicarlo sobre una base existente.
+-- La tabla personas pertenece a persona-service y se crea con sus migraciones.
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    token       VARCHAR(1000) NOT NULL,
+    person_id   BIGINT NOT NULL,
+    expiry_date TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    created_at  TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    revoked     BOOLEAN NOT NULL DEFAULT FALSE,
+    CONSTRAINT uk_refresh_tokens_token UNIQUE (token)
+);
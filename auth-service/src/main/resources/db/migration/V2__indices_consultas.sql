@@ -0,0 +1,2 @@
+-- findByPersonId y findByPersonIdAndRevokedFalse al emitir y revocar tokens
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_person_id ON refresh_tokens (person_id);
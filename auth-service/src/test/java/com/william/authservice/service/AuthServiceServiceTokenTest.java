@@ -0,0 +1,71 @@
+package com.william.authservice.service;
+
+import com.william.authservice.config.AuthenticationException;
+import com.william.authservice.config.ServiceClientProperties;
+import com.william.authservice.config.ServiceClientProperties.ServiceClient;
+import com.william.authservice.domain.dto.AuthResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.util.Pair;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthServiceServiceTokenTest {
+
+    @Mock
+    private TokenService tokenService;
+
+    private AuthService authService;
+
+    @BeforeEach
+    void setUp() {
+        ServiceClientProperties clients = new ServiceClientProperties(
+                Map.of("credito-service", new ServiceClient("secreto", List.of("payments.debit")),
+                        "credito-admin", new ServiceClient("", List.of("credits.admin"))));
+        authService = new AuthService(null, tokenService, null, null, clients);
+    }
+
+    @Test
+    void authenticateService_ShouldReturnServiceToken_WhenCredentialsMatch() {
+        Instant expiresAt = Instant.now().plusSeconds(300);
+        when(tokenService.generateServiceToken("credito-service", List.of("payments.debit")))
+                .thenReturn(Pair.of("service-token", expiresAt));
+
+        AuthResponse response = authService.authenticateService("credito-service", "secreto");
+
+        assertEquals("service-token", response.accessToken());
+        assertEquals("service", response.tokenType());
+        assertEquals(expiresAt, response.expiresAt());
+    }
+
+    @Test
+    void authenticateService_ShouldThrowException_WhenSecretDoesNotMatch() {
+        assertThrows(AuthenticationException.class,
+                () -> authService.authenticateService("credito-service", "otra-clave"));
+        verify(tokenService, never()).generateServiceToken(anyString(), anyList());
+    }
+
+    @Test
+    void authenticateService_ShouldThrowException_WhenClientIsUnknown() {
+        assertThrows(AuthenticationException.class,
+                () -> authService.authenticateService("persona-service", "secreto"));
+        verify(tokenService, never()).generateServiceToken(anyString(), anyList());
+    }
+
+    @Test
+    void authenticateService_ShouldThrowException_WhenClientHasNoSecret() {
+        assertThrows(AuthenticationException.class,
+                () -> authService.authenticateService("credito-admin", ""));
+        verify(tokenService, never()).generateServiceToken(anyString(), anyList());
+    }
+}
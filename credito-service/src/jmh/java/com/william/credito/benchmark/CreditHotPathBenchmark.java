@@ -0,0 +1,310 @@
+package com.william.credito.benchmark;
+
+import com.william.credito.config.feign.AccountFeign;
+import com.william.credito.config.mapper.MapCreditFactory;
+import com.william.credito.domain.model.Credit;
+import com.william.credito.domain.model.LateInterestAccrual;
+import com.william.credito.domain.model.OverdueCredit;
+import com.william.credito.domain.model.PaymentOutbox;
+import com.william.credito.domain.model.Status;
+import com.william.credito.domain.model.StatusTotals;
+import com.william.credito.infrastructure.dao.CreditAccrualDao;
+import com.william.credito.infrastructure.dao.CreditDao;
+import com.william.credito.infrastructure.dao.PaymentOutboxDao;
+import com.william.credito.infrastructure.dto.AccountDTO;
+import com.william.credito.infrastructure.dto.DebitDTO;
+import com.william.credito.infrastructure.dto.DebitResultDTO;
+import com.william.credito.infrastructure.dto.AccrualReportDTO;
+import com.william.credito.service.AccountCache;
+import com.william.credito.service.AccountClient;
+import com.william.credito.service.CreditCalculator;
+import com.william.credito.service.CreditServiceImpl;
+import com.william.credito.service.LateInterestAccrualService;
+import com.william.credito.service.OptimisticRetry;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de CPU de la ruta de creditos con la base de datos y cuenta-service reemplazados por stubs
+ * en memoria: calculo de cuota, registro de un pago y un bloque del job de mora. El mapeo
+ * Credit -> CreditDTO esta en {@link MapperBenchmark}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CreditHotPathBenchmark {
+
+    private static final int ACCRUAL_CHUNK = 1000;
+    private static final Long CREDIT_ID = 42L;
+    private static final LocalDateTime AS_OF = LocalDateTime.of(2025, 6, 15, 1, 0);
+
+    private CreditServiceImpl creditService;
+    private LateInterestAccrualService accrualService;
+    private AccountClient accountClient;
+    private long loan;
+
+    @Setup
+    public void setUp() {
+        // sin la configuracion de Spring, logback escribiria en DEBUG cada ejecucion del job
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+                .setLevel(ch.qos.logback.classic.Level.WARN);
+
+        MapCreditFactory mappers = new MapCreditFactory();
+        Credit credit = new Credit();
+        credit.setId(CREDIT_ID);
+        credit.setLoan(12_000_000);
+        credit.setInterestRate(1000);
+        credit.setAgreedPayments(12);
+        credit.setPaymentsMade(3);
+        credit.setAmountToPay(1_100_000);
+        credit.setAmountPaid(3_300_000);
+        credit.setStatus(Status.PENDING.getDescription());
+        credit.setCreditExpirationDate(AS_OF.plusDays(10));
+
+        accountClient = new AccountClient(new StubAccountFeign(), CircuitBreakerRegistry.ofDefaults(),
+                BulkheadRegistry.ofDefaults(), RetryRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(),
+                new SimpleMeterRegistry());
+        AccountCache accountCache = new AccountCache(accountClient, 1, Duration.ofMinutes(1), Duration.ofMinutes(1));
+        creditService = new CreditServiceImpl(accountCache, new StubCreditDao(credit), new StubPaymentOutboxDao(),
+                null, null, new OptimisticRetry(1, Duration.ZERO), new TransactionTemplate(new NoOpTransactionManager()),
+                mappers.entityToCreditDTO(), mappers.dtoToCreditEntity(), mappers.entityToPaymentStatusDTO());
+        accrualService = new LateInterestAccrualService(new StubCreditAccrualDao(),
+                new TransactionTemplate(new NoOpTransactionManager()), ACCRUAL_CHUNK, 1);
+        loan = 12_000_000;
+    }
+
+    @TearDown
+    public void tearDown() {
+        accrualService.shutdown();
+        accountClient.shutdown();
+    }
+
+    @Benchmark
+    public long calculateAmountToPay() {
+        return CreditCalculator.calculateAmountToPay(loan++, 1250, 36);
+    }
+
+    /**
+     * Validaciones y registro del pago en la bandeja de salida, sin Idempotency-Key.
+     */
+    @Benchmark
+    public String sendPayment() {
+        return creditService.sendPayment(7L, 1_100_000L, CREDIT_ID, null);
+    }
+
+    /**
+     * Un bloque completo del job de mora: meses vencidos, nueva tasa y cuota de cada credito.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ACCRUAL_CHUNK)
+    public AccrualReportDTO lateInterestAccrual() {
+        return accrualService.accrue(AS_OF);
+    }
+
+
+    static class StubCreditDao implements CreditDao {
+
+        private final Credit credit;
+
+        StubCreditDao(Credit credit) {
+            this.credit = credit;
+        }
+
+        @Override
+        public List<Credit> findByAccountId(Long id) {
+            return List.of(credit);
+        }
+
+        @Override
+        public void save(Credit credit) {
+        }
+
+        @Override
+        public Boolean creditExists(Long creditId) {
+            return Boolean.TRUE;
+        }
+
+        @Override
+        public Optional<Credit> findByCreditId(Long creditId) {
+            return Optional.of(credit);
+        }
+
+        @Override
+        public Optional<Credit> lockForPayment(Long creditId) {
+            return Optional.of(credit);
+        }
+
+        @Override
+        public List<Credit> lockForPayment(Collection<Long> creditIds) {
+            return List.of(credit);
+        }
+
+        @Override
+        public List<Credit> findAllById(Collection<Long> creditIds) {
+            return List.of(credit);
+        }
+
+        @Override
+        public Page<Credit> findAll(Pageable pageable) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Credit> findPageAfter(Long loan, Long id, int limit) {
+            return List.of(credit);
+        }
+
+        @Override
+        public List<StatusTotals> sumByStatus() {
+            return List.of();
+        }
+
+        @Override
+        public List<Credit> findPageAfterId(long id, int limit) {
+            return List.of(credit);
+        }
+    }
+
+    static class StubPaymentOutboxDao implements PaymentOutboxDao {
+
+        private long sequence;
+
+        @Override
+        public void save(PaymentOutbox payment) {
+            payment.setId(++sequence);
+        }
+
+        @Override
+        public void saveAll(List<PaymentOutbox> payments) {
+            payments.forEach(this::save);
+        }
+
+        @Override
+        public Optional<PaymentOutbox> findById(Long id) {
+            return Optional.empty();
+        }
+
+        @Override
+        public List<PaymentOutbox> findAllById(Collection<Long> ids) {
+            return List.of();
+        }
+
+        @Override
+        public List<PaymentOutbox> findPending(Long afterId, LocalDateTime dueAt, int limit) {
+            return List.of();
+        }
+
+        @Override
+        public long countInProcess(Long creditId) {
+            return 0;
+        }
+
+        @Override
+        public Map<Long, Long> countInProcess(Collection<Long> creditIds) {
+            return Map.of();
+        }
+
+        @Override
+        public boolean claim(Long id) {
+            return false;
+        }
+
+        @Override
+        public int requeueStale(LocalDateTime staleBefore) {
+            return 0;
+        }
+    }
+
+    /**
+     * Devuelve el mismo bloque de creditos vencidos en cada ejecucion y descarta las escrituras.
+     */
+    static class StubCreditAccrualDao implements CreditAccrualDao {
+
+        private final List<OverdueCredit> chunk = new ArrayList<>(ACCRUAL_CHUNK);
+
+        StubCreditAccrualDao() {
+            for (int i = 0; i < ACCRUAL_CHUNK; i++) {
+                chunk.add(new OverdueCredit((long) i, 1_000_000L + i * 1_000L, 1000 + i % 500, 12 + i % 48,
+                        AS_OF.minusDays(1 + i % 120)));
+            }
+        }
+
+        @Override
+        public List<OverdueCredit> findOverdue(LocalDateTime asOf, OverdueCredit after, int limit) {
+            return after == null ? chunk : List.of();
+        }
+
+        @Override
+        public int applyAccruals(List<LateInterestAccrual> accruals) {
+            return accruals.size();
+        }
+    }
+
+    static class StubAccountFeign implements AccountFeign {
+
+        private final AccountDTO account = new AccountDTO();
+
+        @Override
+        public ResponseEntity<AccountDTO> getAccountById(Long accountId, String token) {
+            return ResponseEntity.ok(account);
+        }
+
+        @Override
+        public ResponseEntity<AccountDTO> getAccountByPersonId(Long personId, String token) {
+            return ResponseEntity.ok(account);
+        }
+
+        @Override
+        public ResponseEntity<Map<Long, AccountDTO>> getAccountsByIds(Collection<Long> accountIds, String token) {
+            return ResponseEntity.ok(Map.of());
+        }
+
+        @Override
+        public ResponseEntity<List<DebitResultDTO>> sendPayments(Long personId, List<DebitDTO> debits, String token) {
+            return ResponseEntity.ok(debits.stream()
+                    .map(debit -> new DebitResultDTO(debit.getReference(), true, "Payment sent successfully"))
+                    .toList());
+        }
+    }
+
+    static class NoOpTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
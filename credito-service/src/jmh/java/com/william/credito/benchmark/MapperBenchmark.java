@@ -0,0 +1,61 @@
+package com.william.credito.benchmark;
+
+import com.william.credito.config.mapper.MapCreditFactory;
+import com.william.credito.domain.model.Credit;
+import com.william.credito.infrastructure.dto.CreditDTO;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Credit -> CreditDTO con ModelMapper STRICT (mapeo anterior) contra el mapper escrito a mano.
+ * Con {@code -prof gc} el valor gc.alloc.rate.norm da los bytes asignados por mapeo.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private Credit credit;
+    private ModelMapper modelMapper;
+    private Function<Credit, CreditDTO> handWritten;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
+        handWritten = new MapCreditFactory().entityToCreditDTO();
+
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        credit = new Credit();
+        credit.setId(42L);
+        credit.setLoan(12_000_000);
+        credit.setTotalLoan(13_200_000);
+        credit.setAmountPaid(3_300_000);
+        credit.setAmountToPay(1_100_000);
+        credit.setInterestRate(1000);
+        credit.setAgreedPayments(12);
+        credit.setPaymentsMade(3);
+        credit.setCreditGivenDate(now.minusMonths(3));
+        credit.setCreditExpirationDate(now.plusMonths(1));
+        credit.setAccountId(7L);
+        credit.setStatus("Pendiente");
+    }
+
+    @Benchmark
+    public CreditDTO modelMapper() {
+        return modelMapper.map(credit, CreditDTO.class);
+    }
+
+    @Benchmark
+    public CreditDTO handWritten() {
+        return handWritten.apply(credit);
+    }
+}
@@ -0,0 +1,108 @@
+package com.william.credito.benchmark;
+
+import com.william.credito.domain.model.BasisPoints;
+import com.william.credito.service.CreditCalculator;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ruta de cotizacion (cuota y total) y de aplicacion de un pago con los montos anteriores en
+ * BigInteger y tasa Float contra los montos en long y la tasa en puntos basicos.
+ * Con {@code -prof gc} el valor gc.alloc.rate.norm da los bytes asignados por operacion.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MoneyBenchmark {
+
+    private static final int INPUTS = 1024;
+
+    private final BigInteger[] legacyLoans = new BigInteger[INPUTS];
+    private final Float[] legacyRates = new Float[INPUTS];
+    private final long[] loans = new long[INPUTS];
+    private final int[] rates = new int[INPUTS];
+    private final int[] agreedPayments = new int[INPUTS];
+    private int next;
+
+    private BigInteger legacyAmountPaid;
+    private BigInteger legacyAmountToPay;
+    private BigInteger legacyLoan;
+    private long amountPaid;
+    private long amountToPay;
+    private long loan;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < INPUTS; i++) {
+            loans[i] = random.nextLong(1_000_000, 500_000_000);
+            rates[i] = random.nextInt(100, 4_000);
+            agreedPayments[i] = random.nextInt(1, 361);
+            legacyLoans[i] = BigInteger.valueOf(loans[i]);
+            legacyRates[i] = BasisPoints.toPercent(rates[i]);
+        }
+        loan = 12_000_000;
+        amountToPay = 1_100_000;
+        legacyLoan = BigInteger.valueOf(loan);
+        legacyAmountToPay = BigInteger.valueOf(amountToPay);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPayments() {
+        amountPaid = 0;
+        legacyAmountPaid = BigInteger.ZERO;
+    }
+
+    @Benchmark
+    public BigInteger quoteBigInteger() {
+        int i = next++ & (INPUTS - 1);
+        BigInteger installment = legacyCalculateAmountToPay(legacyLoans[i], legacyRates[i], agreedPayments[i]);
+        return installment.multiply(BigInteger.valueOf(agreedPayments[i]));
+    }
+
+    @Benchmark
+    public long quoteFixedPoint() {
+        int i = next++ & (INPUTS - 1);
+        long installment = CreditCalculator.calculateAmountToPay(loans[i], rates[i], agreedPayments[i]);
+        return installment * agreedPayments[i];
+    }
+
+    @Benchmark
+    public boolean paymentBigInteger() {
+        BigInteger amount = legacyAmountToPay;
+        if (!legacyAmountToPay.equals(amount)) {
+            throw new IllegalStateException();
+        }
+        legacyAmountPaid = legacyAmountPaid.add(amount);
+        return legacyAmountPaid.compareTo(legacyLoan) == 0;
+    }
+
+    @Benchmark
+    public boolean paymentFixedPoint() {
+        long amount = amountToPay;
+        if (amountToPay != amount) {
+            throw new IllegalStateException();
+        }
+        amountPaid += amount;
+        return amountPaid == loan;
+    }
+
+    /**
+     * Calculo de cuota previo a los montos en long, copiado tal cual como referencia.
+     */
+    private static BigInteger legacyCalculateAmountToPay(BigInteger amount, Float interestRate, Integer agreedPayments) {
+        BigDecimal amountDecimal = new BigDecimal(amount);
+        BigDecimal interestRateDecimal = BigDecimal.valueOf(interestRate);
+        BigDecimal interestAmount = amountDecimal.multiply(interestRateDecimal).divide(BigDecimal.valueOf(100), RoundingMode.HALF_UP);
+        BigDecimal totalAmount = amountDecimal.add(interestAmount);
+        return totalAmount.divide(BigDecimal.valueOf(agreedPayments), RoundingMode.HALF_UP).toBigInteger();
+    }
+}
@@ -0,0 +1,145 @@
+package com.william.credito.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import feign.Client;
+import feign.Feign;
+import feign.RequestLine;
+import feign.hc5.ApacheHttp5Client;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.Timeout;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia de la cadena credito -> cuenta -> persona con cuenta-service y persona-service
+ * reemplazados por servidores HTTP locales. {@code DEFAULT} usa los clientes anteriores (Feign
+ * sobre HttpURLConnection y RestClient con la fabrica del JDK); {@code POOLED} usa Apache
+ * HttpClient 5 con pool, como los servicios ahora. Con varios hilos, HttpURLConnection solo
+ * reutiliza 5 conexiones por destino y abre una nueva para el resto.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class OutboundHttpBenchmark {
+
+    private static final byte[] PERSON_JSON = ("{\"id\":1,\"name\":\"William\",\"surname\":\"Adde\",\"phoneNumber\":\"3001234567\","
+            + "\"email\":\"william@example.com\",\"documentType\":\"CC\",\"document\":\"1020304050\","
+            + "\"birthDate\":\"1990-05-17\",\"status\":\"ACTIVO\"}").getBytes(StandardCharsets.UTF_8);
+
+    @Param({"DEFAULT", "POOLED"})
+    public String client;
+
+    private final List<AutoCloseable> resources = new ArrayList<>();
+    private HttpServer persona;
+    private HttpServer cuenta;
+    private AccountApi accountApi;
+
+    interface AccountApi {
+
+        @RequestLine("GET /cuenta/api/by-person/1")
+        String getAccountByPersonId();
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        boolean pooled = client.equals("POOLED");
+
+        persona = startServer("/persona/private", exchange -> respond(exchange, PERSON_JSON));
+        String personaUrl = "http://localhost:" + persona.getAddress().getPort() + "/persona/private?personaId=1";
+
+        RestClient cuentaToPersona = RestClient.builder()
+                .requestFactory(pooled ? new HttpComponentsClientHttpRequestFactory(pooledClient()) : new JdkClientHttpRequestFactory())
+                .build();
+        cuenta = startServer("/cuenta/api/by-person", exchange -> {
+            String person = cuentaToPersona.get().uri(personaUrl).retrieve().body(String.class);
+            respond(exchange, ("{\"id\":1,\"paymentCount\":12,\"balance\":5000000,\"person\":" + person + "}")
+                    .getBytes(StandardCharsets.UTF_8));
+        });
+
+        Client creditoToCuenta = pooled ? new ApacheHttp5Client(pooledClient()) : new Client.Default(null, null);
+        accountApi = Feign.builder()
+                .client(creditoToCuenta)
+                .target(AccountApi.class, "http://localhost:" + cuenta.getAddress().getPort());
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        cuenta.stop(0);
+        persona.stop(0);
+        for (AutoCloseable resource : resources) {
+            resource.close();
+        }
+        resources.clear();
+    }
+
+    @Benchmark
+    public String getAccountByPersonId() {
+        return accountApi.getAccountByPersonId();
+    }
+
+    private CloseableHttpClient pooledClient() {
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(200)
+                        .setMaxConnPerRoute(50)
+                        .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                .setConnectTimeout(Timeout.ofSeconds(2))
+                                .setSocketTimeout(Timeout.ofSeconds(5))
+                                .build())
+                        .build())
+                .build();
+        resources.add(httpClient);
+        return httpClient;
+    }
+
+    private HttpServer startServer(String path, Handler handler) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        server.createContext(path, exchange -> {
+            try (exchange) {
+                exchange.getRequestBody().readAllBytes();
+                handler.handle(exchange);
+            } catch (RuntimeException e) {
+                exchange.sendResponseHeaders(500, -1);
+            }
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        resources.add(executor::shutdownNow);
+        server.setExecutor(executor);
+        server.start();
+        return server;
+    }
+
+    private static void respond(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+}
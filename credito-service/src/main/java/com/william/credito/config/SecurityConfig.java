@@ -9,6 +9,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.Resource;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -38,6 +39,13 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/swagger-ui/**", "/api-docs/**").permitAll()
+                        .requestMatchers("/actuator/health/**", "/actuator/prometheus").permitAll()
+                        // el job de mora recorre toda la cartera: solo operaciones lo lanza a mano
+                        .requestMatchers(HttpMethod.POST, "/api/credits/accrual").hasAuthority("SCOPE_credits.admin")
+                        // la simulacion ocupa todos los nucleos del servicio: solo la lanza operaciones
+                        .requestMatchers(HttpMethod.POST, "/api/credits/simulation").hasAuthority("SCOPE_credits.admin")
+                        // solo cuenta-service avisa, con su token de servicio, que una cuenta cambio
+                        .requestMatchers(HttpMethod.POST, "/api/credits/account-cache/invalidations").hasAuthority("SCOPE_accounts.invalidate")
                         .anyRequest().authenticated())
                 .oauth2ResourceServer(oauth2 -> oauth2
                         .jwt(Customizer.withDefaults()))
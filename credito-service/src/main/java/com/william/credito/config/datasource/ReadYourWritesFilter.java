@@ -0,0 +1,82 @@
+package com.william.credito.config.datasource;
+
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Habilita la replica solo para peticiones GET/HEAD. Tras una escritura exitosa (p. ej. un pago), las
+ * lecturas del mismo usuario siguen en la primaria durante max-lag mas un intervalo de medicion, el
+ * peor retraso con el que la replica todavia se acepta, para que vea su propio cambio.
+ */
+@Component
+@ConditionalOnProperty(prefix = "datasource.replica", name = "url")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD");
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final long windowNanos;
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWritesFilter(@Value("${datasource.replica.max-lag}") Duration maxLag,
+                                @Value("${datasource.replica.lag-check-interval}") Duration checkInterval) {
+        this.windowNanos = maxLag.plus(checkInterval).toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Principal principal = request.getUserPrincipal();
+        String user = principal != null ? principal.getName() : null;
+        boolean read = READ_METHODS.contains(request.getMethod());
+
+        ReplicaRoutingDataSource.allowReplica(read && !wroteRecently(user));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.reset();
+            if (!read && user != null && response.getStatus() < 400) {
+                recordWrite(user);
+            }
+        }
+    }
+
+
+    private boolean wroteRecently(String user) {
+        if (user == null) {
+            return false;
+        }
+        Long writtenAt = lastWrites.get(user);
+        if (writtenAt == null) {
+            return false;
+        }
+        if (System.nanoTime() - writtenAt < windowNanos) {
+            return true;
+        }
+        lastWrites.remove(user, writtenAt);
+        return false;
+    }
+
+    private void recordWrite(String user) {
+        long now = System.nanoTime();
+        if (lastWrites.size() >= PURGE_THRESHOLD) {
+            lastWrites.values().removeIf(writtenAt -> now - writtenAt >= windowNanos);
+        }
+        lastWrites.put(user, now);
+    }
+}
@@ -0,0 +1,8 @@
+package com.william.credito.config.exceptions;
+
+public class AccountServiceUnavailableException extends RuntimeException {
+
+    public AccountServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -2,7 +2,9 @@ package com.william.credito.config.exceptions.handler;
 
 
 
+import com.william.credito.config.exceptions.AccountServiceUnavailableException;
 import com.william.credito.config.exceptions.CreditException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -27,6 +29,16 @@ public class CreditExceptionHandler {
         return ResponseEntity.badRequest().body(e.getMessage());
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    protected ResponseEntity<String> concurrentUpdate(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("The credit was modified by another request, try again");
+    }
+
+    @ExceptionHandler(AccountServiceUnavailableException.class)
+    protected ResponseEntity<String> accountServiceUnavailable(AccountServiceUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("The account service is not available, try again later");
+    }
+
 
 
 
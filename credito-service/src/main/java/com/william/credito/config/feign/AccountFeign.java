@@ -2,12 +2,16 @@ package com.william.credito.config.feign;
 
 
 import com.william.credito.infrastructure.dto.AccountDTO;
+import com.william.credito.infrastructure.dto.DebitDTO;
+import com.william.credito.infrastructure.dto.DebitResultDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.math.BigInteger;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 @FeignClient(name = "cuenta-service", path = "/cuenta/api")
 public interface AccountFeign {
@@ -20,11 +24,13 @@ public interface AccountFeign {
     ResponseEntity<AccountDTO> getAccountByPersonId(@PathVariable Long personId,
                                                     @RequestHeader(value = HttpHeaders.AUTHORIZATION) String token);
 
+    @PostMapping("/by-accounts")
+    ResponseEntity<Map<Long, AccountDTO>> getAccountsByIds(@RequestBody Collection<Long> accountIds,
+                                                           @RequestHeader(value = HttpHeaders.AUTHORIZATION) String token);
 
-    @PostMapping("/send-payment")
-    ResponseEntity<String> sendPayment(@RequestParam Long personId,
-                                       @RequestParam BigInteger amount,
-                                       @RequestParam Long creditId,
-                                       @RequestHeader(value = HttpHeaders.AUTHORIZATION) String token);
+    @PostMapping("/send-payments")
+    ResponseEntity<List<DebitResultDTO>> sendPayments(@RequestParam Long personId,
+                                                      @RequestBody List<DebitDTO> debits,
+                                                      @RequestHeader(value = HttpHeaders.AUTHORIZATION) String token);
 
 }
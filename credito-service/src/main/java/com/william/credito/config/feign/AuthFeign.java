@@ -0,0 +1,16 @@
+package com.william.credito.config.feign;
+
+
+import com.william.credito.infrastructure.dto.ServiceTokenDTO;
+import com.william.credito.infrastructure.dto.ServiceTokenRequestDTO;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+@FeignClient(name = "auth-service", path = "/auth/api")
+public interface AuthFeign {
+
+    @PostMapping("/service-token")
+    ServiceTokenDTO getServiceToken(@RequestBody ServiceTokenRequestDTO request);
+
+}
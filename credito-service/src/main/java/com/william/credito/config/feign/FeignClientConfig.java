@@ -0,0 +1,65 @@
+package com.william.credito.config.feign;
+
+
+import feign.Response;
+import feign.micrometer.DefaultFeignObservationConvention;
+import feign.micrometer.FeignContext;
+import feign.micrometer.MicrometerObservationCapability;
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.micrometer.observation.ObservationRegistry;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+
+/**
+ * Metricas de Feign: el pool de conexiones (Apache HttpClient 5, ver spring.cloud.openfeign.httpclient.*)
+ * como {@code httpcomponents.httpclient.pool.*} y cada llamada como {@code http.client.requests},
+ * etiquetada con el cliente, el metodo, el status y el resultado. La etiqueta {@code outcome} separa
+ * los debitos que cuenta-service rechaza (CLIENT_ERROR) de sus caidas (SERVER_ERROR) y de las
+ * llamadas sin respuesta (UNKNOWN), que el relay trata distinto.
+ */
+@Configuration
+public class FeignClientConfig {
+
+    @Bean
+    public MeterBinder feignPoolMetrics(ObjectProvider<HttpClientConnectionManager> connectionManager) {
+        return registry -> {
+            if (connectionManager.getIfAvailable() instanceof PoolingHttpClientConnectionManager pool) {
+                new PoolingHttpClientConnectionManagerMetricsBinder(pool, "feign").bindTo(registry);
+            }
+        };
+    }
+
+    @Bean
+    public MicrometerObservationCapability feignObservationCapability(ObservationRegistry observationRegistry) {
+        return new MicrometerObservationCapability(observationRegistry, new OutcomeObservationConvention());
+    }
+
+
+    static class OutcomeObservationConvention extends DefaultFeignObservationConvention {
+
+        @Override
+        public KeyValues getLowCardinalityKeyValues(FeignContext context) {
+            return super.getLowCardinalityKeyValues(context).and("outcome", outcome(context.getResponse()));
+        }
+
+        private static String outcome(Response response) {
+            if (response == null) {
+                return "UNKNOWN";
+            }
+            return switch (response.status() / 100) {
+                case 1 -> "INFORMATIONAL";
+                case 2 -> "SUCCESS";
+                case 3 -> "REDIRECTION";
+                case 4 -> "CLIENT_ERROR";
+                case 5 -> "SERVER_ERROR";
+                default -> "UNKNOWN";
+            };
+        }
+    }
+}
@@ -2,26 +2,71 @@ package com.william.credito.config.mapper;
 
 
 
+import com.william.credito.domain.model.BasisPoints;
 import com.william.credito.domain.model.Credit;
+import com.william.credito.domain.model.PaymentOutbox;
 import com.william.credito.infrastructure.dto.CreateCreditDTO;
 import com.william.credito.infrastructure.dto.CreditDTO;
-import org.modelmapper.ModelMapper;
+import com.william.credito.infrastructure.dto.PaymentStatusDTO;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.util.function.Function;
 
+/**
+ * Mapeos escritos a mano: se ejecutan por cada fila de los listados, asi que evitan la reflexion.
+ * Al agregar un campo a una entidad o DTO hay que copiarlo aqui.
+ */
 @Configuration
 public class MapCreditFactory {
 
     @Bean
-    public Function<Credit, CreditDTO> entityToCreditDTO(ModelMapper mapper) {
-        return persona -> mapper.map(persona, CreditDTO.class);
+    public Function<Credit, CreditDTO> entityToCreditDTO() {
+        return credit -> {
+            CreditDTO dto = new CreditDTO();
+            dto.setId(credit.getId());
+            dto.setLoan(credit.getLoan());
+            dto.setTotalLoan(credit.getTotalLoan());
+            dto.setAmountPaid(credit.getAmountPaid());
+            dto.setAmountToPay(credit.getAmountToPay());
+            dto.setInterestRateBasisPoints(credit.getInterestRate());
+            dto.setAgreedPayments(credit.getAgreedPayments());
+            dto.setPaymentsMade(credit.getPaymentsMade());
+            dto.setCreditGivenDate(credit.getCreditGivenDate());
+            dto.setCreditExpirationDate(credit.getCreditExpirationDate());
+            dto.setStatus(credit.getStatus());
+            return dto;
+        };
     }
 
     @Bean
-    public Function<CreateCreditDTO, Credit> dtoToCreditEntity(ModelMapper mapper) {
-        return persona -> mapper.map(persona, Credit.class);
+    public Function<CreateCreditDTO, Credit> dtoToCreditEntity() {
+        return dto -> {
+            Credit credit = new Credit();
+            credit.setLoan(dto.getLoan());
+            credit.setInterestRate(dto.getInterestRateBasisPoints());
+            credit.setAgreedPayments(dto.getAgreedPayments());
+            if (dto.getCreditExpirationDate() != null) {
+                credit.setCreditExpirationDate(dto.getCreditExpirationDate().atStartOfDay());
+            }
+            return credit;
+        };
+    }
+
+    @Bean
+    public Function<PaymentOutbox, PaymentStatusDTO> entityToPaymentStatusDTO() {
+        return payment -> {
+            PaymentStatusDTO dto = new PaymentStatusDTO();
+            dto.setId(payment.getId());
+            dto.setCreditId(payment.getCreditId());
+            dto.setAmount(payment.getAmount());
+            dto.setStatus(payment.getStatus() == null ? null : payment.getStatus().name());
+            dto.setAttempts(payment.getAttempts());
+            dto.setResponse(payment.getResponse());
+            dto.setCreatedAt(payment.getCreatedAt());
+            dto.setUpdatedAt(payment.getUpdatedAt());
+            return dto;
+        };
     }
 
 
@@ -0,0 +1,16 @@
+package com.william.credito.domain.model;
+
+import lombok.Getter;
+
+@Getter
+public enum AmortizationMethod {
+    FRENCH("Cuota fija"),
+    GERMAN("Abono a capital fijo"),
+    BULLET("Capital al vencimiento");
+
+    private String description;
+
+    AmortizationMethod(String description) {
+        this.description = description;
+    }
+}
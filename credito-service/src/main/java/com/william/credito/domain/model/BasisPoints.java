@@ -0,0 +1,22 @@
+package com.william.credito.domain.model;
+
+
+/**
+ * Tasas en puntos basicos (1 pb = 0,01 %). Los calculos, los DTO y la API usan enteros; el
+ * porcentaje solo aparece en la columna {@code tasa_interes}.
+ */
+public final class BasisPoints {
+
+    public static final int ONE_HUNDRED_PERCENT = 10_000;
+
+    private BasisPoints() {
+    }
+
+    public static int fromPercent(float percent) {
+        return Math.round(percent * 100);
+    }
+
+    public static float toPercent(int basisPoints) {
+        return basisPoints / 100f;
+    }
+}
@@ -0,0 +1,23 @@
+package com.william.credito.domain.model;
+
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+
+/**
+ * Guarda una tasa en puntos basicos en la columna de porcentaje existente.
+ */
+@Converter
+public class BasisPointsConverter implements AttributeConverter<Integer, Float> {
+
+    @Override
+    public Float convertToDatabaseColumn(Integer basisPoints) {
+        return basisPoints == null ? null : BasisPoints.toPercent(basisPoints);
+    }
+
+    @Override
+    public Integer convertToEntityAttribute(Float percent) {
+        return percent == null ? null : BasisPoints.fromPercent(percent);
+    }
+}
@@ -5,13 +5,16 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
-import java.math.BigInteger;
 import java.time.LocalDateTime;
 
 
 @Entity
-@Table(name = "creditos")
+@Table(name = "creditos", indexes = {
+        @Index(name = "idx_creditos_estado_expiracion", columnList = "estado, fecha_expiracion, id"),
+        @Index(name = "idx_creditos_monto_id", columnList = "monto, id")
+})
 @NoArgsConstructor
 @Getter
 @Setter
@@ -20,20 +23,27 @@ public class Credit {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    /**
+     * Montos en pesos enteros.
+     */
     @Column(name = "monto")
-    private BigInteger loan;
+    private long loan;
 
     @Column(name = "monto_total")
-    private BigInteger totalLoan;
+    private long totalLoan;
 
     @Column(name = "monto_pagado")
-    private BigInteger amountPaid;
+    private long amountPaid;
 
     @Column(name = "cuota_a_pagar")
-    private BigInteger amountToPay;
+    private long amountToPay;
 
+    /**
+     * Tasa en puntos basicos; en la base de datos sigue guardada como porcentaje.
+     */
     @Column(name = "tasa_interes")
-    private Float interestRate;
+    @Convert(converter = BasisPointsConverter.class)
+    private int interestRate;
 
     @Column(name = "cuotas_acordadas")
     private Integer agreedPayments;
@@ -53,6 +63,14 @@ public class Credit {
     @Column(name = "estado")
     private String status;
 
+    /**
+     * Version para control de concurrencia optimista: una escritura sobre una copia desactualizada falla.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private long version;
+
 
 
 
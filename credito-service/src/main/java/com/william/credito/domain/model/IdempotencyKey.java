@@ -0,0 +1,61 @@
+package com.william.credito.domain.model;
+
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+
+/**
+ * Resultado guardado de un pago enviado con Idempotency-Key. La huella identifica el contenido
+ * de la peticion original para rechazar la misma clave usada con otro pago.
+ */
+@Entity
+@Table(name = "claves_idempotencia")
+@NoArgsConstructor
+@Getter
+@Setter
+public class IdempotencyKey implements Persistable<String> {
+    @Id
+    @Column(name = "clave", length = 255)
+    private String key;
+
+    @Column(name = "huella", nullable = false, length = 64)
+    private String fingerprint;
+
+    @Column(name = "pago_id")
+    private Long paymentId;
+
+    @Column(name = "respuesta", nullable = false, length = 1000)
+    private String response;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Transient
+    private boolean persisted;
+
+    @Override
+    public String getId() {
+        return key;
+    }
+
+    /**
+     * La clave la asigna el cliente, asi que el repositorio debe insertarla siempre en lugar de
+     * hacer merge sobre una fila existente.
+     */
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        this.persisted = true;
+    }
+}
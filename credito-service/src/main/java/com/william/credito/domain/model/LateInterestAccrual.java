@@ -0,0 +1,16 @@
+package com.william.credito.domain.model;
+
+
+import java.time.LocalDateTime;
+
+
+/**
+ * Nuevos valores de un credito vencido. La fecha de expiracion anterior se usa como condicion
+ * del update para que un credito ya actualizado no vuelva a recibir mora. La tasa va en puntos basicos.
+ */
+public record LateInterestAccrual(Long creditId,
+                                  LocalDateTime previousExpirationDate,
+                                  LocalDateTime creditExpirationDate,
+                                  int interestRate,
+                                  long amountToPay) {
+}
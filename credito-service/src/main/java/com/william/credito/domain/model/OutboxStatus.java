@@ -0,0 +1,17 @@
+package com.william.credito.domain.model;
+
+import lombok.Getter;
+
+@Getter
+public enum OutboxStatus {
+    PENDING("Pendiente"),
+    IN_PROGRESS("En proceso"),
+    APPLIED("Aplicado"),
+    FAILED("Fallido");
+
+    private String description;
+
+    OutboxStatus(String description) {
+        this.description = description;
+    }
+}
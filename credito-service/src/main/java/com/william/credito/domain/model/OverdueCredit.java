@@ -0,0 +1,15 @@
+package com.william.credito.domain.model;
+
+
+import java.time.LocalDateTime;
+
+
+/**
+ * Columnas de un credito vencido que necesita el job de mora, con la tasa en puntos basicos.
+ */
+public record OverdueCredit(Long id,
+                            long loan,
+                            int interestRate,
+                            int agreedPayments,
+                            LocalDateTime creditExpirationDate) {
+}
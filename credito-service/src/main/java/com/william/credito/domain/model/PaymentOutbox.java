@@ -0,0 +1,79 @@
+package com.william.credito.domain.model;
+
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+
+/**
+ * Pago registrado por credito-service que todavia debe debitarse en cuenta-service.
+ * El relay lo entrega de forma asincrona y aplica el resultado sobre el credito.
+ */
+@Entity
+@Table(name = "pagos_salientes")
+@NoArgsConstructor
+@Getter
+@Setter
+public class PaymentOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "credito_id", nullable = false)
+    private Long creditId;
+
+    @Column(name = "persona_id", nullable = false)
+    private Long personId;
+
+    @Column(name = "monto", nullable = false)
+    private long amount;
+
+    @Column(name = "estado", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private OutboxStatus status;
+
+    @Column(name = "intentos", nullable = false)
+    private Integer attempts;
+
+    @Column(name = "respuesta", length = 1000)
+    private String response;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "fecha_actualizacion", nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * El relay no reenvia el pago antes de esta fecha.
+     */
+    @Column(name = "proximo_intento", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    /**
+     * Se envio al menos una vez sin recibir respuesta: cuenta-service pudo haberlo debitado.
+     */
+    @Column(name = "resultado_incierto", nullable = false)
+    private boolean outcomeUnknown;
+
+    /**
+     * Version para control de concurrencia optimista: si otro relay cambio el pago despues de leerlo,
+     * la escritura falla en lugar de liquidarlo dos veces.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    /**
+     * Clave que cuenta-service usa para no debitar dos veces el mismo pago.
+     */
+    public String getReference() {
+        return "credit-payment-" + id;
+    }
+}
@@ -0,0 +1,44 @@
+package com.william.credito.domain.model;
+
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+
+/**
+ * Acumulado parcial de la cartera para un estado. Cada estado se reparte en varias filas (slots)
+ * para que las actualizaciones concurrentes no compitan por el mismo bloqueo; el total es la suma
+ * de sus slots.
+ */
+@Entity
+@Table(name = "resumen_cartera", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_resumen_cartera_estado_slot", columnNames = {"estado", "slot"})
+})
+@NoArgsConstructor
+@Getter
+@Setter
+public class PortfolioCounter {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "estado", nullable = false)
+    private String status;
+
+    @Column(name = "slot", nullable = false)
+    private Integer slot;
+
+    @Column(name = "creditos", nullable = false)
+    private Long credits;
+
+    @Column(name = "monto", nullable = false)
+    private Long loan;
+
+    @Column(name = "monto_total", nullable = false)
+    private Long totalLoan;
+
+    @Column(name = "monto_pagado", nullable = false)
+    private Long amountPaid;
+}
@@ -0,0 +1,112 @@
+package com.william.credito.domain.model;
+
+
+import java.util.Arrays;
+
+
+/**
+ * Foto compacta de la cartera pendiente en arreglos primitivos paralelos (un indice por credito),
+ * pensada para recorrerse millones de veces sin objetos por credito.
+ */
+public final class PortfolioSnapshot {
+
+    private final int size;
+    private final long[] loan;
+    private final int[] interestRate;
+    private final int[] agreedPayments;
+    private final int[] paymentsMade;
+    private final long[] expirationEpochDay;
+
+    private PortfolioSnapshot(Builder builder) {
+        this.size = builder.size;
+        this.loan = Arrays.copyOf(builder.loan, builder.size);
+        this.interestRate = Arrays.copyOf(builder.interestRate, builder.size);
+        this.agreedPayments = Arrays.copyOf(builder.agreedPayments, builder.size);
+        this.paymentsMade = Arrays.copyOf(builder.paymentsMade, builder.size);
+        this.expirationEpochDay = Arrays.copyOf(builder.expirationEpochDay, builder.size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long loan(int i) {
+        return loan[i];
+    }
+
+    /**
+     * Tasa pactada en puntos basicos.
+     */
+    public int interestRate(int i) {
+        return interestRate[i];
+    }
+
+    public int agreedPayments(int i) {
+        return agreedPayments[i];
+    }
+
+    public int paymentsMade(int i) {
+        return paymentsMade[i];
+    }
+
+    public long expirationEpochDay(int i) {
+        return expirationEpochDay[i];
+    }
+
+    /**
+     * Capital pendiente suponiendo amortizacion lineal por cuotas.
+     */
+    public long outstandingPrincipal(int i) {
+        int agreed = agreedPayments[i];
+        if (agreed <= 0) {
+            return loan[i];
+        }
+        int remaining = Math.max(0, agreed - paymentsMade[i]);
+        return loan[i] / agreed * remaining + loan[i] % agreed * remaining / agreed;
+    }
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    public static final class Builder {
+
+        private int size;
+        private long[] loan;
+        private int[] interestRate;
+        private int[] agreedPayments;
+        private int[] paymentsMade;
+        private long[] expirationEpochDay;
+
+        private Builder(int expectedSize) {
+            int capacity = Math.max(16, expectedSize);
+            loan = new long[capacity];
+            interestRate = new int[capacity];
+            agreedPayments = new int[capacity];
+            paymentsMade = new int[capacity];
+            expirationEpochDay = new long[capacity];
+        }
+
+        public Builder add(long loan, int interestRate, int agreedPayments, int paymentsMade, long expirationEpochDay) {
+            if (size == this.loan.length) {
+                int capacity = size + (size >> 1);
+                this.loan = Arrays.copyOf(this.loan, capacity);
+                this.interestRate = Arrays.copyOf(this.interestRate, capacity);
+                this.agreedPayments = Arrays.copyOf(this.agreedPayments, capacity);
+                this.paymentsMade = Arrays.copyOf(this.paymentsMade, capacity);
+                this.expirationEpochDay = Arrays.copyOf(this.expirationEpochDay, capacity);
+            }
+            this.loan[size] = loan;
+            this.interestRate[size] = interestRate;
+            this.agreedPayments[size] = agreedPayments;
+            this.paymentsMade[size] = paymentsMade;
+            this.expirationEpochDay[size] = expirationEpochDay;
+            size++;
+            return this;
+        }
+
+        public PortfolioSnapshot build() {
+            return new PortfolioSnapshot(this);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.william.credito.domain.model;
+
+
+/**
+ * Numero de creditos, monto prestado, monto total a pagar (capital e intereses) y monto pagado de un estado.
+ */
+public record StatusTotals(String status, Long credits, Long loan, Long totalLoan, Long amountPaid) {
+
+    public StatusTotals {
+        credits = credits == null ? 0L : credits;
+        loan = loan == null ? 0L : loan;
+        totalLoan = totalLoan == null ? 0L : totalLoan;
+        amountPaid = amountPaid == null ? 0L : amountPaid;
+    }
+}
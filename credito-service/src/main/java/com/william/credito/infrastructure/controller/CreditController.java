@@ -1,19 +1,42 @@
 package com.william.credito.infrastructure.controller;
 
+import com.william.credito.domain.model.AmortizationMethod;
+import com.william.credito.infrastructure.dto.AccountCacheStatsDTO;
+import com.william.credito.infrastructure.dto.AccountInvalidationDTO;
+import com.william.credito.infrastructure.dto.BatchPaymentDTO;
+import com.william.credito.infrastructure.dto.BatchPaymentResultDTO;
 import com.william.credito.infrastructure.dto.CreateCreditDTO;
 import com.william.credito.infrastructure.dto.CreditDTO;
+import com.william.credito.infrastructure.dto.CreditSliceDTO;
 import com.william.credito.infrastructure.dto.PaymentDTO;
+import com.william.credito.infrastructure.dto.PaymentStatusDTO;
+import com.william.credito.infrastructure.dto.PortfolioSummaryDTO;
+import com.william.credito.infrastructure.dto.QuoteDTO;
+import com.william.credito.infrastructure.dto.QuoteRequestDTO;
+import com.william.credito.infrastructure.dto.SimulationResultDTO;
+import com.william.credito.service.AccountCache;
+import com.william.credito.service.AmortizationScheduleService;
+import com.william.credito.service.CreditExportService;
 import com.william.credito.service.CreditService;
+import com.william.credito.service.LateInterestAccrualService;
+import com.william.credito.service.LoanQuoteService;
+import com.william.credito.service.PortfolioRiskSimulator;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 
 
@@ -23,6 +46,12 @@ import java.util.List;
 public class CreditController {
 
     private final CreditService service;
+    private final LateInterestAccrualService accrualService;
+    private final PortfolioRiskSimulator riskSimulator;
+    private final LoanQuoteService quoteService;
+    private final AmortizationScheduleService scheduleService;
+    private final CreditExportService exportService;
+    private final AccountCache accountCache;
 
 
     @GetMapping("/{personId}")
@@ -36,6 +65,21 @@ public class CreditController {
         return ResponseEntity.ok(service.getAllCredits(pageable));
     }
 
+    /**
+     * Listado por cursor ordenado por monto descendente. No cuenta la tabla, asi que el costo de
+     * cada pagina no depende de su profundidad.
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<CreditSliceDTO> getCreditsByCursor(@RequestParam(required = false) String cursor,
+                                                             @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(service.getCreditsByCursor(cursor, size));
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<PortfolioSummaryDTO> getPortfolioSummary() {
+        return ResponseEntity.ok(service.getPortfolioSummary());
+    }
+
     @PostMapping
     public ResponseEntity<String> createCredit(@Valid @RequestBody CreateCreditDTO creditDTO,
                                                   @RequestParam Long personId) {
@@ -46,8 +90,108 @@ public class CreditController {
     @PostMapping("/{creditId}/payments")
     public ResponseEntity<String> makePayment(@PathVariable Long creditId,
                                               @RequestBody PaymentDTO paymentDTO,
-                                              @RequestParam Long personId) {
-        return ResponseEntity.ok(service.sendPayment(personId, paymentDTO.getValue(), creditId));
+                                              @RequestParam Long personId,
+                                              @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return ResponseEntity.accepted().body(service.sendPayment(personId, paymentDTO.getValue(), creditId, idempotencyKey));
+    }
+
+    /**
+     * Registra un lote de pagos sobre varios creditos. Devuelve un resultado por pago en el mismo orden.
+     */
+    @PostMapping("/payments/batch")
+    public ResponseEntity<List<BatchPaymentResultDTO>> makePayments(@RequestBody List<BatchPaymentDTO> payments) {
+        return ResponseEntity.accepted().body(service.sendPayments(payments));
+    }
+
+    @GetMapping("/payments/{paymentId}")
+    public ResponseEntity<PaymentStatusDTO> getPayment(@PathVariable Long paymentId) {
+        return ResponseEntity.ok(service.getPayment(paymentId));
+    }
+
+    /**
+     * Lanza el job de mora a la fecha actual, igual que la ejecucion programada, y responde sin esperar
+     * a que termine. Solo con el scope credits.admin. No recibe fecha: una fecha futura cobraria meses
+     * de mora que aun no vencen.
+     */
+    @PostMapping("/accrual")
+    public ResponseEntity<String> accrueLateInterest() {
+        LocalDateTime asOf = accrualService.startNow();
+        return ResponseEntity.accepted().body("Late interest accrual as of " + asOf + " started");
+    }
+
+    @PostMapping("/quote")
+    public ResponseEntity<QuoteDTO> quote(@RequestBody QuoteRequestDTO request) {
+        return ResponseEntity.ok(quoteService.quote(request));
+    }
+
+    @PostMapping("/quotes")
+    public ResponseEntity<List<QuoteDTO>> quotes(@RequestBody List<QuoteRequestDTO> requests) {
+        return ResponseEntity.ok(quoteService.quote(requests));
+    }
+
+    /**
+     * Tabla de amortizacion para un monto, tasa nominal anual en puntos basicos y numero de cuotas mensuales, en NDJSON.
+     */
+    @GetMapping(value = "/schedule", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> schedule(@RequestParam Long loan,
+                                                          @RequestParam Integer interestRateBasisPoints,
+                                                          @RequestParam Integer agreedPayments,
+                                                          @RequestParam(defaultValue = "FRENCH") AmortizationMethod method) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(scheduleService.schedule(method, loan, interestRateBasisPoints, agreedPayments));
+    }
+
+    @GetMapping(value = "/{creditId}/schedule", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> creditSchedule(@PathVariable Long creditId,
+                                                                @RequestParam(defaultValue = "FRENCH") AmortizationMethod method) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(scheduleService.creditSchedule(creditId, method));
+    }
+
+    @GetMapping(value = "/schedules", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> portfolioSchedules(@RequestParam(defaultValue = "FRENCH") AmortizationMethod method) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(scheduleService.portfolioSchedules(method));
+    }
+
+    /**
+     * Exporta toda la cartera en una sola respuesta, como CSV o NDJSON, sin cargarla en memoria.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCredits(@RequestParam(defaultValue = "CSV") CreditExportService.Format format) {
+        MediaType contentType = format == CreditExportService.Format.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : MediaType.APPLICATION_NDJSON;
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename("creditos." + format.name().toLowerCase())
+                .build();
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(exportService.export(format));
+    }
+
+    @PostMapping("/simulation")
+    public ResponseEntity<SimulationResultDTO> simulatePortfolio(@RequestParam(defaultValue = "10000") int scenarios,
+                                                                @RequestParam(required = false) Long seed) {
+        return ResponseEntity.ok(riskSimulator.simulate(scenarios, seed != null ? seed : System.nanoTime()));
+    }
+
+    /**
+     * Llamado por cuenta-service cuando una cuenta cambia, para descartar la copia en cache.
+     */
+    @PostMapping("/account-cache/invalidations")
+    public ResponseEntity<Void> invalidateAccount(@RequestBody AccountInvalidationDTO invalidation) {
+        accountCache.invalidate(invalidation.getAccountId(), invalidation.getPersonId());
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/account-cache")
+    public ResponseEntity<AccountCacheStatsDTO> getAccountCacheStats() {
+        return ResponseEntity.ok(accountCache.stats());
     }
 
     @DeleteMapping("/{creditId}")
@@ -0,0 +1,20 @@
+package com.william.credito.infrastructure.dao;
+
+
+import com.william.credito.domain.model.LateInterestAccrual;
+import com.william.credito.domain.model.OverdueCredit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+
+public interface CreditAccrualDao {
+
+    /**
+     * Creditos pendientes vencidos antes de {@code asOf}, ordenados por (fecha de expiracion, id)
+     * y posteriores al ultimo credito leido.
+     */
+    List<OverdueCredit> findOverdue(LocalDateTime asOf, OverdueCredit after, int limit);
+
+    int applyAccruals(List<LateInterestAccrual> accruals);
+}
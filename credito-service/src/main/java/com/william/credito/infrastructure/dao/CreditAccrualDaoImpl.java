@@ -0,0 +1,92 @@
+package com.william.credito.infrastructure.dao;
+
+
+
+import com.william.credito.domain.model.BasisPoints;
+import com.william.credito.domain.model.LateInterestAccrual;
+import com.william.credito.domain.model.OverdueCredit;
+import com.william.credito.domain.model.Status;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+
+
+/**
+ * Acceso JDBC para el job de mora. Lee por keyset y actualiza en batch sin cargar entidades.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CreditAccrualDaoImpl implements CreditAccrualDao {
+
+    private static final String SELECT_OVERDUE = """
+            SELECT id, monto, tasa_interes, cuotas_acordadas, fecha_expiracion
+            FROM creditos
+            WHERE estado = ? AND fecha_expiracion < ?
+            ORDER BY fecha_expiracion, id
+            LIMIT ?""";
+
+    private static final String SELECT_OVERDUE_AFTER = """
+            SELECT id, monto, tasa_interes, cuotas_acordadas, fecha_expiracion
+            FROM creditos
+            WHERE estado = ? AND fecha_expiracion < ?
+              AND (fecha_expiracion > ? OR (fecha_expiracion = ? AND id > ?))
+            ORDER BY fecha_expiracion, id
+            LIMIT ?""";
+
+    private static final String UPDATE_ACCRUAL = """
+            UPDATE creditos
+            SET tasa_interes = ?, cuota_a_pagar = ?, fecha_expiracion = ?, version = version + 1
+            WHERE id = ? AND fecha_expiracion = ? AND estado = ?""";
+
+    private static final RowMapper<OverdueCredit> OVERDUE_CREDIT = (rs, rowNum) -> new OverdueCredit(
+            rs.getLong("id"),
+            rs.getLong("monto"),
+            BasisPoints.fromPercent(rs.getFloat("tasa_interes")),
+            rs.getInt("cuotas_acordadas"),
+            rs.getObject("fecha_expiracion", LocalDateTime.class));
+
+    private final JdbcTemplate jdbcTemplate;
+
+
+    @Override
+    public List<OverdueCredit> findOverdue(LocalDateTime asOf, OverdueCredit after, int limit) {
+        String pending = Status.PENDING.getDescription();
+        if (after == null) {
+            return jdbcTemplate.query(SELECT_OVERDUE, OVERDUE_CREDIT, pending, asOf, limit);
+        }
+        return jdbcTemplate.query(SELECT_OVERDUE_AFTER, OVERDUE_CREDIT, pending, asOf,
+                after.creditExpirationDate(), after.creditExpirationDate(), after.id(), limit);
+    }
+
+    @Override
+    public int applyAccruals(List<LateInterestAccrual> accruals) {
+        if (accruals.isEmpty()) {
+            return 0;
+        }
+        String pending = Status.PENDING.getDescription();
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_ACCRUAL, accruals, accruals.size(), (ps, accrual) -> {
+            ps.setFloat(1, BasisPoints.toPercent(accrual.interestRate()));
+            ps.setLong(2, accrual.amountToPay());
+            ps.setObject(3, accrual.creditExpirationDate());
+            ps.setLong(4, accrual.creditId());
+            ps.setObject(5, accrual.previousExpirationDate());
+            ps.setString(6, pending);
+        });
+
+        int updated = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // algunos drivers no informan filas por sentencia en batch
+                if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                    updated++;
+                }
+            }
+        }
+        return updated;
+    }
+}
@@ -2,9 +2,11 @@ package com.william.credito.infrastructure.dao;
 
 
 import com.william.credito.domain.model.Credit;
+import com.william.credito.domain.model.StatusTotals;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,5 +22,31 @@ public interface CreditDao {
 
     Optional<Credit> findByCreditId(Long creditId);
 
+    /**
+     * Lee el credito e incrementa su version al confirmar la transaccion, aunque no se modifique.
+     * Dos transacciones que registran un pago sobre el mismo credito no pueden confirmar ambas.
+     */
+    Optional<Credit> lockForPayment(Long creditId);
+
+    /**
+     * Igual que {@link #lockForPayment(Long)} para varios creditos en una sola consulta.
+     */
+    List<Credit> lockForPayment(Collection<Long> creditIds);
+
+    List<Credit> findAllById(Collection<Long> creditIds);
+
     Page<Credit> findAll(Pageable pageable);
+
+    /**
+     * Creditos ordenados por (monto, id) descendente despues de la posicion dada, sin consulta de conteo.
+     * Con {@code loan} e {@code id} nulos devuelve la primera pagina.
+     */
+    List<Credit> findPageAfter(Long loan, Long id, int limit);
+
+    List<StatusTotals> sumByStatus();
+
+    /**
+     * Creditos con id mayor al dado, en orden de id. Cada pagina se lee en su propia transaccion.
+     */
+    List<Credit> findPageAfterId(long id, int limit);
 }
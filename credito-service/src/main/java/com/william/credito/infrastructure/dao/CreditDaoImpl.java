@@ -3,11 +3,16 @@ package com.william.credito.infrastructure.dao;
 
 
 import com.william.credito.domain.model.Credit;
+import com.william.credito.domain.model.StatusTotals;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +21,8 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class CreditDaoImpl implements CreditDao {
 
+    private static final int IN_CLAUSE_CHUNK = 1000;
+
     private final CreditRepository creditRepository;
 
 
@@ -39,10 +46,49 @@ public class CreditDaoImpl implements CreditDao {
         return creditRepository.findById(creditId);
     }
 
+    @Override
+    public Optional<Credit> lockForPayment(Long creditId) {
+        return creditRepository.findForPaymentById(creditId);
+    }
+
+    @Override
+    public List<Credit> lockForPayment(Collection<Long> creditIds) {
+        List<Credit> credits = new ArrayList<>();
+        List<Long> ids = List.copyOf(creditIds);
+        for (int i = 0; i < ids.size(); i += IN_CLAUSE_CHUNK) {
+            credits.addAll(creditRepository.findForPaymentByIdIn(ids.subList(i, Math.min(i + IN_CLAUSE_CHUNK, ids.size()))));
+        }
+        return credits;
+    }
+
+    @Override
+    public List<Credit> findAllById(Collection<Long> creditIds) {
+        return creditRepository.findAllById(creditIds);
+    }
+
+    @Transactional(readOnly = true)
     @Override
     public Page<Credit> findAll(Pageable pageable) {
         return creditRepository.findAll(pageable);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public List<Credit> findPageAfter(Long loan, Long id, int limit) {
+        if (loan == null || id == null) {
+            return creditRepository.findFirstByLoanDesc(Limit.of(limit));
+        }
+        return creditRepository.findAfterByLoanDesc(loan, id, Limit.of(limit));
+    }
+
+    @Override
+    public List<StatusTotals> sumByStatus() {
+        return creditRepository.sumByStatus();
+    }
 
+    @Transactional(readOnly = true)
+    @Override
+    public List<Credit> findPageAfterId(long id, int limit) {
+        return creditRepository.findAfterId(id, Limit.of(limit));
+    }
 }
@@ -3,13 +3,44 @@ package com.william.credito.infrastructure.dao;
 
 
 import com.william.credito.domain.model.Credit;
+import com.william.credito.domain.model.StatusTotals;
+import org.springframework.data.domain.Limit;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 
 public interface CreditRepository extends JpaRepository<Credit,Long> {
 
 
     List<Credit> findByAccountId(Long id);
+
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("SELECT c FROM Credit c WHERE c.id = :id")
+    Optional<Credit> findForPaymentById(@Param("id") Long id);
+
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("SELECT c FROM Credit c WHERE c.id IN :ids")
+    List<Credit> findForPaymentByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.william.credito.domain.model.StatusTotals(c.status, COUNT(c), SUM(c.loan), SUM(c.totalLoan), SUM(c.amountPaid)) " +
+            "FROM Credit c GROUP BY c.status")
+    List<StatusTotals> sumByStatus();
+
+    @Query("SELECT c FROM Credit c WHERE c.id > :id ORDER BY c.id")
+    List<Credit> findAfterId(@Param("id") long id, Limit limit);
+
+    @Query("SELECT c FROM Credit c ORDER BY c.loan DESC, c.id DESC")
+    List<Credit> findFirstByLoanDesc(Limit limit);
+
+    // la primera condicion es redundante pero da al indice (monto, id) el limite donde empezar a recorrer
+    @Query("SELECT c FROM Credit c WHERE c.loan <= :loan AND (c.loan < :loan OR (c.loan = :loan AND c.id < :id)) " +
+            "ORDER BY c.loan DESC, c.id DESC")
+    List<Credit> findAfterByLoanDesc(@Param("loan") Long loan, @Param("id") Long id, Limit limit);
 }
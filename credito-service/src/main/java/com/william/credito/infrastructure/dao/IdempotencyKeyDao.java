@@ -0,0 +1,17 @@
+package com.william.credito.infrastructure.dao;
+
+
+import com.william.credito.domain.model.IdempotencyKey;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+
+public interface IdempotencyKeyDao {
+
+    void insert(IdempotencyKey key);
+
+    Optional<IdempotencyKey> findByKey(String key);
+
+    int deleteCreatedBefore(LocalDateTime before);
+}
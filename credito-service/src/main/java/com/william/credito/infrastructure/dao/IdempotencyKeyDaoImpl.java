@@ -0,0 +1,35 @@
+package com.william.credito.infrastructure.dao;
+
+
+
+import com.william.credito.domain.model.IdempotencyKey;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+
+@Repository
+@RequiredArgsConstructor
+public class IdempotencyKeyDaoImpl implements IdempotencyKeyDao {
+
+    private final IdempotencyKeyRepository keyRepository;
+
+
+    @Override
+    public void insert(IdempotencyKey key) {
+        // flush inmediato: una clave duplicada debe fallar aqui y no al hacer commit
+        keyRepository.saveAndFlush(key);
+    }
+
+    @Override
+    public Optional<IdempotencyKey> findByKey(String key) {
+        return keyRepository.findById(key);
+    }
+
+    @Override
+    public int deleteCreatedBefore(LocalDateTime before) {
+        return keyRepository.deleteCreatedBefore(before);
+    }
+}
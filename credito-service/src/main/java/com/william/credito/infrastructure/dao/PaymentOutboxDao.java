@@ -0,0 +1,39 @@
+package com.william.credito.infrastructure.dao;
+
+
+import com.william.credito.domain.model.PaymentOutbox;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+
+public interface PaymentOutboxDao {
+
+    void save(PaymentOutbox payment);
+
+    void saveAll(List<PaymentOutbox> payments);
+
+    Optional<PaymentOutbox> findById(Long id);
+
+    List<PaymentOutbox> findAllById(Collection<Long> ids);
+
+    /**
+     * Pagos pendientes cuyo proximo intento ya llego en {@code dueAt}, ordenados por id despues de
+     * {@code afterId}; con {@code afterId} nulo empieza desde el primero.
+     */
+    List<PaymentOutbox> findPending(Long afterId, LocalDateTime dueAt, int limit);
+
+    long countInProcess(Long creditId);
+
+    /**
+     * Pagos pendientes o en curso por credito. Los creditos sin pagos en proceso no aparecen.
+     */
+    Map<Long, Long> countInProcess(Collection<Long> creditIds);
+
+    boolean claim(Long id);
+
+    int requeueStale(LocalDateTime staleBefore);
+}
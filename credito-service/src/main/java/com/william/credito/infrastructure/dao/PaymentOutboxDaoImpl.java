@@ -0,0 +1,95 @@
+package com.william.credito.infrastructure.dao;
+
+
+
+import com.william.credito.domain.model.OutboxStatus;
+import com.william.credito.domain.model.PaymentOutbox;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+
+@Repository
+@RequiredArgsConstructor
+public class PaymentOutboxDaoImpl implements PaymentOutboxDao {
+
+    private static final int IN_CLAUSE_CHUNK = 1000;
+    private static final EnumSet<OutboxStatus> IN_PROCESS = EnumSet.of(OutboxStatus.PENDING, OutboxStatus.IN_PROGRESS);
+
+    private final PaymentOutboxRepository outboxRepository;
+
+
+    @Override
+    public void save(PaymentOutbox payment) {
+        outboxRepository.save(payment);
+    }
+
+    @Override
+    public void saveAll(List<PaymentOutbox> payments) {
+        outboxRepository.saveAll(payments);
+    }
+
+    @Override
+    public Optional<PaymentOutbox> findById(Long id) {
+        return outboxRepository.findById(id);
+    }
+
+    @Override
+    public List<PaymentOutbox> findAllById(Collection<Long> ids) {
+        List<PaymentOutbox> payments = new ArrayList<>();
+        List<Long> values = List.copyOf(ids);
+        for (int i = 0; i < values.size(); i += IN_CLAUSE_CHUNK) {
+            payments.addAll(outboxRepository.findAllById(values.subList(i, Math.min(i + IN_CLAUSE_CHUNK, values.size()))));
+        }
+        return payments;
+    }
+
+    @Override
+    public List<PaymentOutbox> findPending(Long afterId, LocalDateTime dueAt, int limit) {
+        if (afterId == null) {
+            return outboxRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(OutboxStatus.PENDING, dueAt,
+                    PageRequest.ofSize(limit));
+        }
+        return outboxRepository.findByStatusAndNextAttemptAtLessThanEqualAndIdGreaterThanOrderByIdAsc(OutboxStatus.PENDING,
+                dueAt, afterId, PageRequest.ofSize(limit));
+    }
+
+    @Override
+    public long countInProcess(Long creditId) {
+        return outboxRepository.countByCreditIdAndStatusIn(creditId, IN_PROCESS);
+    }
+
+    @Override
+    public Map<Long, Long> countInProcess(Collection<Long> creditIds) {
+        Map<Long, Long> counts = new HashMap<>();
+        List<Long> ids = List.copyOf(creditIds);
+        for (int i = 0; i < ids.size(); i += IN_CLAUSE_CHUNK) {
+            List<Long> chunk = ids.subList(i, Math.min(i + IN_CLAUSE_CHUNK, ids.size()));
+            for (Object[] row : outboxRepository.countByCreditIdsAndStatusIn(chunk, IN_PROCESS)) {
+                counts.put((Long) row[0], (Long) row[1]);
+            }
+        }
+        return counts;
+    }
+
+    @Override
+    public boolean claim(Long id) {
+        return outboxRepository.updateStatus(id, OutboxStatus.PENDING, OutboxStatus.IN_PROGRESS,
+                LocalDateTime.now().withNano(0)) == 1;
+    }
+
+    @Override
+    public int requeueStale(LocalDateTime staleBefore) {
+        return outboxRepository.updateStaleStatus(OutboxStatus.IN_PROGRESS, OutboxStatus.PENDING,
+                LocalDateTime.now().withNano(0), staleBefore);
+    }
+}
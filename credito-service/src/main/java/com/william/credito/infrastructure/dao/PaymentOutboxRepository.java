@@ -0,0 +1,42 @@
+package com.william.credito.infrastructure.dao;
+
+
+
+import com.william.credito.domain.model.OutboxStatus;
+import com.william.credito.domain.model.PaymentOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+
+public interface PaymentOutboxRepository extends JpaRepository<PaymentOutbox, Long> {
+
+    List<PaymentOutbox> findByStatusOrderByIdAsc(OutboxStatus status, Pageable pageable);
+
+    List<PaymentOutbox> findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(OutboxStatus status, LocalDateTime dueAt,
+                                                                            Pageable pageable);
+
+    List<PaymentOutbox> findByStatusAndNextAttemptAtLessThanEqualAndIdGreaterThanOrderByIdAsc(OutboxStatus status,
+                                                                                            LocalDateTime dueAt, Long id,
+                                                                                            Pageable pageable);
+
+    long countByCreditIdAndStatusIn(Long creditId, Collection<OutboxStatus> statuses);
+
+    @Query("select o.creditId, count(o) from PaymentOutbox o where o.creditId in ?1 and o.status in ?2 group by o.creditId")
+    List<Object[]> countByCreditIdsAndStatusIn(Collection<Long> creditIds, Collection<OutboxStatus> statuses);
+
+    // las actualizaciones en bloque no pasan por @Version: suben la version a mano
+    @Modifying(clearAutomatically = true)
+    @Query("update PaymentOutbox o set o.status = ?3, o.updatedAt = ?4, o.version = o.version + 1 where o.id = ?1 and o.status = ?2")
+    int updateStatus(Long id, OutboxStatus from, OutboxStatus to, LocalDateTime updatedAt);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update PaymentOutbox o set o.status = ?2, o.updatedAt = ?3, o.version = o.version + 1 " +
+            "where o.status = ?1 and o.updatedAt < ?4")
+    int updateStaleStatus(OutboxStatus from, OutboxStatus to, LocalDateTime updatedAt, LocalDateTime staleBefore);
+}
@@ -0,0 +1,19 @@
+package com.william.credito.infrastructure.dao;
+
+
+import com.william.credito.domain.model.PortfolioCounter;
+import com.william.credito.domain.model.StatusTotals;
+
+import java.util.List;
+
+
+public interface PortfolioCounterDao {
+
+    boolean exists(String status, int slot);
+
+    void insert(PortfolioCounter counter);
+
+    int increment(String status, int slot, long credits, long loan, long totalLoan, long amountPaid);
+
+    List<StatusTotals> sumByStatus();
+}
@@ -0,0 +1,39 @@
+package com.william.credito.infrastructure.dao;
+
+
+
+import com.william.credito.domain.model.PortfolioCounter;
+import com.william.credito.domain.model.StatusTotals;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+
+@Repository
+@RequiredArgsConstructor
+public class PortfolioCounterDaoImpl implements PortfolioCounterDao {
+
+    private final PortfolioCounterRepository counterRepository;
+
+
+    @Override
+    public boolean exists(String status, int slot) {
+        return counterRepository.existsByStatusAndSlot(status, slot);
+    }
+
+    @Override
+    public void insert(PortfolioCounter counter) {
+        counterRepository.saveAndFlush(counter);
+    }
+
+    @Override
+    public int increment(String status, int slot, long credits, long loan, long totalLoan, long amountPaid) {
+        return counterRepository.increment(status, slot, credits, loan, totalLoan, amountPaid);
+    }
+
+    @Override
+    public List<StatusTotals> sumByStatus() {
+        return counterRepository.sumByStatus();
+    }
+}
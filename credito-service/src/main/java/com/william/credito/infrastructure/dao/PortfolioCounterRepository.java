@@ -0,0 +1,27 @@
+package com.william.credito.infrastructure.dao;
+
+
+
+import com.william.credito.domain.model.PortfolioCounter;
+import com.william.credito.domain.model.StatusTotals;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+
+public interface PortfolioCounterRepository extends JpaRepository<PortfolioCounter, Long> {
+
+    boolean existsByStatusAndSlot(String status, Integer slot);
+
+    @Modifying
+    @Query("update PortfolioCounter c set c.credits = c.credits + ?3, c.loan = c.loan + ?4, c.totalLoan = c.totalLoan + ?5, " +
+            "c.amountPaid = c.amountPaid + ?6 where c.status = ?1 and c.slot = ?2")
+    int increment(String status, Integer slot, long credits, long loan, long totalLoan, long amountPaid);
+
+    @Query("select new com.william.credito.domain.model.StatusTotals(c.status, sum(c.credits), sum(c.loan), sum(c.totalLoan), " +
+            "sum(c.amountPaid)) " +
+            "from PortfolioCounter c group by c.status")
+    List<StatusTotals> sumByStatus();
+}
@@ -0,0 +1,10 @@
+package com.william.credito.infrastructure.dao;
+
+
+import com.william.credito.domain.model.PortfolioSnapshot;
+
+
+public interface PortfolioSnapshotDao {
+
+    PortfolioSnapshot loadPendingCredits();
+}
@@ -0,0 +1,56 @@
+package com.william.credito.infrastructure.dao;
+
+
+
+import com.william.credito.domain.model.BasisPoints;
+import com.william.credito.domain.model.PortfolioSnapshot;
+import com.william.credito.domain.model.Status;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+
+
+/**
+ * Carga la cartera pendiente directo a arreglos primitivos, leyendo por cursor para no tener
+ * todo el resultado JDBC en memoria.
+ */
+@Repository
+public class PortfolioSnapshotDaoImpl implements PortfolioSnapshotDao {
+
+    private static final int FETCH_SIZE = 10_000;
+
+    private static final String SELECT_PENDING = """
+            SELECT monto, tasa_interes, cuotas_acordadas, cuotas_pagadas, fecha_expiracion
+            FROM creditos
+            WHERE estado = ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PortfolioSnapshotDaoImpl(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    // PostgreSQL solo respeta el fetch size dentro de una transaccion
+    @Transactional(readOnly = true)
+    @Override
+    public PortfolioSnapshot loadPendingCredits() {
+        Integer pending = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM creditos WHERE estado = ?", Integer.class,
+                Status.PENDING.getDescription());
+        PortfolioSnapshot.Builder builder = PortfolioSnapshot.builder(pending == null ? 0 : pending);
+
+        jdbcTemplate.query(SELECT_PENDING, (RowCallbackHandler) rs -> {
+            LocalDateTime expiration = rs.getObject("fecha_expiracion", LocalDateTime.class);
+            builder.add(rs.getLong("monto"),
+                    BasisPoints.fromPercent(rs.getFloat("tasa_interes")),
+                    rs.getInt("cuotas_acordadas"),
+                    rs.getInt("cuotas_pagadas"),
+                    expiration == null ? Long.MAX_VALUE : expiration.toLocalDate().toEpochDay());
+        }, Status.PENDING.getDescription());
+        return builder.build();
+    }
+}
@@ -0,0 +1,19 @@
+package com.william.credito.infrastructure.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+/**
+ * Aviso de cuenta-service: la cuenta cambio y la copia local debe descartarse.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountInvalidationDTO {
+
+    private Long accountId;
+
+    private Long personId;
+}
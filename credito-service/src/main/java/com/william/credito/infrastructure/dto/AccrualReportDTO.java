@@ -0,0 +1,24 @@
+package com.william.credito.infrastructure.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccrualReportDTO {
+
+    private LocalDateTime asOf;
+
+    private long creditsScanned;
+
+    private long creditsUpdated;
+
+    private long elapsedMillis;
+
+    private double creditsPerSecond;
+}
@@ -0,0 +1,20 @@
+package com.william.credito.infrastructure.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchPaymentDTO {
+
+    private Long creditId;
+
+    private Long personId;
+
+    private Long amount;
+
+    private String idempotencyKey;
+}
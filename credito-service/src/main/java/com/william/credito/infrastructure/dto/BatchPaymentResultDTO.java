@@ -0,0 +1,20 @@
+package com.william.credito.infrastructure.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchPaymentResultDTO {
+
+    private Long creditId;
+
+    private Long paymentId;
+
+    private boolean accepted;
+
+    private String message;
+}
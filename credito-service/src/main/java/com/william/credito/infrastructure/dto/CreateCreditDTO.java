@@ -2,21 +2,30 @@ package com.william.credito.infrastructure.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 
 import lombok.Data;
 
-import java.math.BigInteger;
 import java.time.LocalDate;
 
 
 @Data
 public class CreateCreditDTO {
 
-    private BigInteger loan;
+    @NotNull
+    @Positive
+    private Long loan;
 
+    /**
+     * Tasa en puntos basicos (1000 = 10 %).
+     */
+    @NotNull
     @Min(0)
-    private Float interestRate;
+    private Integer interestRateBasisPoints;
 
+    @NotNull
+    @Positive
     private Integer agreedPayments;
 
     @JsonFormat(pattern = "yyyy-MM-dd")
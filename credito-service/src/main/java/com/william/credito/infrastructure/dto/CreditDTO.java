@@ -2,7 +2,6 @@ package com.william.credito.infrastructure.dto;
 
 import lombok.Data;
 
-import java.math.BigInteger;
 import java.time.LocalDateTime;
 
 
@@ -11,15 +10,18 @@ public class CreditDTO {
 
     private Long id;
 
-    private BigInteger loan;
+    private Long loan;
 
-    private BigInteger totalLoan;
+    private Long totalLoan;
 
-    private BigInteger amountPaid;
+    private Long amountPaid;
 
-    private BigInteger amountToPay;
+    private Long amountToPay;
 
-    private Float interestRate;
+    /**
+     * Tasa en puntos basicos (1000 = 10 %).
+     */
+    private Integer interestRateBasisPoints;
 
     private Integer agreedPayments;
 
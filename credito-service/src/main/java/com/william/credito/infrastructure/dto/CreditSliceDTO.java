@@ -0,0 +1,22 @@
+package com.william.credito.infrastructure.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreditSliceDTO {
+
+    private List<CreditDTO> content;
+
+    private int size;
+
+    private boolean hasNext;
+
+    private String nextCursor;
+}
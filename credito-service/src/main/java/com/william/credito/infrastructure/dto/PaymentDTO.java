@@ -2,7 +2,6 @@ package com.william.credito.infrastructure.dto;
 
 import lombok.Data;
 
-import java.math.BigInteger;
 import java.time.LocalDateTime;
 
 @Data
@@ -14,5 +13,5 @@ public class PaymentDTO {
 
     private String description;
 
-    private BigInteger value;
+    private Long value;
 }
@@ -0,0 +1,26 @@
+package com.william.credito.infrastructure.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+
+@Data
+public class PaymentStatusDTO {
+
+    private Long id;
+
+    private Long creditId;
+
+    private Long amount;
+
+    private String status;
+
+    private Integer attempts;
+
+    private String response;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+}
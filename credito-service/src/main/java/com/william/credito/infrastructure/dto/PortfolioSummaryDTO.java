@@ -0,0 +1,26 @@
+package com.william.credito.infrastructure.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioSummaryDTO {
+
+    private long totalCredits;
+
+    /**
+     * Monto total a pagar (capital e intereses) menos lo pagado en los creditos pendientes. Los pagos
+     * no se reparten entre capital e intereses, asi que no se informa el capital pendiente.
+     */
+    private long outstandingBalance;
+
+    private long amountPaid;
+
+    private List<StatusSummaryDTO> byStatus;
+}
@@ -0,0 +1,25 @@
+package com.william.credito.infrastructure.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuoteDTO {
+
+    private Long loan;
+
+    /**
+     * Tasa en puntos basicos (1000 = 10 %).
+     */
+    private Integer interestRateBasisPoints;
+
+    private Integer agreedPayments;
+
+    private Long amountToPay;
+
+    private Long totalLoan;
+}
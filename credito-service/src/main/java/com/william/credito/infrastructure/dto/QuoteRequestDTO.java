@@ -0,0 +1,21 @@
+package com.william.credito.infrastructure.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuoteRequestDTO {
+
+    private Long loan;
+
+    /**
+     * Tasa en puntos basicos (1000 = 10 %).
+     */
+    private Integer interestRateBasisPoints;
+
+    private Integer agreedPayments;
+}
@@ -0,0 +1,13 @@
+package com.william.credito.infrastructure.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ServiceTokenRequestDTO {
+    private String clientId;
+    private String clientSecret;
+}
@@ -0,0 +1,39 @@
+package com.william.credito.infrastructure.dto;
+
+import lombok.Data;
+
+import java.util.Map;
+
+
+@Data
+public class SimulationResultDTO {
+
+    private int credits;
+
+    private int scenarios;
+
+    private long seed;
+
+    private int riskBuckets;
+
+    private long totalExposure;
+
+    private double expectedLoss;
+
+    private double lossStdDev;
+
+    /**
+     * Perdida por percentil, por ejemplo "p99".
+     */
+    private Map<String, Double> lossPercentiles;
+
+    private double expectedPrepayment;
+
+    private long snapshotMillis;
+
+    private long simulationMillis;
+
+    private double scenariosPerSecond;
+
+    private double creditScenariosPerSecond;
+}
@@ -0,0 +1,22 @@
+package com.william.credito.infrastructure.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatusSummaryDTO {
+
+    private String status;
+
+    private long credits;
+
+    private long loan;
+
+    private long totalLoan;
+
+    private long amountPaid;
+}
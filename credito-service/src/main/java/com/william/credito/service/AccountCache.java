@@ -0,0 +1,161 @@
+package com.william.credito.service;
+
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.william.credito.config.exceptions.AccountServiceUnavailableException;
+import com.william.credito.infrastructure.dto.AccountCacheStatsDTO;
+import com.william.credito.infrastructure.dto.AccountDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Copia local de las cuentas consultadas a cuenta-service, por id de cuenta y por id de persona.
+ * cuenta-service avisa cuando una cuenta cambia para descartarla; el TTL acota el tiempo que una
+ * copia puede quedar desactualizada si el aviso se pierde. Si cuenta-service no responde se usa la
+ * ultima copia conocida de la cuenta, que se conserva aunque se invalide hasta credit.account-cache.fallback-ttl.
+ */
+@Slf4j
+@Component
+public class AccountCache {
+
+    private final AccountClient accountClient;
+    private final Cache<Long, AccountDTO> accounts;
+    private final Cache<Long, Long> accountIdsByPerson;
+    private final Cache<Long, AccountDTO> lastKnownById;
+    private final Cache<Long, AccountDTO> lastKnownByPerson;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final LongAdder fallbacks = new LongAdder();
+
+    public AccountCache(AccountClient accountClient,
+                        @Value("${credit.account-cache.size:10000}") long size,
+                        @Value("${credit.account-cache.ttl:PT5M}") Duration ttl,
+                        @Value("${credit.account-cache.fallback-ttl:PT1H}") Duration fallbackTtl) {
+        this.accountClient = accountClient;
+        this.accounts = Caffeine.newBuilder()
+                .maximumSize(size)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.accountIdsByPerson = Caffeine.newBuilder()
+                .maximumSize(size)
+                .expireAfterWrite(ttl)
+                .build();
+        this.lastKnownById = Caffeine.newBuilder()
+                .maximumSize(size)
+                .expireAfterWrite(fallbackTtl)
+                .build();
+        this.lastKnownByPerson = Caffeine.newBuilder()
+                .maximumSize(size)
+                .expireAfterWrite(fallbackTtl)
+                .build();
+    }
+
+    /**
+     * Cuenta de la persona; consulta cuenta-service solo si no esta en cache. Devuelve null si no existe.
+     */
+    public AccountDTO getByPersonId(Long personId, String token) {
+        Long accountId = accountIdsByPerson.getIfPresent(personId);
+        if (accountId != null) {
+            AccountDTO cached = accounts.getIfPresent(accountId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        long epoch = invalidations.get();
+        AccountDTO account;
+        try {
+            account = accountClient.getAccountByPersonId(personId, token);
+        } catch (AccountServiceUnavailableException e) {
+            AccountDTO lastKnown = lastKnownByPerson.getIfPresent(personId);
+            if (lastKnown == null) {
+                throw e;
+            }
+            log.warn("cuenta-service unavailable, using last known account {} for person {}", lastKnown.getId(), personId);
+            fallbacks.increment();
+            return lastKnown;
+        }
+        if (account != null) {
+            store(account, personId, epoch);
+        }
+        return account;
+    }
+
+    /**
+     * Cuentas por id. Las que no estan en cache se piden en una sola llamada; las que cuenta-service
+     * no conoce no aparecen en el mapa.
+     */
+    public Map<Long, AccountDTO> getByIds(Collection<Long> accountIds, String token) {
+        Map<Long, AccountDTO> result = new HashMap<>(accounts.getAllPresent(accountIds));
+        List<Long> missing = accountIds.stream()
+                .filter(id -> !result.containsKey(id))
+                .distinct()
+                .toList();
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        long epoch = invalidations.get();
+        Map<Long, AccountDTO> fetched;
+        try {
+            fetched = accountClient.getAccountsByIds(missing, token);
+        } catch (AccountServiceUnavailableException e) {
+            Map<Long, AccountDTO> lastKnown = lastKnownById.getAllPresent(missing);
+            if (lastKnown.size() < missing.size()) {
+                throw e;
+            }
+            log.warn("cuenta-service unavailable, using last known copies of accounts {}", missing);
+            fallbacks.increment();
+            result.putAll(lastKnown);
+            return result;
+        }
+        if (fetched != null) {
+            result.putAll(fetched);
+            fetched.values().forEach(account -> store(account, null, epoch));
+        }
+        return result;
+    }
+
+    public void invalidate(Long accountId, Long personId) {
+        invalidations.incrementAndGet();
+        if (accountId != null) {
+            accounts.invalidate(accountId);
+        }
+        if (personId != null) {
+            accountIdsByPerson.invalidate(personId);
+        }
+    }
+
+    public AccountCacheStatsDTO stats() {
+        CacheStats stats = accounts.stats();
+        return new AccountCacheStatsDTO(accounts.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount(), fallbacks.sum());
+    }
+
+
+    private void store(AccountDTO account, Long personId, long epoch) {
+        Long owner = personId != null ? personId : account.getPerson() != null ? account.getPerson().getId() : null;
+        accounts.put(account.getId(), account);
+        lastKnownById.put(account.getId(), account);
+        if (owner != null) {
+            accountIdsByPerson.put(owner, account.getId());
+            lastKnownByPerson.put(owner, account);
+        }
+        // si llego un aviso mientras se consultaba, la respuesta puede ser anterior al cambio
+        if (invalidations.get() != epoch) {
+            accounts.invalidate(account.getId());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.william.credito.service;
+
+
+import com.william.credito.config.exceptions.AccountServiceUnavailableException;
+import com.william.credito.config.feign.AccountFeign;
+import com.william.credito.infrastructure.dto.AccountDTO;
+import feign.FeignException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+
+/**
+ * Consultas de solo lectura a cuenta-service. Cada metodo tiene su propio circuit breaker, bulkhead,
+ * reintento con espera exponencial aleatoria y tiempo limite total (resilience4j.* en
+ * application.properties). El tiempo limite envuelve los reintentos, asi que una consulta nunca retiene
+ * el hilo de credito-service mas de timeout-duration aunque cuenta-service este lenta.
+ * Los errores 4xx se propagan tal cual; el resto se reporta como {@link AccountServiceUnavailableException}.
+ */
+@Component
+public class AccountClient {
+
+    static final String BY_PERSON = "account-by-person";
+    static final String BY_IDS = "accounts-by-ids";
+
+    private final AccountFeign feign;
+    private final Guard byPerson;
+    private final Guard byIds;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public AccountClient(AccountFeign feign,
+                         CircuitBreakerRegistry circuitBreakers,
+                         BulkheadRegistry bulkheads,
+                         RetryRegistry retries,
+                         TimeLimiterRegistry timeLimiters,
+                         MeterRegistry meterRegistry) {
+        this.feign = feign;
+        this.byPerson = guard(BY_PERSON, circuitBreakers, bulkheads, retries, timeLimiters, meterRegistry);
+        this.byIds = guard(BY_IDS, circuitBreakers, bulkheads, retries, timeLimiters, meterRegistry);
+    }
+
+    public AccountDTO getAccountByPersonId(Long personId, String token) {
+        return call(byPerson, () -> feign.getAccountByPersonId(personId, token).getBody());
+    }
+
+    public Map<Long, AccountDTO> getAccountsByIds(Collection<Long> accountIds, String token) {
+        return call(byIds, () -> feign.getAccountsByIds(accountIds, token).getBody());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+
+    private <T> T call(Guard guard, Callable<T> request) {
+        Callable<T> attempts = Retry.decorateCallable(guard.retry(),
+                CircuitBreaker.decorateCallable(guard.circuitBreaker(),
+                        Bulkhead.decorateCallable(guard.bulkhead(), request)));
+        // los intentos corren en un hilo virtual para poder abandonarlos al vencer el tiempo limite
+        Callable<T> decorated = TimeLimiter.decorateFutureSupplier(guard.timeLimiter(), () -> executor.submit(attempts));
+        try {
+            return decorated.call();
+        } catch (FeignException.FeignClientException e) {
+            throw e;
+        } catch (FeignException | CallNotPermittedException | BulkheadFullException e) {
+            throw unavailable(guard, e);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw unavailable(guard, e);
+        }
+    }
+
+    private static AccountServiceUnavailableException unavailable(Guard guard, Exception cause) {
+        return new AccountServiceUnavailableException("cuenta-service call " + guard.circuitBreaker().getName()
+                + " failed: " + cause.getMessage(), cause);
+    }
+
+    private static Guard guard(String name,
+                               CircuitBreakerRegistry circuitBreakers,
+                               BulkheadRegistry bulkheads,
+                               RetryRegistry retries,
+                               TimeLimiterRegistry timeLimiters,
+                               MeterRegistry meterRegistry) {
+        Bulkhead bulkhead = bulkheads.bulkhead(name);
+        Counter rejected = Counter.builder("resilience4j.bulkhead.rejected.calls")
+                .description("Calls rejected because the bulkhead was full")
+                .tag("name", name)
+                .register(meterRegistry);
+        bulkhead.getEventPublisher().onCallRejected(event -> rejected.increment());
+        return new Guard(circuitBreakers.circuitBreaker(name), bulkhead, retries.retry(name), timeLimiters.timeLimiter(name));
+    }
+
+    private record Guard(CircuitBreaker circuitBreaker, Bulkhead bulkhead, Retry retry, TimeLimiter timeLimiter) {
+    }
+}
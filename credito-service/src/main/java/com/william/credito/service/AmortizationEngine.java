@@ -0,0 +1,99 @@
+package com.william.credito.service;
+
+
+import com.william.credito.domain.model.AmortizationMethod;
+import com.william.credito.domain.model.BasisPoints;
+
+
+/**
+ * Tablas de amortizacion en aritmetica de punto fijo. Los montos son pesos enteros en {@code long}
+ * y la tasa por periodo se expresa en milmillonesimas ({@link #RATE_SCALE}), asi que recorrer una
+ * tabla no crea objetos: cada cuota se entrega al {@link InstallmentWriter} apenas se calcula.
+ * El ultimo periodo absorbe el redondeo para que el saldo termine exactamente en cero.
+ */
+public final class AmortizationEngine {
+
+    public static final long RATE_SCALE = 1_000_000_000L;
+
+    private AmortizationEngine() {
+    }
+
+    @FunctionalInterface
+    public interface InstallmentWriter {
+        void write(int period, long payment, long principal, long interest, long balance);
+    }
+
+    /**
+     * Convierte una tasa nominal anual en puntos basicos a la tasa mensual en punto fijo.
+     */
+    public static long monthlyRate(int annualRateBasisPoints) {
+        long divisor = 12L * BasisPoints.ONE_HUNDRED_PERCENT;
+        return (annualRateBasisPoints * RATE_SCALE + divisor / 2) / divisor;
+    }
+
+    public static void generate(AmortizationMethod method, long loan, long periodRate, int periods, InstallmentWriter writer) {
+        if (loan <= 0 || periods < 1 || periodRate < 0) {
+            throw new IllegalArgumentException("loan and periods must be positive and the rate cannot be negative");
+        }
+        switch (method) {
+            case FRENCH -> french(loan, periodRate, periods, writer);
+            case GERMAN -> german(loan, periodRate, periods, writer);
+            case BULLET -> bullet(loan, periodRate, periods, writer);
+        }
+    }
+
+    /**
+     * Cuota fija P = L * r / (1 - (1 + r)^-n). La cuota se calcula una sola vez; cada periodo
+     * solo hace operaciones enteras.
+     */
+    private static void french(long loan, long periodRate, int periods, InstallmentWriter writer) {
+        long payment;
+        if (periodRate == 0) {
+            payment = ceilDiv(loan, periods);
+        } else {
+            double r = (double) periodRate / RATE_SCALE;
+            payment = Math.round(loan * r / (1 - Math.pow(1 + r, -periods)));
+        }
+
+        long balance = loan;
+        for (int period = 1; period <= periods; period++) {
+            long interest = interest(balance, periodRate);
+            long principal = period == periods ? balance : Math.min(balance, payment - interest);
+            balance -= principal;
+            writer.write(period, principal + interest, principal, interest, balance);
+        }
+    }
+
+    private static void german(long loan, long periodRate, int periods, InstallmentWriter writer) {
+        long principalPerPeriod = loan / periods;
+        long balance = loan;
+        for (int period = 1; period <= periods; period++) {
+            long interest = interest(balance, periodRate);
+            long principal = period == periods ? balance : principalPerPeriod;
+            balance -= principal;
+            writer.write(period, principal + interest, principal, interest, balance);
+        }
+    }
+
+    private static void bullet(long loan, long periodRate, int periods, InstallmentWriter writer) {
+        long interest = interest(loan, periodRate);
+        for (int period = 1; period < periods; period++) {
+            writer.write(period, interest, 0, interest, loan);
+        }
+        writer.write(periods, loan + interest, loan, interest, 0);
+    }
+
+    /**
+     * balance * rate / RATE_SCALE redondeado al peso. Se divide en parte alta y baja para no
+     * desbordar el long con saldos grandes.
+     */
+    static long interest(long balance, long periodRate) {
+        long high = balance / RATE_SCALE * periodRate;
+        long low = (balance % RATE_SCALE * periodRate + RATE_SCALE / 2) / RATE_SCALE;
+        return high + low;
+    }
+
+    private static long ceilDiv(long value, int divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+}
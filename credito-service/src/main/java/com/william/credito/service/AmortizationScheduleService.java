@@ -0,0 +1,156 @@
+package com.william.credito.service;
+
+
+import com.william.credito.config.exceptions.CreditException;
+import com.william.credito.domain.model.AmortizationMethod;
+import com.william.credito.domain.model.Credit;
+import com.william.credito.infrastructure.dao.CreditDao;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+
+/**
+ * Tablas de amortizacion como NDJSON: una linea por cuota, escrita apenas el motor la calcula.
+ * La tasa del credito se interpreta como nominal anual con cuotas mensuales. Ninguna tabla se
+ * arma completa en memoria, ni siquiera al exportar la cartera completa.
+ */
+@Service
+@RequiredArgsConstructor
+public class AmortizationScheduleService {
+
+    public static final int MAX_PERIODS = 1200;
+    private static final int EXPORT_PAGE_SIZE = 500;
+    private static final long MAX_LOAN = Long.MAX_VALUE / 2;
+
+    private final CreditDao creditDao;
+
+
+    public StreamingResponseBody schedule(AmortizationMethod method, Long loan, Integer interestRateBasisPoints, Integer periods) {
+        if (loan == null || interestRateBasisPoints == null || periods == null) {
+            throw new CreditException("Loan, interestRateBasisPoints and agreedPayments are required");
+        }
+        validate(loan, interestRateBasisPoints, periods);
+        long rate = AmortizationEngine.monthlyRate(interestRateBasisPoints);
+        long amount = loan;
+        return output -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            AmortizationEngine.generate(method, amount, rate, periods, new NdjsonInstallmentWriter(writer, null));
+            writer.flush();
+        };
+    }
+
+    public StreamingResponseBody creditSchedule(Long creditId, AmortizationMethod method) {
+        Credit credit = creditDao.findByCreditId(creditId)
+                .orElseThrow(() -> new CreditException("Credit with id: " + creditId + " not found"));
+        validate(credit.getLoan(), credit.getInterestRate(), credit.getAgreedPayments());
+        return output -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            writeCredit(credit, method, new NdjsonInstallmentWriter(writer, credit.getId()));
+            writer.flush();
+        };
+    }
+
+    /**
+     * Todas las tablas de la cartera. Los creditos se leen por cursor (monto, id) en paginas cortas
+     * y la salida se vacia al final de cada pagina.
+     */
+    public StreamingResponseBody portfolioSchedules(AmortizationMethod method) {
+        return output -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            NdjsonInstallmentWriter installments = new NdjsonInstallmentWriter(writer, null);
+            Long lastLoan = null;
+            Long lastId = null;
+            List<Credit> page;
+            do {
+                page = creditDao.findPageAfter(lastLoan, lastId, EXPORT_PAGE_SIZE);
+                for (Credit credit : page) {
+                    if (isSchedulable(credit)) {
+                        installments.creditId = credit.getId();
+                        writeCredit(credit, method, installments);
+                    }
+                }
+                if (!page.isEmpty()) {
+                    Credit last = page.get(page.size() - 1);
+                    lastLoan = last.getLoan();
+                    lastId = last.getId();
+                }
+                writer.flush();
+            } while (page.size() == EXPORT_PAGE_SIZE);
+        };
+    }
+
+
+    private static void writeCredit(Credit credit, AmortizationMethod method, NdjsonInstallmentWriter installments) throws IOException {
+        try {
+            AmortizationEngine.generate(method, credit.getLoan(),
+                    AmortizationEngine.monthlyRate(credit.getInterestRate()), credit.getAgreedPayments(), installments);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static boolean isSchedulable(Credit credit) {
+        return credit.getLoan() > 0 && credit.getLoan() <= MAX_LOAN && credit.getInterestRate() >= 0
+                && credit.getAgreedPayments() != null && credit.getAgreedPayments() >= 1
+                && credit.getAgreedPayments() <= MAX_PERIODS;
+    }
+
+    private static void validate(long loan, int interestRate, Integer periods) {
+        if (periods == null) {
+            throw new CreditException("Loan, interestRateBasisPoints and agreedPayments are required");
+        }
+        if (loan <= 0 || loan > MAX_LOAN) {
+            throw new CreditException("Loan must be greater than 0 and at most " + MAX_LOAN);
+        }
+        if (interestRate < 0) {
+            throw new CreditException("Interest rate must be 0 or greater");
+        }
+        if (periods < 1 || periods > MAX_PERIODS) {
+            throw new CreditException("Agreed payments must be between 1 and " + MAX_PERIODS);
+        }
+    }
+
+    /**
+     * Escribe cada cuota como una linea JSON reutilizando el mismo buffer.
+     */
+    static final class NdjsonInstallmentWriter implements AmortizationEngine.InstallmentWriter {
+
+        private final Writer writer;
+        private final StringBuilder line = new StringBuilder(128);
+        private Long creditId;
+
+        NdjsonInstallmentWriter(Writer writer, Long creditId) {
+            this.writer = writer;
+            this.creditId = creditId;
+        }
+
+        @Override
+        public void write(int period, long payment, long principal, long interest, long balance) {
+            line.setLength(0);
+            line.append('{');
+            if (creditId != null) {
+                line.append("\"creditId\":").append(creditId).append(',');
+            }
+            line.append("\"period\":").append(period)
+                    .append(",\"payment\":").append(payment)
+                    .append(",\"principal\":").append(principal)
+                    .append(",\"interest\":").append(interest)
+                    .append(",\"balance\":").append(balance)
+                    .append("}\n");
+            try {
+                writer.append(line);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
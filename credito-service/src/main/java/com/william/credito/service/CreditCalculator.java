@@ -0,0 +1,61 @@
+package com.william.credito.service;
+
+
+import com.william.credito.config.exceptions.CreditException;
+import com.william.credito.domain.model.BasisPoints;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+
+/**
+ * Calculos de cuota e interes de mora compartidos por la creacion de creditos y el job de mora.
+ * Los montos son pesos en {@code long} y las tasas puntos basicos, asi que no se crea ningun objeto.
+ */
+public final class CreditCalculator {
+
+    /**
+     * Puntos basicos de interes que se suman por cada mes vencido sin pagar.
+     */
+    public static final int LATE_INTEREST_BASIS_POINTS = 300;
+
+    private CreditCalculator() {
+    }
+
+    /**
+     * (monto + monto * tasa) / cuotas. El interes y la cuota se redondean a decimas de peso y la cuota
+     * se trunca al peso, igual que el calculo anterior con BigDecimal.
+     */
+    public static long calculateAmountToPay(long amount, int interestRateBasisPoints, int agreedPayments) {
+        if (agreedPayments <= 0) {
+            throw new CreditException("Agreed payments must be greater than 0");
+        }
+        try {
+            long interestTenths = divideHalfUp(Math.multiplyExact(amount, (long) interestRateBasisPoints), BasisPoints.ONE_HUNDRED_PERCENT / 10);
+            long totalTenths = Math.addExact(Math.multiplyExact(amount, 10L), interestTenths);
+            return divideHalfUp(totalTenths, agreedPayments) / 10;
+        } catch (ArithmeticException e) {
+            throw new CreditException("Loan is too large for the given interest rate");
+        }
+    }
+
+    /**
+     * Meses de mora acumulados a la fecha: cuantas veces hay que mover la fecha de expiracion un mes
+     * para que deje de estar vencida. Devuelve 0 si el credito no esta vencido.
+     */
+    public static int overdueMonths(LocalDateTime expirationDate, LocalDateTime asOf) {
+        if (!asOf.isAfter(expirationDate)) {
+            return 0;
+        }
+        int months = (int) ChronoUnit.MONTHS.between(expirationDate, asOf);
+        while (expirationDate.plusMonths(months).isBefore(asOf)) {
+            months++;
+        }
+        return months;
+    }
+
+
+    private static long divideHalfUp(long dividend, long divisor) {
+        return Math.addExact(dividend, divisor / 2) / divisor;
+    }
+}
@@ -0,0 +1,215 @@
+package com.william.credito.service;
+
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.william.credito.domain.model.Credit;
+import com.william.credito.infrastructure.dao.CreditDao;
+import com.william.credito.infrastructure.dto.AccountDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Exportacion de la cartera completa en una sola respuesta. Los creditos se leen por id en bloques,
+ * cada uno en su propia transaccion corta, asi que ninguna conexion queda retenida mientras se llama a
+ * cuenta-service o se escribe al cliente. Cada bloque resuelve sus cuentas en una sola llamada y se
+ * envia antes de leer el siguiente; la memoria usada no depende del tamano de la cartera. Las cuentas
+ * se piden con {@link AccountClient}, bajo el mismo circuit breaker y bulkhead que el resto de
+ * consultas, y no con {@link AccountCache}: la exportacion recorre todas las cuentas y solo
+ * desplazaria las frecuentes. La exportacion puede durar mas que el token del usuario, asi que las
+ * consultas viajan con el token de servicio, que se renueva antes de vencer.
+ */
+@Service
+@Slf4j
+public class CreditExportService {
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private static final String CSV_HEADER = "id,accountId,personId,accountBalance,loan,totalLoan,amountPaid,amountToPay,"
+            + "interestRateBasisPoints,agreedPayments,paymentsMade,creditGivenDate,creditExpirationDate,status\n";
+
+    private final CreditDao creditDao;
+    private final AccountClient accountClient;
+    private final ServiceTokenProvider serviceToken;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public CreditExportService(CreditDao creditDao,
+                               AccountClient accountClient,
+                               ServiceTokenProvider serviceToken,
+                               ObjectMapper objectMapper,
+                               @Value("${credit.export.batch-size:500}") int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("credit.export.batch-size must be greater than 0");
+        }
+        this.creditDao = creditDao;
+        this.accountClient = accountClient;
+        this.serviceToken = serviceToken;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    public StreamingResponseBody export(Format format) {
+        return output -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+            RowWriter rows = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(createGenerator(writer));
+            long start = System.nanoTime();
+            long exported = 0;
+            long lastId = 0;
+            List<Credit> batch;
+            do {
+                batch = creditDao.findPageAfterId(lastId, batchSize);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                writeBatch(batch, rows);
+                exported += batch.size();
+                lastId = batch.get(batch.size() - 1).getId();
+            } while (batch.size() == batchSize);
+            rows.flush();
+            log.info("{} credits exported as {} in {} ms", exported, format, (System.nanoTime() - start) / 1_000_000);
+        };
+    }
+
+
+    private void writeBatch(List<Credit> batch, RowWriter rows) throws IOException {
+        List<Long> accountIds = batch.stream()
+                .map(Credit::getAccountId)
+                .distinct()
+                .toList();
+        Map<Long, AccountDTO> accounts = accountClient.getAccountsByIds(accountIds, serviceToken.bearerToken());
+        for (Credit credit : batch) {
+            rows.write(credit, accounts == null ? null : accounts.get(credit.getAccountId()));
+        }
+        rows.flush();
+    }
+
+    private JsonGenerator createGenerator(Writer writer) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        return generator;
+    }
+
+    private static Long personId(AccountDTO account) {
+        return account == null || account.getPerson() == null ? null : account.getPerson().getId();
+    }
+
+    private interface RowWriter {
+        void write(Credit credit, AccountDTO account) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+        private final StringBuilder line = new StringBuilder(256);
+
+        CsvRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write(CSV_HEADER);
+        }
+
+        @Override
+        public void write(Credit credit, AccountDTO account) throws IOException {
+            line.setLength(0);
+            line.append(credit.getId()).append(',');
+            append(credit.getAccountId()).append(',');
+            append(personId(account)).append(',');
+            append(account == null ? null : account.getBalance()).append(',');
+            line.append(credit.getLoan()).append(',')
+                    .append(credit.getTotalLoan()).append(',')
+                    .append(credit.getAmountPaid()).append(',')
+                    .append(credit.getAmountToPay()).append(',')
+                    .append(credit.getInterestRate()).append(',');
+            append(credit.getAgreedPayments()).append(',');
+            append(credit.getPaymentsMade()).append(',');
+            append(credit.getCreditGivenDate()).append(',');
+            append(credit.getCreditExpirationDate()).append(',');
+            appendText(credit.getStatus()).append('\n');
+            writer.append(line);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        private StringBuilder append(Object value) {
+            return value == null ? line : line.append(value);
+        }
+
+        private StringBuilder appendText(String value) {
+            if (value == null) {
+                return line;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+                return line.append(value);
+            }
+            return line.append('"').append(value.replace("\"", "\"\"")).append('"');
+        }
+    }
+
+    private static final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        @Override
+        public void write(Credit credit, AccountDTO account) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", credit.getId());
+            writeNumber("accountId", credit.getAccountId());
+            writeNumber("personId", personId(account));
+            writeNumber("accountBalance", account == null ? null : account.getBalance());
+            generator.writeNumberField("loan", credit.getLoan());
+            generator.writeNumberField("totalLoan", credit.getTotalLoan());
+            generator.writeNumberField("amountPaid", credit.getAmountPaid());
+            generator.writeNumberField("amountToPay", credit.getAmountToPay());
+            generator.writeNumberField("interestRateBasisPoints", credit.getInterestRate());
+            writeNumber("agreedPayments", credit.getAgreedPayments() == null ? null : credit.getAgreedPayments().longValue());
+            writeNumber("paymentsMade", credit.getPaymentsMade() == null ? null : credit.getPaymentsMade().longValue());
+            writeDate("creditGivenDate", credit.getCreditGivenDate());
+            writeDate("creditExpirationDate", credit.getCreditExpirationDate());
+            generator.writeStringField("status", credit.getStatus());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        private void writeNumber(String field, Long value) throws IOException {
+            if (value == null) {
+                generator.writeNullField(field);
+            } else {
+                generator.writeNumberField(field, value);
+            }
+        }
+
+        private void writeDate(String field, LocalDateTime value) throws IOException {
+            generator.writeStringField(field, value == null ? null : value.toString());
+        }
+    }
+}
@@ -1,12 +1,16 @@
 package com.william.credito.service;
 
 
+import com.william.credito.infrastructure.dto.BatchPaymentDTO;
+import com.william.credito.infrastructure.dto.BatchPaymentResultDTO;
 import com.william.credito.infrastructure.dto.CreateCreditDTO;
 import com.william.credito.infrastructure.dto.CreditDTO;
+import com.william.credito.infrastructure.dto.CreditSliceDTO;
+import com.william.credito.infrastructure.dto.PaymentStatusDTO;
+import com.william.credito.infrastructure.dto.PortfolioSummaryDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
-import java.math.BigInteger;
 import java.util.List;
 
 public interface CreditService {
@@ -17,9 +21,17 @@ public interface CreditService {
 
     String createCredit(CreateCreditDTO creditDTO, Long personId);
 
-    String sendPayment(Long personId, BigInteger amount, Long creditId);
+    String sendPayment(Long personId, Long amount, Long creditId, String idempotencyKey);
+
+    List<BatchPaymentResultDTO> sendPayments(List<BatchPaymentDTO> payments);
+
+    PaymentStatusDTO getPayment(Long paymentId);
 
     String deleteCredit(Long creditId);
 
     Page<CreditDTO> getAllCredits(Pageable pageable);
+
+    CreditSliceDTO getCreditsByCursor(String cursor, int size);
+
+    PortfolioSummaryDTO getPortfolioSummary();
 }
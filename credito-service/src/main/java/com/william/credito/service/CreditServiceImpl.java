@@ -2,14 +2,22 @@ package com.william.credito.service;
 
 
 import com.william.credito.config.exceptions.CreditException;
-import com.william.credito.config.feign.AccountFeign;
 import com.william.credito.domain.model.Credit;
+import com.william.credito.domain.model.OutboxStatus;
+import com.william.credito.domain.model.PaymentOutbox;
 import com.william.credito.domain.model.Status;
 import com.william.credito.infrastructure.dao.CreditDao;
+import com.william.credito.infrastructure.dao.PaymentOutboxDao;
 import com.william.credito.infrastructure.dto.AccountDTO;
+import com.william.credito.infrastructure.dto.BatchPaymentDTO;
+import com.william.credito.infrastructure.dto.BatchPaymentResultDTO;
 import com.william.credito.infrastructure.dto.CreateCreditDTO;
 import com.william.credito.infrastructure.dto.CreditDTO;
+import com.william.credito.infrastructure.dto.CreditSliceDTO;
+import com.william.credito.infrastructure.dto.PaymentStatusDTO;
+import com.william.credito.infrastructure.dto.PortfolioSummaryDTO;
 import feign.FeignException;
+import io.micrometer.core.annotation.Timed;
 import jakarta.servlet.http.HttpServletRequest;
 import org.apache.commons.fileupload.servlet.ServletRequestContext;
 import org.springframework.data.domain.Page;
@@ -17,6 +25,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -24,24 +33,38 @@ import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
-import java.math.BigDecimal;
-import java.math.BigInteger;
-import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(value = "credit.service", histogram = true)
 public class CreditServiceImpl implements CreditService {
 
+    private static final int MAX_SLICE_SIZE = 100;
+    static final int MAX_BATCH_SIZE = 5000;
 
-    private final AccountFeign feign;
+    private final AccountCache accountCache;
     private final CreditDao creditDao;
+    private final PaymentOutboxDao outboxDao;
+    private final PaymentIdempotencyService idempotencyService;
+    private final PortfolioSummaryService portfolioSummary;
+    private final OptimisticRetry optimisticRetry;
+    private final TransactionTemplate transactionTemplate;
     private final Function<Credit, CreditDTO> entityToCreditDTO;
     private final Function<CreateCreditDTO, Credit> dtoToCreditEntity;
+    private final Function<PaymentOutbox, PaymentStatusDTO> entityToPaymentStatusDTO;
 
 
     @Override
@@ -73,72 +96,177 @@ public class CreditServiceImpl implements CreditService {
         credit.setPaymentsMade(0);
         credit.setAccountId(account.getId());
         credit.setStatus(Status.PENDING.getDescription());
-        BigInteger loan = calculateAmountToPay(credit.getLoan(), credit.getInterestRate(), credit.getAgreedPayments());
-        credit.setAmountToPay(loan);
-        credit.setTotalLoan(loan.multiply(BigInteger.valueOf(credit.getAgreedPayments())));
-        credit.setAmountPaid(BigInteger.ZERO);
+        long amountToPay = CreditCalculator.calculateAmountToPay(credit.getLoan(), credit.getInterestRate(), credit.getAgreedPayments());
+        credit.setAmountToPay(amountToPay);
+        credit.setTotalLoan(amountToPay * credit.getAgreedPayments());
+        credit.setAmountPaid(0);
         creditDao.save(credit);
+        portfolioSummary.creditCreated(credit);
         return "Credit created successfully";
 
     }
 
-    @Transactional
+    /**
+     * Cada intento corre en su propia transaccion: si otro pago sobre el mismo credito confirma
+     * primero, la validacion de cuotas se repite con el estado actualizado.
+     */
     @Override
-    public String sendPayment(Long personId, BigInteger amount, Long creditId) {
+    public String sendPayment(Long personId, Long amount, Long creditId, String idempotencyKey) {
 
-        if (amount.compareTo(BigInteger.ZERO) <= 0) {
+        if (amount == null || amount <= 0) {
             throw new CreditException("Amount must be greater than 0");
         }
 
-        if (creditDao.creditExists(creditId).equals(Boolean.FALSE)) {
-            throw new CreditException("Credit with id: " + creditId + " not found");
+        return optimisticRetry.execute(() -> transactionTemplate.execute(status ->
+                registerPayment(personId, amount, creditId, idempotencyKey)));
+    }
+
+    private String registerPayment(Long personId, long amount, Long creditId, String idempotencyKey) {
+
+        String fingerprint = null;
+        if (idempotencyKey != null) {
+            fingerprint = PaymentIdempotencyService.fingerprint(personId, creditId, amount);
+            Optional<String> previous = idempotencyService.replay(idempotencyKey, fingerprint);
+            if (previous.isPresent()) {
+                return previous.get();
+            }
         }
 
-        Credit entity = creditDao.findByCreditId(creditId).get();
+        Credit entity = creditDao.lockForPayment(creditId)
+                .orElseThrow(() -> new CreditException("Credit with id: " + creditId + " not found"));
+        checkPayment(entity, amount, outboxDao.countInProcess(creditId));
 
-        if (entity.getStatus().equals(Status.PAID_OFF.getDescription())) {
-            throw new CreditException("Credit with id: " + creditId + " is already paid off");
+        PaymentOutbox payment = newPayment(creditId, personId, amount, LocalDateTime.now().withNano(0));
+        outboxDao.save(payment);
+
+        String response = registeredResponse(payment);
+        if (idempotencyKey != null) {
+            idempotencyService.record(idempotencyKey, fingerprint, payment.getId(), response);
         }
+        return response;
+    }
 
-        if (!entity.getAmountToPay().equals(amount)) {
-            throw new CreditException("You should pay: " + entity.getAmountToPay());
+    /**
+     * Registra todos los pagos del lote en una sola transaccion: los creditos y los pagos en curso se
+     * leen con una consulta por lote y los pagos aceptados se insertan juntos. Cada pago se valida
+     * por separado; un pago rechazado no impide registrar los demas.
+     */
+    @Override
+    public List<BatchPaymentResultDTO> sendPayments(List<BatchPaymentDTO> payments) {
+
+        if (payments == null || payments.isEmpty() || payments.size() > MAX_BATCH_SIZE) {
+            throw new CreditException("Batch must have between 1 and " + MAX_BATCH_SIZE + " payments");
         }
 
-        LocalDateTime creditExpireDate = entity.getCreditExpirationDate();
-        LocalDateTime now = LocalDateTime.now().withNano(0);
+        return optimisticRetry.execute(() -> transactionTemplate.execute(status ->
+                registerPayments(payments)));
+    }
+
+    private List<BatchPaymentResultDTO> registerPayments(List<BatchPaymentDTO> items) {
 
-        if (now.isAfter(creditExpireDate)) {
-            entity.setInterestRate(entity.getInterestRate() + 3);
-            entity.setCreditExpirationDate(creditExpireDate.plusMonths(1));
+        List<Long> creditIds = items.stream()
+                .map(BatchPaymentDTO::getCreditId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<Long, Credit> credits = creditDao.lockForPayment(creditIds).stream()
+                .collect(Collectors.toMap(Credit::getId, Function.identity()));
+        Map<Long, Long> inProcess = new HashMap<>(outboxDao.countInProcess(creditIds));
 
-            BigInteger totalAmountToPay = calculateAmountToPay(entity.getLoan(), entity.getInterestRate(), entity.getAgreedPayments());
-            entity.setAmountToPay(totalAmountToPay);
+        BatchPaymentResultDTO[] results = new BatchPaymentResultDTO[items.size()];
+        Map<Integer, PaymentOutbox> accepted = new LinkedHashMap<>();
+        Map<String, String> fingerprints = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+
+        for (int i = 0; i < items.size(); i++) {
+            BatchPaymentDTO item = items.get(i);
+            Long creditId = item.getCreditId();
+            try {
+                if (creditId == null || item.getPersonId() == null) {
+                    throw new CreditException("Credit id and person id are required");
+                }
+                if (item.getAmount() == null || item.getAmount() <= 0) {
+                    throw new CreditException("Amount must be greater than 0");
+                }
+
+                String key = item.getIdempotencyKey();
+                if (key != null) {
+                    String fingerprint = PaymentIdempotencyService.fingerprint(item.getPersonId(), creditId, item.getAmount());
+                    if (fingerprints.putIfAbsent(key, fingerprint) != null) {
+                        throw new CreditException("Idempotency-Key: " + key + " is repeated in the batch");
+                    }
+                    Optional<String> previous = idempotencyService.replay(key, fingerprint);
+                    if (previous.isPresent()) {
+                        results[i] = new BatchPaymentResultDTO(creditId, null, true, previous.get());
+                        continue;
+                    }
+                }
+
+                Credit entity = credits.get(creditId);
+                if (entity == null) {
+                    throw new CreditException("Credit with id: " + creditId + " not found");
+                }
+                checkPayment(entity, item.getAmount(), inProcess.getOrDefault(creditId, 0L));
+
+                accepted.put(i, newPayment(creditId, item.getPersonId(), item.getAmount(), now));
+                inProcess.merge(creditId, 1L, Long::sum);
+            } catch (CreditException e) {
+                results[i] = new BatchPaymentResultDTO(creditId, null, false, e.getMessage());
+            }
         }
 
-        String respuesta;
-        try {
+        outboxDao.saveAll(List.copyOf(accepted.values()));
 
-            String token = getBearerTokenFromContext();
-            respuesta = feign.sendPayment(personId, amount, creditId, token).getBody();
+        accepted.forEach((index, payment) -> {
+            String response = registeredResponse(payment);
+            String key = items.get(index).getIdempotencyKey();
+            if (key != null) {
+                idempotencyService.record(key, fingerprints.get(key), payment.getId(), response);
+            }
+            results[index] = new BatchPaymentResultDTO(payment.getCreditId(), payment.getId(), true, response);
+        });
+        return List.of(results);
+    }
 
-        } catch (FeignException e) {
-            String message = e.getMessage();
-            String extractedMessage = message.replaceAll(".*\\]: \\[(.*)\\]", "$1");
-            throw new CreditException(extractedMessage);
+    private void checkPayment(Credit entity, long amount, long inProcess) {
+        if (entity.getStatus().equals(Status.PAID_OFF.getDescription())) {
+            throw new CreditException("Credit with id: " + entity.getId() + " is already paid off");
         }
 
+        if (entity.getAmountToPay() != amount) {
+            throw new CreditException("You should pay: " + entity.getAmountToPay());
+        }
 
-        entity.setPaymentsMade(entity.getPaymentsMade() + 1);
-        entity.setAmountPaid(entity.getAmountPaid().add(amount));
-
-        if (entity.getPaymentsMade().compareTo(entity.getAgreedPayments()) == 0 || entity.getAmountPaid().compareTo(entity.getLoan()) == 0) {
-            entity.setStatus(Status.PAID_OFF.getDescription());
+        if (entity.getPaymentsMade() + inProcess >= entity.getAgreedPayments()) {
+            throw new CreditException("Credit with id: " + entity.getId() + " has no installments left to pay");
         }
+    }
 
+    private static PaymentOutbox newPayment(Long creditId, Long personId, long amount, LocalDateTime now) {
+        PaymentOutbox payment = new PaymentOutbox();
+        payment.setCreditId(creditId);
+        payment.setPersonId(personId);
+        payment.setAmount(amount);
+        payment.setStatus(OutboxStatus.PENDING);
+        payment.setAttempts(0);
+        payment.setCreatedAt(now);
+        payment.setUpdatedAt(now);
+        payment.setNextAttemptAt(now);
+        return payment;
+    }
 
-        return respuesta;
+    private static String registeredResponse(PaymentOutbox payment) {
+        return "Payment with id: " + payment.getId() + " registered, pending confirmation";
     }
 
+    @Override
+    public PaymentStatusDTO getPayment(Long paymentId) {
+        return outboxDao.findById(paymentId)
+                .map(entityToPaymentStatusDTO)
+                .orElseThrow(() -> new CreditException("Payment with id: " + paymentId + " not found"));
+    }
+
+    @Transactional
     @Override
     public String deleteCredit(Long creditId) {
 
@@ -151,36 +279,101 @@ public class CreditServiceImpl implements CreditService {
 
         entity.setStatus(Status.CANCELED.getDescription());
         creditDao.save(entity);
+        portfolioSummary.statusChanged(entity, Status.PENDING.getDescription());
         return "Credit with id: " + creditId + " cancelled successfully";
     }
 
     @Override
     public Page<CreditDTO> getAllCredits(Pageable pageable) {
         Page<Credit> pagina = creditDao.findAll(pageable);
-        return pagina.map(p -> {
-            CreditDTO dto = entityToCreditDTO.apply(p);
-            AccountDTO account = fetchAccountById(p.getAccountId());
-            dto.setAccount(account);
-            return dto;
-        });
+
+        Map<Long, AccountDTO> accounts = fetchAccountsFor(pagina.getContent());
+
+        return pagina.map(p -> toCreditDTO(p, accounts));
     }
 
+    @Override
+    public PortfolioSummaryDTO getPortfolioSummary() {
+        return portfolioSummary.getSummary();
+    }
 
-    private AccountDTO fetchAccountById(Long accountId) {
-        try {
-            String token = getBearerTokenFromContext();
-            AccountDTO account = feign.getAccountById(accountId, token).getBody();
+    @Override
+    public CreditSliceDTO getCreditsByCursor(String cursor, int size) {
+        if (size < 1 || size > MAX_SLICE_SIZE) {
+            throw new CreditException("Size must be between 1 and " + MAX_SLICE_SIZE);
+        }
 
-            if (account == null) {
-                throw new CreditException("Account with id: " + accountId + " not found");
+        Long loan = null;
+        Long id = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = decodeCursor(cursor);
+            loan = Long.valueOf(position[0]);
+            id = Long.valueOf(position[1]);
+        }
+
+        // se pide un credito de mas para saber si hay otra pagina sin contar la tabla
+        List<Credit> credits = creditDao.findPageAfter(loan, id, size + 1);
+        boolean hasNext = credits.size() > size;
+        if (hasNext) {
+            credits = credits.subList(0, size);
+        }
+
+        Map<Long, AccountDTO> accounts = fetchAccountsFor(credits);
+        List<CreditDTO> content = credits.stream().map(c -> toCreditDTO(c, accounts)).toList();
+        String nextCursor = hasNext ? encodeCursor(credits.getLast()) : null;
+        return new CreditSliceDTO(content, content.size(), hasNext, nextCursor);
+    }
+
+
+    private Map<Long, AccountDTO> fetchAccountsFor(List<Credit> credits) {
+        List<Long> accountIds = credits.stream()
+                .map(Credit::getAccountId)
+                .distinct()
+                .toList();
+        return fetchAccountsByIds(accountIds);
+    }
+
+    private CreditDTO toCreditDTO(Credit credit, Map<Long, AccountDTO> accounts) {
+        CreditDTO dto = entityToCreditDTO.apply(credit);
+        AccountDTO account = accounts.get(credit.getAccountId());
+        if (account == null) {
+            throw new CreditException("Account with id: " + credit.getAccountId() + " not found");
+        }
+        dto.setAccount(account);
+        return dto;
+    }
+
+    private static String encodeCursor(Credit last) {
+        String position = last.getLoan() + ":" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = position.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException(position);
             }
-            return account;
+            Long.parseLong(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new CreditException("Invalid cursor: " + cursor);
+        }
+    }
+
+
+    private Map<Long, AccountDTO> fetchAccountsByIds(List<Long> accountIds) {
+        if (accountIds.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            String token = getBearerTokenFromContext();
+            return accountCache.getByIds(accountIds, token);
 
-        } catch (FeignException.BadRequest | FeignException.NotFound e) {
-            log.error("Error fetching account for accountId: {}", accountId, e);
-            throw new CreditException("Account with id: " + accountId + " not found");
         } catch (FeignException e) {
-            log.error("Feign exception occurred while fetching account for accountId: {}", accountId, e);
+            log.error("Feign exception occurred while fetching accounts for accountIds: {}", accountIds, e);
             throw new CreditException("An error occurred while fetching the account information");
         }
     }
@@ -188,7 +381,7 @@ public class CreditServiceImpl implements CreditService {
     private AccountDTO fetchAccountByPersonId(Long personId) {
         try {
             String token = getBearerTokenFromContext();
-            AccountDTO account = feign.getAccountByPersonId(personId, token).getBody();
+            AccountDTO account = accountCache.getByPersonId(personId, token);
 
             if (account == null) {
                 throw new CreditException("Account with person id: " + personId + " not found");
@@ -204,19 +397,6 @@ public class CreditServiceImpl implements CreditService {
         }
     }
 
-    private BigInteger calculateAmountToPay(BigInteger amount, Float interestRate, Integer agreedPayments) {
-        BigDecimal amountDecimal = new BigDecimal(amount);
-        BigDecimal interestRateDecimal = BigDecimal.valueOf(interestRate);
-
-        BigDecimal interestAmount = amountDecimal.multiply(interestRateDecimal).divide(BigDecimal.valueOf(100), RoundingMode.HALF_UP);
-
-        BigDecimal totalAmount = amountDecimal.add(interestAmount);
-
-        BigDecimal amountToPayDecimal = totalAmount.divide(BigDecimal.valueOf(agreedPayments), RoundingMode.HALF_UP);
-
-        return amountToPayDecimal.toBigInteger();
-    }
-
     private String getBearerTokenFromContext() {
         RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
         if (requestAttributes instanceof ServletRequestAttributes atributes) {
@@ -0,0 +1,178 @@
+package com.william.credito.service;
+
+
+import com.william.credito.config.exceptions.CreditException;
+import com.william.credito.domain.model.LateInterestAccrual;
+import com.william.credito.domain.model.OverdueCredit;
+import com.william.credito.infrastructure.dao.CreditAccrualDao;
+import com.william.credito.infrastructure.dto.AccrualReportDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Job de mora: recorre los creditos pendientes vencidos por keyset y aplica el interes de mora
+ * de todos los meses atrasados en una sola actualizacion. Un hilo lee los bloques y los workers
+ * calculan y escriben cada bloque en su propia transaccion.
+ * <p>
+ * Volver a ejecutarlo es seguro: el update exige la fecha de expiracion leida, y un credito al dia
+ * ya no esta vencido.
+ */
+@Service
+@Slf4j
+public class LateInterestAccrualService {
+
+    private final CreditAccrualDao accrualDao;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int workers;
+    private final ExecutorService executor;
+    private final ExecutorService launcher = Executors.newSingleThreadExecutor();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public LateInterestAccrualService(CreditAccrualDao accrualDao,
+                                      TransactionTemplate transactionTemplate,
+                                      @Value("${credit.accrual.chunk-size:1000}") int chunkSize,
+                                      @Value("${credit.accrual.workers:4}") int workers) {
+        if (chunkSize < 1 || workers < 1) {
+            throw new IllegalArgumentException("credit.accrual.chunk-size and credit.accrual.workers must be greater than 0");
+        }
+        this.accrualDao = accrualDao;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.workers = workers;
+        this.executor = Executors.newFixedThreadPool(workers);
+    }
+
+    @Scheduled(cron = "${credit.accrual.cron:0 0 1 * * *}")
+    public void scheduledAccrual() {
+        if (running.get()) {
+            log.warn("Late interest accrual is still running, skipping scheduled execution");
+            return;
+        }
+        accrueNow();
+    }
+
+    public AccrualReportDTO accrueNow() {
+        return accrue(LocalDateTime.now().withNano(0));
+    }
+
+    /**
+     * Lanza el job a la fecha actual en segundo plano y devuelve esa fecha sin esperar a que termine;
+     * el resultado queda en el log. Falla si ya hay una ejecucion en curso.
+     */
+    public LocalDateTime startNow() {
+        LocalDateTime asOf = LocalDateTime.now().withNano(0);
+        if (!running.compareAndSet(false, true)) {
+            throw new CreditException("Late interest accrual is already running");
+        }
+        try {
+            launcher.execute(() -> {
+                try {
+                    run(asOf);
+                } catch (RuntimeException e) {
+                    log.error("Late interest accrual as of {} did not finish: {}", asOf, e.getMessage());
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+            throw new CreditException("Late interest accrual could not be started");
+        }
+        return asOf;
+    }
+
+    public AccrualReportDTO accrue(LocalDateTime asOf) {
+        if (!running.compareAndSet(false, true)) {
+            throw new CreditException("Late interest accrual is already running");
+        }
+        try {
+            return run(asOf);
+        } finally {
+            running.set(false);
+        }
+    }
+
+
+    private AccrualReportDTO run(LocalDateTime asOf) {
+        long start = System.nanoTime();
+        AtomicLong updated = new AtomicLong();
+        long scanned = 0;
+
+        // limita los bloques leidos y aun no escritos para no cargar toda la tabla en memoria
+        Semaphore inFlight = new Semaphore(workers * 2);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        OverdueCredit last = null;
+        try {
+            while (true) {
+                List<OverdueCredit> chunk = accrualDao.findOverdue(asOf, last, chunkSize);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                scanned += chunk.size();
+                last = chunk.getLast();
+
+                inFlight.acquire();
+                futures.add(CompletableFuture
+                        .runAsync(() -> updated.addAndGet(applyChunk(chunk, asOf)), executor)
+                        .whenComplete((result, error) -> inFlight.release()));
+
+                if (chunk.size() < chunkSize) {
+                    break;
+                }
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CreditException("Late interest accrual was interrupted");
+        } catch (CompletionException e) {
+            log.error("Late interest accrual failed after updating {} credits", updated.get(), e.getCause());
+            throw new CreditException("Late interest accrual failed, it can be run again safely");
+        }
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        double creditsPerSecond = scanned * 1000.0 / elapsedMillis;
+        log.info("Late interest accrual as of {}: {} credits scanned, {} updated in {} ms ({} credits/s)",
+                asOf, scanned, updated.get(), elapsedMillis, String.format("%.1f", creditsPerSecond));
+        return new AccrualReportDTO(asOf, scanned, updated.get(), elapsedMillis, creditsPerSecond);
+    }
+
+    private int applyChunk(List<OverdueCredit> chunk, LocalDateTime asOf) {
+        List<LateInterestAccrual> accruals = new ArrayList<>(chunk.size());
+        for (OverdueCredit credit : chunk) {
+            int months = CreditCalculator.overdueMonths(credit.creditExpirationDate(), asOf);
+            if (months == 0) {
+                continue;
+            }
+            int interestRate = credit.interestRate() + CreditCalculator.LATE_INTEREST_BASIS_POINTS * months;
+            long amountToPay = CreditCalculator.calculateAmountToPay(credit.loan(), interestRate, credit.agreedPayments());
+            accruals.add(new LateInterestAccrual(credit.id(), credit.creditExpirationDate(),
+                    credit.creditExpirationDate().plusMonths(months), interestRate, amountToPay));
+        }
+        Integer updated = transactionTemplate.execute(status -> accrualDao.applyAccruals(accruals));
+        return updated == null ? 0 : updated;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        launcher.shutdownNow();
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,75 @@
+package com.william.credito.service;
+
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.william.credito.config.exceptions.CreditException;
+import com.william.credito.infrastructure.dto.QuoteDTO;
+import com.william.credito.infrastructure.dto.QuoteRequestDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+
+/**
+ * Cotizaciones sin efectos: calcula la cuota y el total con la misma formula que la creacion de
+ * creditos, sin tocar la base de datos ni cuenta-service. Los resultados se memorizan en una cache
+ * acotada por (monto, tasa, cuotas).
+ */
+@Service
+public class LoanQuoteService {
+
+    public static final int MAX_BATCH_SIZE = 5000;
+
+    private final Cache<QuoteKey, Quote> cache;
+
+    public LoanQuoteService(@Value("${credit.quote.cache-size:100000}") long cacheSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .build();
+    }
+
+    public QuoteDTO quote(QuoteRequestDTO request) {
+        validate(request);
+        QuoteKey key = new QuoteKey(request.getLoan(), request.getInterestRateBasisPoints(), request.getAgreedPayments());
+        Quote quote = cache.get(key, LoanQuoteService::calculate);
+        return new QuoteDTO(request.getLoan(), request.getInterestRateBasisPoints(), request.getAgreedPayments(),
+                quote.amountToPay(), quote.totalLoan());
+    }
+
+    public List<QuoteDTO> quote(List<QuoteRequestDTO> requests) {
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new CreditException("A maximum of " + MAX_BATCH_SIZE + " quotes can be requested at once");
+        }
+        requests.forEach(LoanQuoteService::validate);
+        return requests.stream().map(this::quote).toList();
+    }
+
+
+    private static Quote calculate(QuoteKey key) {
+        long amountToPay = CreditCalculator.calculateAmountToPay(key.loan(), key.interestRate(), key.agreedPayments());
+        return new Quote(amountToPay, amountToPay * key.agreedPayments());
+    }
+
+    private static void validate(QuoteRequestDTO request) {
+        if (request == null || request.getLoan() == null || request.getInterestRateBasisPoints() == null || request.getAgreedPayments() == null) {
+            throw new CreditException("Loan, interestRateBasisPoints and agreedPayments are required");
+        }
+        if (request.getLoan() <= 0) {
+            throw new CreditException("Loan must be greater than 0");
+        }
+        if (request.getInterestRateBasisPoints() < 0) {
+            throw new CreditException("Interest rate must be 0 or greater");
+        }
+        if (request.getAgreedPayments() < 1) {
+            throw new CreditException("Agreed payments must be greater than 0");
+        }
+    }
+
+    private record QuoteKey(long loan, int interestRate, int agreedPayments) {
+    }
+
+    private record Quote(long amountToPay, long totalLoan) {
+    }
+}
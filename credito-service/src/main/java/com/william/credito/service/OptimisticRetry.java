@@ -0,0 +1,82 @@
+package com.william.credito.service;
+
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+
+/**
+ * Reintenta una operacion cuando otra transaccion modifico el mismo credito entre la lectura y la
+ * escritura. La operacion debe abrir su propia transaccion para que cada intento relea el estado;
+ * la espera entre intentos crece con cada conflicto y es aleatoria para no repetir la colision.
+ */
+@Component
+@Slf4j
+public class OptimisticRetry {
+
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final LongAdder conflicts = new LongAdder();
+
+    public OptimisticRetry(@Value("${credit.optimistic.max-attempts:5}") int maxAttempts,
+                           @Value("${credit.optimistic.backoff:PT0.005S}") Duration backoff) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("credit.optimistic.max-attempts must be greater than 0");
+        }
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoff.toMillis();
+    }
+
+    /**
+     * Ejecuta la operacion y, si se agotan los intentos, propaga el ultimo conflicto.
+     */
+    public <T> T execute(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException e) {
+                conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                log.debug("Concurrent update detected, retrying (attempt {} of {})", attempt + 1, maxAttempts);
+                pause(attempt, e);
+            }
+        }
+    }
+
+    public void run(Runnable action) {
+        execute(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Conflictos detectados desde el arranque, incluidos los que se resolvieron reintentando.
+     */
+    public long getConflicts() {
+        return conflicts.sum();
+    }
+
+
+    private void pause(int attempt, OptimisticLockingFailureException conflict) {
+        long bound = backoffMillis * attempt;
+        if (bound <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+}
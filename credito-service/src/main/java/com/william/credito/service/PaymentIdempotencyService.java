@@ -0,0 +1,133 @@
+package com.william.credito.service;
+
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.william.credito.config.exceptions.CreditException;
+import com.william.credito.domain.model.IdempotencyKey;
+import com.william.credito.infrastructure.dao.IdempotencyKeyDao;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+
+
+/**
+ * Guarda el resultado de los pagos enviados con Idempotency-Key. Las repeticiones recientes se
+ * responden desde una cache LRU con TTL; las demas se buscan en la tabla de claves.
+ */
+@Service
+@Slf4j
+public class PaymentIdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyKeyDao keyDao;
+    private final Cache<String, StoredPayment> cache;
+    private final Duration retention;
+
+    public PaymentIdempotencyService(IdempotencyKeyDao keyDao,
+                                     @Value("${credit.idempotency.cache-size:10000}") long cacheSize,
+                                     @Value("${credit.idempotency.cache-ttl:PT10M}") Duration cacheTtl,
+                                     @Value("${credit.idempotency.retention:P1D}") Duration retention) {
+        this.keyDao = keyDao;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .build();
+        this.retention = retention;
+    }
+
+    /**
+     * Devuelve la respuesta guardada para la clave, si existe. Falla si la clave ya se uso con
+     * un pago distinto.
+     */
+    public Optional<String> replay(String key, String fingerprint) {
+        validateKey(key);
+        StoredPayment stored = cache.getIfPresent(key);
+        if (stored == null) {
+            Optional<IdempotencyKey> entity = keyDao.findByKey(key);
+            if (entity.isEmpty()) {
+                return Optional.empty();
+            }
+            stored = new StoredPayment(entity.get().getFingerprint(), entity.get().getResponse());
+            cache.put(key, stored);
+        }
+
+        if (!stored.fingerprint().equals(fingerprint)) {
+            throw new CreditException("Idempotency-Key: " + key + " was already used for a different payment");
+        }
+        return Optional.of(stored.response());
+    }
+
+    /**
+     * Registra la clave dentro de la transaccion del pago. Si otra peticion con la misma clave
+     * se adelanto, el pago se revierte y el cliente puede reintentar para obtener la respuesta.
+     */
+    public void record(String key, String fingerprint, Long paymentId, String response) {
+        IdempotencyKey entity = new IdempotencyKey();
+        entity.setKey(key);
+        entity.setFingerprint(fingerprint);
+        entity.setPaymentId(paymentId);
+        entity.setResponse(response);
+        entity.setCreatedAt(LocalDateTime.now().withNano(0));
+        try {
+            keyDao.insert(entity);
+        } catch (DataIntegrityViolationException e) {
+            throw new CreditException("Payment with Idempotency-Key: " + key + " is already being processed");
+        }
+
+        StoredPayment stored = new StoredPayment(fingerprint, response);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.put(key, stored);
+                }
+            });
+        } else {
+            cache.put(key, stored);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${credit.idempotency.purge-interval:PT1H}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = keyDao.deleteCreatedBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("{} expired idempotency keys deleted", deleted);
+        }
+    }
+
+    public static String fingerprint(Long personId, Long creditId, long amount) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((personId + ":" + creditId + ":" + amount).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+
+    private static void validateKey(String key) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new CreditException("Idempotency-Key must have between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+    }
+
+    private record StoredPayment(String fingerprint, String response) {
+    }
+}
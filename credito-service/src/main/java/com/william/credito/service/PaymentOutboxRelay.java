@@ -0,0 +1,205 @@
+package com.william.credito.service;
+
+
+import com.william.credito.config.feign.AccountFeign;
+import com.william.credito.domain.model.PaymentOutbox;
+import com.william.credito.infrastructure.dao.PaymentOutboxDao;
+import com.william.credito.infrastructure.dto.DebitDTO;
+import com.william.credito.infrastructure.dto.DebitResultDTO;
+import feign.FeignException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+
+/**
+ * Entrega a cuenta-service los pagos registrados en la tabla de salida, agrupados por persona
+ * para debitar cada cuenta una sola vez. Cada pago se reclama antes de enviarlo, asi que varias
+ * instancias pueden ejecutar el relay a la vez. La referencia de cada pago viaja con el debito
+ * para que un reenvio no vuelva a debitar la cuenta. Los debitos viajan con el token de servicio de
+ * credito-service, no con el del usuario que registro el pago.
+ */
+@Component
+@Slf4j
+public class PaymentOutboxRelay {
+
+    private final AccountFeign feign;
+    private final ServiceTokenProvider serviceToken;
+    private final PaymentOutboxDao outboxDao;
+    private final PaymentSettlementService settlementService;
+    private final OptimisticRetry optimisticRetry;
+    private final int batchSize;
+    private final Duration staleAfter;
+    private final Duration sendTimeout;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public PaymentOutboxRelay(AccountFeign feign,
+                              ServiceTokenProvider serviceToken,
+                              PaymentOutboxDao outboxDao,
+                              PaymentSettlementService settlementService,
+                              OptimisticRetry optimisticRetry,
+                              @Value("${credit.outbox.batch-size:50}") int batchSize,
+                              @Value("${credit.outbox.stale-after:PT1M}") Duration staleAfter,
+                              @Value("${credit.outbox.send-timeout:PT10S}") Duration sendTimeout) {
+        this.feign = feign;
+        this.serviceToken = serviceToken;
+        this.outboxDao = outboxDao;
+        this.settlementService = settlementService;
+        this.optimisticRetry = optimisticRetry;
+        this.batchSize = batchSize;
+        this.staleAfter = staleAfter;
+        this.sendTimeout = sendTimeout;
+    }
+
+    @Scheduled(fixedDelayString = "${credit.outbox.relay-interval:PT1S}")
+    public void relayPending() {
+        int requeued = settlementService.requeueStale(LocalDateTime.now().minus(staleAfter));
+        if (requeued > 0) {
+            log.warn("{} payments were stuck in progress and have been queued again", requeued);
+        }
+
+        // se avanza por id para que los pagos devueltos a pendiente no se reenvien en la misma pasada
+        LocalDateTime now = LocalDateTime.now();
+        Long afterId = null;
+        List<PaymentOutbox> pending;
+        do {
+            pending = outboxDao.findPending(afterId, now, batchSize);
+            if (pending.isEmpty()) {
+                return;
+            }
+            afterId = pending.getLast().getId();
+            pending.stream()
+                    .collect(Collectors.groupingBy(PaymentOutbox::getPersonId, LinkedHashMap::new,
+                            Collectors.mapping(PaymentOutbox::getId, Collectors.toList())))
+                    .forEach(this::deliver);
+        } while (pending.size() == batchSize);
+    }
+
+    /**
+     * Envia en un solo debito todos los pagos de la misma persona. cuenta-service responde un
+     * resultado por referencia, asi que un pago rechazado no impide aplicar los demas.
+     */
+    public void deliver(Long personId, List<Long> outboxIds) {
+        List<PaymentOutbox> claimed = settlementService.claim(outboxIds);
+        if (claimed.isEmpty()) {
+            return;
+        }
+        List<Long> ids = claimed.stream().map(PaymentOutbox::getId).toList();
+        List<DebitDTO> debits = claimed.stream()
+                .map(payment -> new DebitDTO(payment.getReference(), payment.getCreditId(), payment.getAmount()))
+                .toList();
+
+        List<DebitResultDTO> results;
+        try {
+            results = send(personId, debits, serviceToken.bearerToken());
+        } catch (TimeoutException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.warn("cuenta-service did not answer payments {} within {}, they will be sent again to confirm the debit",
+                    ids, sendTimeout);
+            update(ids, () -> settlementService.awaitOutcome(ids, "No response within " + sendTimeout));
+            return;
+        } catch (FeignException.Unauthorized | FeignException.Forbidden e) {
+            // el rechazo es del token, no del pago: se pide uno nuevo y el pago se reintenta
+            serviceToken.invalidate();
+            log.warn("Service token was rejected by cuenta-service, payments {} will be retried", ids, e);
+            update(ids, () -> settlementService.retryLater(ids, e.getMessage()));
+            return;
+        } catch (FeignException.FeignClientException e) {
+            update(ids, () -> settlementService.reject(ids, extractMessage(e)));
+            return;
+        } catch (RuntimeException e) {
+            if (outcomeUnknown(e)) {
+                log.warn("No response from cuenta-service for payments {}, they will be sent again to confirm the debit", ids, e);
+                update(ids, () -> settlementService.awaitOutcome(ids, e.getMessage()));
+            } else {
+                log.warn("Payments {} could not be delivered, they will be retried", ids, e);
+                update(ids, () -> settlementService.retryLater(ids, e.getMessage()));
+            }
+            return;
+        }
+
+        Map<String, DebitResultDTO> byReference = results == null ? Map.of() : results.stream()
+                .collect(Collectors.toMap(DebitResultDTO::getReference, Function.identity(), (first, second) -> first));
+        try {
+            optimisticRetry.run(() -> settlementService.settle(ids, byReference));
+        } catch (OptimisticLockingFailureException e) {
+            // el debito ya se hizo; al vencer, los pagos se reenvian con la misma referencia y se aplican
+            log.warn("Payments {} could not be applied due to concurrent updates, they will be settled later", ids);
+        }
+    }
+
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+
+    /**
+     * Envia el debito con un tiempo limite total. El read-timeout del cliente vale para cada lectura, asi
+     * que una respuesta que llega de a poco podria retener el relay sin limite. Al vencer, la peticion ya
+     * salio y cuenta-service pudo haber debitado.
+     */
+    private List<DebitResultDTO> send(Long personId, List<DebitDTO> debits, String token)
+            throws TimeoutException, InterruptedException {
+        Future<List<DebitResultDTO>> response = executor.submit(() -> feign.sendPayments(personId, debits, token).getBody());
+        try {
+            return response.get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        } finally {
+            response.cancel(true);
+        }
+    }
+
+    /**
+     * Cambia el estado de los pagos de una entrega fallida, releyendolos si otro relay los toco entretanto.
+     * Si el conflicto persiste quedan en curso y se reenvian al vencer.
+     */
+    private void update(List<Long> ids, Runnable transition) {
+        try {
+            optimisticRetry.run(transition);
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Payments {} could not be updated due to concurrent updates, they will be sent again later", ids);
+        }
+    }
+
+    /**
+     * La peticion llego a enviarse pero la respuesta no llego a tiempo: cuenta-service pudo haber
+     * debitado. Los fallos de conexion (incluido su tiempo limite) ocurren antes de enviar el debito.
+     */
+    private static boolean outcomeUnknown(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SocketTimeoutException && !(cause instanceof ConnectTimeoutException)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String extractMessage(FeignException e) {
+        String message = e.getMessage();
+        return message == null ? null : message.replaceAll(".*\\]: \\[(.*)\\]", "$1");
+    }
+}
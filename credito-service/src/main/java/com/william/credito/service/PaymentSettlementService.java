@@ -0,0 +1,211 @@
+package com.william.credito.service;
+
+
+import com.william.credito.config.exceptions.CreditException;
+import com.william.credito.domain.model.Credit;
+import com.william.credito.domain.model.OutboxStatus;
+import com.william.credito.domain.model.PaymentOutbox;
+import com.william.credito.domain.model.Status;
+import com.william.credito.infrastructure.dao.CreditDao;
+import com.william.credito.infrastructure.dao.PaymentOutboxDao;
+import com.william.credito.infrastructure.dto.DebitResultDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+
+/**
+ * Transiciones de estado de los pagos salientes. Cada metodo corre en su propia transaccion
+ * corta para que ninguna conexion quede retenida mientras se llama a cuenta-service, y trabaja
+ * sobre el grupo de pagos que el relay envio en un mismo debito.
+ */
+@Service
+@Slf4j
+public class PaymentSettlementService {
+
+    private static final int MAX_RESPONSE_LENGTH = 1000;
+
+    private final PaymentOutboxDao outboxDao;
+    private final CreditDao creditDao;
+    private final PortfolioSummaryService portfolioSummary;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+
+    public PaymentSettlementService(PaymentOutboxDao outboxDao,
+                                    CreditDao creditDao,
+                                    PortfolioSummaryService portfolioSummary,
+                                    @Value("${credit.outbox.max-attempts:10}") int maxAttempts,
+                                    @Value("${credit.outbox.retry-backoff:PT1S}") Duration retryBackoff,
+                                    @Value("${credit.outbox.max-retry-backoff:PT5M}") Duration maxRetryBackoff) {
+        this.outboxDao = outboxDao;
+        this.creditDao = creditDao;
+        this.portfolioSummary = portfolioSummary;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.maxRetryBackoff = maxRetryBackoff;
+    }
+
+
+    /**
+     * Reclama los pagos que siguen pendientes y devuelve solo esos; los que otra instancia ya
+     * tomo se omiten.
+     */
+    @Transactional
+    public List<PaymentOutbox> claim(Collection<Long> outboxIds) {
+        List<Long> claimed = outboxIds.stream()
+                .filter(outboxDao::claim)
+                .toList();
+        if (claimed.isEmpty()) {
+            return List.of();
+        }
+        return outboxDao.findAllById(claimed);
+    }
+
+    @Transactional
+    public int requeueStale(LocalDateTime staleBefore) {
+        return outboxDao.requeueStale(staleBefore);
+    }
+
+    /**
+     * Aplica sobre los creditos el resultado de un debito en bloque. Los pagos que ya no estan en
+     * curso se omiten, de modo que una entrega repetida nunca cuenta dos veces la misma cuota; los
+     * que no tienen resultado quedan en curso y se reenvian al vencer.
+     */
+    @Transactional
+    public void settle(Collection<Long> outboxIds, Map<String, DebitResultDTO> results) {
+        List<PaymentOutbox> payments = outboxDao.findAllById(outboxIds).stream()
+                .filter(payment -> payment.getStatus() == OutboxStatus.IN_PROGRESS)
+                .sorted(Comparator.comparing(PaymentOutbox::getId))
+                .toList();
+        if (payments.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Credit> credits = creditDao.findAllById(payments.stream().map(PaymentOutbox::getCreditId).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(Credit::getId, Function.identity()));
+        Map<Long, String> previousStatuses = new HashMap<>();
+        Map<String, Long> appliedByStatus = new HashMap<>();
+
+        for (PaymentOutbox payment : payments) {
+            DebitResultDTO result = results.get(payment.getReference());
+            if (result == null) {
+                log.warn("cuenta-service returned no result for payment {}, it will be sent again", payment.getId());
+                continue;
+            }
+            if (!result.isApplied()) {
+                log.warn("Payment {} rejected by cuenta-service: {}", payment.getId(), result.getMessage());
+                finish(payment, OutboxStatus.FAILED, result.getMessage());
+                continue;
+            }
+
+            Credit credit = credits.get(payment.getCreditId());
+            if (credit == null) {
+                throw new CreditException("Credit with id: " + payment.getCreditId() + " not found");
+            }
+            String previousStatus = credit.getStatus();
+            previousStatuses.putIfAbsent(credit.getId(), previousStatus);
+            credit.setPaymentsMade(credit.getPaymentsMade() + 1);
+            credit.setAmountPaid(credit.getAmountPaid() + payment.getAmount());
+
+            if (credit.getPaymentsMade().compareTo(credit.getAgreedPayments()) == 0 || credit.getAmountPaid() == credit.getLoan()) {
+                credit.setStatus(Status.PAID_OFF.getDescription());
+            }
+            appliedByStatus.merge(previousStatus, payment.getAmount(), Long::sum);
+            finish(payment, OutboxStatus.APPLIED, result.getMessage());
+        }
+
+        // los totales del resumen se ajustan una vez por estado y por credito, no por pago
+        appliedByStatus.forEach((status, amount) -> portfolioSummary.paymentApplied(amount, status));
+        previousStatuses.forEach((creditId, previousStatus) -> {
+            Credit credit = credits.get(creditId);
+            creditDao.save(credit);
+            portfolioSummary.statusChanged(credit, previousStatus);
+        });
+    }
+
+    @Transactional
+    public void reject(Collection<Long> outboxIds, String reason) {
+        for (PaymentOutbox payment : outboxDao.findAllById(outboxIds)) {
+            if (payment.getStatus() != OutboxStatus.IN_PROGRESS) {
+                continue;
+            }
+            log.warn("Payment {} rejected by cuenta-service: {}", payment.getId(), reason);
+            finish(payment, OutboxStatus.FAILED, reason);
+        }
+    }
+
+    /**
+     * Devuelve a pendiente los pagos que cuenta-service no recibio. Cada intento duplica la espera
+     * hasta el siguiente, y al llegar a max-attempts el pago queda fallido salvo que alguna entrega
+     * anterior haya quedado sin respuesta.
+     */
+    @Transactional
+    public void retryLater(Collection<Long> outboxIds, String reason) {
+        reschedule(outboxIds, reason, false);
+    }
+
+    /**
+     * Devuelve a pendiente los pagos que se enviaron sin obtener respuesta: el debito pudo aplicarse,
+     * asi que nunca se marcan fallidos. El reenvio lleva la misma referencia y cuenta-service
+     * responde con el resultado del debito original.
+     */
+    @Transactional
+    public void awaitOutcome(Collection<Long> outboxIds, String reason) {
+        reschedule(outboxIds, reason, true);
+    }
+
+
+    private void reschedule(Collection<Long> outboxIds, String reason, boolean outcomeUnknown) {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        for (PaymentOutbox payment : outboxDao.findAllById(outboxIds)) {
+            if (payment.getStatus() != OutboxStatus.IN_PROGRESS) {
+                continue;
+            }
+            payment.setAttempts(payment.getAttempts() + 1);
+            payment.setOutcomeUnknown(payment.isOutcomeUnknown() || outcomeUnknown);
+            if (payment.getAttempts() >= maxAttempts) {
+                if (!payment.isOutcomeUnknown()) {
+                    log.error("Payment {} failed after {} attempts: {}", payment.getId(), payment.getAttempts(), reason);
+                    finish(payment, OutboxStatus.FAILED, reason);
+                    continue;
+                }
+                log.error("Payment {} is still unconfirmed after {} attempts: {}", payment.getId(), payment.getAttempts(), reason);
+            }
+            payment.setStatus(OutboxStatus.PENDING);
+            payment.setResponse(truncate(reason));
+            payment.setUpdatedAt(now);
+            payment.setNextAttemptAt(now.plus(backoff(payment.getAttempts())));
+            outboxDao.save(payment);
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        int doublings = Math.min(attempts - 1, 30);
+        Duration delay = retryBackoff.multipliedBy(1L << doublings);
+        return delay.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : delay;
+    }
+
+    private void finish(PaymentOutbox payment, OutboxStatus status, String response) {
+        payment.setStatus(status);
+        payment.setResponse(truncate(response));
+        payment.setUpdatedAt(LocalDateTime.now().withNano(0));
+        outboxDao.save(payment);
+    }
+
+    private static String truncate(String value) {
+        return value == null || value.length() <= MAX_RESPONSE_LENGTH ? value : value.substring(0, MAX_RESPONSE_LENGTH);
+    }
+}
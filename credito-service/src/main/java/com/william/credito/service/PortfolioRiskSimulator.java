@@ -0,0 +1,420 @@
+package com.william.credito.service;
+
+
+import com.william.credito.config.exceptions.CreditException;
+import com.william.credito.domain.model.PortfolioSnapshot;
+import com.william.credito.infrastructure.dao.PortfolioSnapshotDao;
+import com.william.credito.infrastructure.dto.SimulationResultDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.Semaphore;
+
+
+/**
+ * Simulacion Monte Carlo de incumplimiento y prepago de la cartera pendiente.
+ * <p>
+ * Modelo de un factor (copula gaussiana de Vasicek): en cada escenario se sortea un factor
+ * sistematico Z y la probabilidad de incumplimiento de cada credito queda condicionada a Z. Los
+ * creditos se agrupan en buckets por probabilidad de incumplimiento; dentro de un bucket los
+ * incumplimientos son independientes dado Z, asi que la perdida del bucket se sortea de forma
+ * exacta (buckets chicos), con Poisson (pocos incumplimientos esperados) o con aproximacion normal.
+ * El costo por escenario depende del numero de buckets y no del numero de creditos.
+ * <p>
+ * Cada simulacion ocupa el pool completo: se limita el numero de escenarios por pedido y el de
+ * simulaciones en curso, y la que no encuentra lugar se rechaza en vez de esperar.
+ */
+@Service
+@Slf4j
+public class PortfolioRiskSimulator {
+
+    private static final int PD_BUCKETS = 128;
+    private static final double MIN_PD = 1e-6;
+    private static final double MAX_PD = 0.99;
+    private static final int EXACT_BUCKET_SIZE = 256;
+    private static final double NORMAL_MIN_VARIANCE = 25;
+    private static final int LEAF_SCENARIOS = 64;
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.95, 0.99, 0.999};
+    private static final String[] PERCENTILE_LABELS = {"p50", "p90", "p95", "p99", "p99.9"};
+
+    private final PortfolioSnapshotDao snapshotDao;
+    private final double basePd;
+    private final double overdueMultiplier;
+    private final double lossGivenDefault;
+    private final double correlation;
+    private final double prepaymentRate;
+    private final double prepaymentSensitivity;
+    private final int maxScenarios;
+    private final Semaphore running;
+    private final ForkJoinPool pool;
+
+    public PortfolioRiskSimulator(PortfolioSnapshotDao snapshotDao,
+                                  @Value("${credit.simulation.base-pd:0.02}") double basePd,
+                                  @Value("${credit.simulation.overdue-multiplier:5}") double overdueMultiplier,
+                                  @Value("${credit.simulation.loss-given-default:0.45}") double lossGivenDefault,
+                                  @Value("${credit.simulation.correlation:0.15}") double correlation,
+                                  @Value("${credit.simulation.prepayment-rate:0.05}") double prepaymentRate,
+                                  @Value("${credit.simulation.prepayment-sensitivity:0.5}") double prepaymentSensitivity,
+                                  @Value("${credit.simulation.parallelism:0}") int parallelism,
+                                  @Value("${credit.simulation.max-scenarios:100000}") int maxScenarios,
+                                  @Value("${credit.simulation.max-concurrent:1}") int maxConcurrent) {
+        if (correlation < 0 || correlation >= 1) {
+            throw new IllegalArgumentException("credit.simulation.correlation must be in [0, 1)");
+        }
+        if (maxScenarios < 1 || maxConcurrent < 1) {
+            throw new IllegalArgumentException("credit.simulation.max-scenarios and max-concurrent must be greater than 0");
+        }
+        this.snapshotDao = snapshotDao;
+        this.basePd = basePd;
+        this.overdueMultiplier = overdueMultiplier;
+        this.lossGivenDefault = lossGivenDefault;
+        this.correlation = correlation;
+        this.prepaymentRate = prepaymentRate;
+        this.prepaymentSensitivity = prepaymentSensitivity;
+        this.maxScenarios = maxScenarios;
+        this.running = new Semaphore(maxConcurrent);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    public SimulationResultDTO simulate(int scenarios, long seed) {
+        validateScenarios(scenarios);
+        if (!running.tryAcquire()) {
+            throw new CreditException("Too many portfolio simulations are running, try again later");
+        }
+        try {
+            long start = System.nanoTime();
+            PortfolioSnapshot snapshot = snapshotDao.loadPendingCredits();
+            long snapshotMillis = (System.nanoTime() - start) / 1_000_000;
+
+            SimulationResultDTO result = simulate(snapshot, scenarios, seed, LocalDate.now());
+            result.setSnapshotMillis(snapshotMillis);
+            return result;
+        } finally {
+            running.release();
+        }
+    }
+
+    public SimulationResultDTO simulate(PortfolioSnapshot snapshot, int scenarios, long seed, LocalDate asOf) {
+        validateScenarios(scenarios);
+        long start = System.nanoTime();
+
+        RiskBuckets buckets = RiskBuckets.build(snapshot, asOf.toEpochDay(), this);
+        double[] losses = new double[scenarios];
+        double[] prepayments = new double[scenarios];
+        pool.invoke(new ScenarioTask(buckets, losses, prepayments, 0, scenarios, seed));
+
+        long elapsedNanos = Math.max(1, System.nanoTime() - start);
+        SimulationResultDTO result = summarize(losses, prepayments);
+        result.setCredits(snapshot.size());
+        result.setScenarios(scenarios);
+        result.setSeed(seed);
+        result.setRiskBuckets(buckets.size);
+        result.setTotalExposure(buckets.totalExposure);
+        result.setSimulationMillis(elapsedNanos / 1_000_000);
+        result.setScenariosPerSecond(scenarios * 1e9 / elapsedNanos);
+        result.setCreditScenariosPerSecond((double) snapshot.size() * scenarios * 1e9 / elapsedNanos);
+
+        log.info("Portfolio simulation: {} credits x {} scenarios in {} ms ({} credit-scenarios/s), expected loss {}, p99 {}",
+                snapshot.size(), scenarios, result.getSimulationMillis(),
+                String.format("%.3e", result.getCreditScenariosPerSecond()),
+                String.format("%.0f", result.getExpectedLoss()),
+                String.format("%.0f", result.getLossPercentiles().get("p99")));
+        return result;
+    }
+
+    /**
+     * Probabilidad de incumplimiento en el horizonte: sube con la tasa pactada y si el credito
+     * esta vencido, y baja a medida que avanza el pago de cuotas.
+     */
+    double probabilityOfDefault(PortfolioSnapshot snapshot, int i, long asOfEpochDay) {
+        double pd = basePd * (1 + snapshot.interestRate(i) / 2_500.0);
+        if (snapshot.expirationEpochDay(i) < asOfEpochDay) {
+            pd *= overdueMultiplier;
+        }
+        int agreed = snapshot.agreedPayments(i);
+        if (agreed > 0) {
+            pd *= 1 - 0.5 * Math.min(1.0, (double) snapshot.paymentsMade(i) / agreed);
+        }
+        return Math.clamp(pd, MIN_PD, MAX_PD);
+    }
+
+
+    private SimulationResultDTO summarize(double[] losses, double[] prepayments) {
+        int n = losses.length;
+        double sum = 0;
+        double sumSquares = 0;
+        double prepaid = 0;
+        for (int i = 0; i < n; i++) {
+            sum += losses[i];
+            sumSquares += losses[i] * losses[i];
+            prepaid += prepayments[i];
+        }
+        double mean = sum / n;
+        double variance = Math.max(0, sumSquares / n - mean * mean);
+
+        double[] sorted = losses.clone();
+        Arrays.sort(sorted);
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            int index = Math.min(n - 1, Math.max(0, (int) Math.ceil(PERCENTILES[i] * n) - 1));
+            percentiles.put(PERCENTILE_LABELS[i], sorted[index]);
+        }
+
+        SimulationResultDTO result = new SimulationResultDTO();
+        result.setExpectedLoss(mean);
+        result.setLossStdDev(Math.sqrt(variance));
+        result.setLossPercentiles(percentiles);
+        result.setExpectedPrepayment(prepaid / n);
+        return result;
+    }
+
+    private void validateScenarios(int scenarios) {
+        if (scenarios < 1 || scenarios > maxScenarios) {
+            throw new CreditException("Scenarios must be between 1 and " + maxScenarios);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Buckets de probabilidad de incumplimiento. Las exposiciones de cada bucket quedan contiguas
+     * en {@code exposure} a partir de {@code start[b]}.
+     */
+    private static final class RiskBuckets {
+
+        private int size;
+        private int[] start;
+        private int[] count;
+        private double[] inversePd;
+        private double[] sumExposure;
+        private double[] sumSquaredExposure;
+        private long[] exposure;
+        private long totalExposure;
+        private double lossGivenDefault;
+        private double sqrtCorrelation;
+        private double sqrtIdiosyncratic;
+        private double prepaymentRate;
+        private double prepaymentSensitivity;
+
+        static RiskBuckets build(PortfolioSnapshot snapshot, long asOfEpochDay, PortfolioRiskSimulator model) {
+            int n = snapshot.size();
+            int[] bucketOf = new int[n];
+            long[] creditExposure = new long[n];
+            int[] counts = new int[PD_BUCKETS];
+            double[] sumPd = new double[PD_BUCKETS];
+            double logMin = Math.log(MIN_PD);
+            double logRange = Math.log(MAX_PD) - logMin;
+
+            for (int i = 0; i < n; i++) {
+                long outstanding = snapshot.outstandingPrincipal(i);
+                if (outstanding <= 0) {
+                    bucketOf[i] = -1;
+                    continue;
+                }
+                double pd = model.probabilityOfDefault(snapshot, i, asOfEpochDay);
+                int bucket = Math.min(PD_BUCKETS - 1, (int) ((Math.log(pd) - logMin) / logRange * PD_BUCKETS));
+                bucketOf[i] = bucket;
+                creditExposure[i] = outstanding;
+                counts[bucket]++;
+                sumPd[bucket] += pd;
+            }
+
+            // se descartan los buckets vacios
+            int[] compact = new int[PD_BUCKETS];
+            int size = 0;
+            for (int b = 0; b < PD_BUCKETS; b++) {
+                compact[b] = counts[b] > 0 ? size++ : -1;
+            }
+
+            RiskBuckets buckets = new RiskBuckets();
+            buckets.size = size;
+            buckets.start = new int[size];
+            buckets.count = new int[size];
+            buckets.inversePd = new double[size];
+            buckets.sumExposure = new double[size];
+            buckets.sumSquaredExposure = new double[size];
+            int offset = 0;
+            for (int b = 0; b < PD_BUCKETS; b++) {
+                int c = compact[b];
+                if (c < 0) {
+                    continue;
+                }
+                buckets.start[c] = offset;
+                buckets.count[c] = counts[b];
+                buckets.inversePd[c] = inverseNormalCdf(sumPd[b] / counts[b]);
+                offset += counts[b];
+            }
+
+            buckets.exposure = new long[offset];
+            int[] next = buckets.start.clone();
+            for (int i = 0; i < n; i++) {
+                if (bucketOf[i] < 0) {
+                    continue;
+                }
+                int c = compact[bucketOf[i]];
+                long e = creditExposure[i];
+                buckets.exposure[next[c]++] = e;
+                buckets.sumExposure[c] += e;
+                buckets.sumSquaredExposure[c] += (double) e * e;
+                buckets.totalExposure += e;
+            }
+
+            buckets.lossGivenDefault = model.lossGivenDefault;
+            buckets.sqrtCorrelation = Math.sqrt(model.correlation);
+            buckets.sqrtIdiosyncratic = Math.sqrt(1 - model.correlation);
+            buckets.prepaymentRate = model.prepaymentRate;
+            buckets.prepaymentSensitivity = model.prepaymentSensitivity;
+            return buckets;
+        }
+
+        /**
+         * Sortea un escenario y deja la perdida y el monto prepagado en las posiciones indicadas.
+         */
+        void runScenario(SplittableRandom random, double[] losses, double[] prepayments, int scenario) {
+            double z = random.nextGaussian();
+            // en escenarios favorables (Z alto) se prepaga mas
+            double prepayment = Math.min(0.99, prepaymentRate * Math.exp(prepaymentSensitivity * z));
+            double loss = 0;
+            double prepaid = 0;
+
+            for (int b = 0; b < size; b++) {
+                // un credito prepagado a mitad del horizonte ya no puede incumplir en la otra mitad
+                double p = normalCdf((inversePd[b] - sqrtCorrelation * z) / sqrtIdiosyncratic) * (1 - prepayment / 2);
+                double defaulted = defaultedExposure(random, b, p);
+                loss += lossGivenDefault * defaulted;
+                prepaid += prepayment * (sumExposure[b] - defaulted);
+            }
+            losses[scenario] = loss;
+            prepayments[scenario] = prepaid;
+        }
+
+        private double defaultedExposure(SplittableRandom random, int b, double p) {
+            int n = count[b];
+            int from = start[b];
+            if (n <= EXACT_BUCKET_SIZE || p >= 0.5) {
+                double defaulted = 0;
+                for (int k = from; k < from + n; k++) {
+                    if (random.nextDouble() < p) {
+                        defaulted += exposure[k];
+                    }
+                }
+                return defaulted;
+            }
+
+            double variance = n * p * (1 - p);
+            if (variance >= NORMAL_MIN_VARIANCE) {
+                double mean = p * sumExposure[b];
+                double stdDev = Math.sqrt(p * (1 - p) * sumSquaredExposure[b]);
+                return Math.clamp(mean + stdDev * random.nextGaussian(), 0, sumExposure[b]);
+            }
+
+            // pocos incumplimientos esperados: se sortea cuantos y se eligen al azar dentro del bucket
+            int defaults = Math.min(n, poisson(random, n * p));
+            double defaulted = 0;
+            for (int k = 0; k < defaults; k++) {
+                defaulted += exposure[from + random.nextInt(n)];
+            }
+            return Math.min(defaulted, sumExposure[b]);
+        }
+    }
+
+    private static final class ScenarioTask extends RecursiveAction {
+
+        private final RiskBuckets buckets;
+        private final double[] losses;
+        private final double[] prepayments;
+        private final int from;
+        private final int to;
+        private final long seed;
+
+        ScenarioTask(RiskBuckets buckets, double[] losses, double[] prepayments, int from, int to, long seed) {
+            this.buckets = buckets;
+            this.losses = losses;
+            this.prepayments = prepayments;
+            this.from = from;
+            this.to = to;
+            this.seed = seed;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SCENARIOS) {
+                // semilla por bloque: el resultado no depende de que hilo ejecute cada bloque
+                SplittableRandom random = new SplittableRandom(seed ^ (from * 0x9E3779B97F4A7C15L));
+                for (int s = from; s < to; s++) {
+                    buckets.runScenario(random, losses, prepayments, s);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ScenarioTask(buckets, losses, prepayments, from, middle, seed),
+                    new ScenarioTask(buckets, losses, prepayments, middle, to, seed));
+        }
+    }
+
+    private static int poisson(SplittableRandom random, double lambda) {
+        if (lambda > 30) {
+            return (int) Math.max(0, Math.round(lambda + Math.sqrt(lambda) * random.nextGaussian()));
+        }
+        double limit = Math.exp(-lambda);
+        double product = random.nextDouble();
+        int k = 0;
+        while (product > limit) {
+            product *= random.nextDouble();
+            k++;
+        }
+        return k;
+    }
+
+    /**
+     * Funcion de distribucion normal estandar (Abramowitz y Stegun 26.2.17, error menor a 7.5e-8).
+     */
+    static double normalCdf(double x) {
+        double t = 1 / (1 + 0.2316419 * Math.abs(x));
+        double poly = t * (0.319381530 + t * (-0.356563782 + t * (1.781477937 + t * (-1.821255978 + t * 1.330274429))));
+        double cdf = 1 - Math.exp(-x * x / 2) / Math.sqrt(2 * Math.PI) * poly;
+        return x >= 0 ? cdf : 1 - cdf;
+    }
+
+    /**
+     * Inversa de la normal estandar (algoritmo de Acklam, error relativo menor a 1.2e-9).
+     */
+    static double inverseNormalCdf(double p) {
+        final double[] a = {-3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+                1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00};
+        final double[] b = {-5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+                6.680131188771972e+01, -1.328068155288572e+01};
+        final double[] c = {-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+                -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00};
+        final double[] d = {7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00,
+                3.754408661907416e+00};
+        final double low = 0.02425;
+
+        if (p < low) {
+            double q = Math.sqrt(-2 * Math.log(p));
+            return (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                    / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        if (p > 1 - low) {
+            double q = Math.sqrt(-2 * Math.log(1 - p));
+            return -(((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                    / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q
+                / (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+    }
+}
@@ -0,0 +1,186 @@
+package com.william.credito.service;
+
+
+import com.william.credito.domain.model.Credit;
+import com.william.credito.domain.model.PortfolioCounter;
+import com.william.credito.domain.model.Status;
+import com.william.credito.domain.model.StatusTotals;
+import com.william.credito.infrastructure.dao.CreditDao;
+import com.william.credito.infrastructure.dao.PortfolioCounterDao;
+import com.william.credito.infrastructure.dto.PortfolioSummaryDTO;
+import com.william.credito.infrastructure.dto.StatusSummaryDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+
+/**
+ * Resumen de la cartera por estado mantenido de forma incremental. Cada alta, pago aplicado y
+ * cancelacion suma su diferencia en la tabla de contadores dentro de la misma transaccion, asi que
+ * leer el resumen no depende del tamano de la cartera. Una reconciliacion periodica corrige
+ * cualquier desvio contra la tabla de creditos.
+ */
+@Service
+@Slf4j
+public class PortfolioSummaryService {
+
+    private final PortfolioCounterDao counterDao;
+    private final CreditDao creditDao;
+    private final TransactionTemplate transactionTemplate;
+    private final int slots;
+
+    public PortfolioSummaryService(PortfolioCounterDao counterDao,
+                                   CreditDao creditDao,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${credit.summary.slots:8}") int slots) {
+        if (slots < 1) {
+            throw new IllegalArgumentException("credit.summary.slots must be greater than 0");
+        }
+        this.counterDao = counterDao;
+        this.creditDao = creditDao;
+        this.transactionTemplate = transactionTemplate;
+        this.slots = slots;
+    }
+
+    /**
+     * Crea las filas de contadores que falten. Si otra instancia las crea primero la insercion
+     * falla y se ignora.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeCounters() {
+        for (Status status : Status.values()) {
+            for (int slot = 0; slot < slots; slot++) {
+                int current = slot;
+                try {
+                    transactionTemplate.executeWithoutResult(tx -> {
+                        if (!counterDao.exists(status.getDescription(), current)) {
+                            counterDao.insert(emptyCounter(status.getDescription(), current));
+                        }
+                    });
+                } catch (DataIntegrityViolationException e) {
+                    log.debug("Portfolio counter {}/{} already created", status, current);
+                }
+            }
+        }
+    }
+
+    public void creditCreated(Credit credit) {
+        add(credit.getStatus(), 1, credit.getLoan(), credit.getTotalLoan(), credit.getAmountPaid());
+    }
+
+    public void paymentApplied(long amount, String status) {
+        add(status, 0, 0, 0, amount);
+    }
+
+    /**
+     * Mueve el credito completo de un estado a otro con sus montos y lo pagado hasta ahora.
+     */
+    public void statusChanged(Credit credit, String from) {
+        if (from.equals(credit.getStatus())) {
+            return;
+        }
+        add(from, -1, -credit.getLoan(), -credit.getTotalLoan(), -credit.getAmountPaid());
+        add(credit.getStatus(), 1, credit.getLoan(), credit.getTotalLoan(), credit.getAmountPaid());
+    }
+
+    public PortfolioSummaryDTO getSummary() {
+        Map<String, StatusTotals> totals = counterDao.sumByStatus().stream()
+                .collect(Collectors.toMap(StatusTotals::status, Function.identity()));
+
+        List<StatusSummaryDTO> byStatus = new ArrayList<>();
+        long totalCredits = 0;
+        long amountPaid = 0;
+        for (Status status : Status.values()) {
+            StatusTotals statusTotals = totals.getOrDefault(status.getDescription(),
+                    new StatusTotals(status.getDescription(), 0L, 0L, 0L, 0L));
+            byStatus.add(new StatusSummaryDTO(status.getDescription(), statusTotals.credits(),
+                    statusTotals.loan(), statusTotals.totalLoan(), statusTotals.amountPaid()));
+            totalCredits += statusTotals.credits();
+            amountPaid += statusTotals.amountPaid();
+        }
+
+        StatusTotals pending = totals.get(Status.PENDING.getDescription());
+        // lo pagado incluye intereses: se descuenta del total a pagar, no del monto prestado
+        long outstanding = pending == null ? 0 : Math.max(0, pending.totalLoan() - pending.amountPaid());
+        return new PortfolioSummaryDTO(totalCredits, outstanding, amountPaid, byStatus);
+    }
+
+    /**
+     * Compara los contadores con los totales reales de la tabla de creditos y suma la diferencia.
+     * Corre con lectura repetible para que ambos totales salgan de la misma foto; si una escritura
+     * concurrente lo impide, se corrige en la siguiente ejecucion.
+     */
+    @Scheduled(initialDelayString = "${credit.summary.reconcile-interval:PT15M}",
+            fixedDelayString = "${credit.summary.reconcile-interval:PT15M}")
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public void reconcile() {
+        Map<String, StatusTotals> counters = counterDao.sumByStatus().stream()
+                .collect(Collectors.toMap(StatusTotals::status, Function.identity()));
+        Map<String, StatusTotals> actual = creditDao.sumByStatus().stream()
+                .filter(totals -> totals.status() != null)
+                .collect(Collectors.toMap(StatusTotals::status, Function.identity()));
+
+        for (Status status : Status.values()) {
+            StatusTotals expected = actual.get(status.getDescription());
+            StatusTotals current = counters.get(status.getDescription());
+            long credits = credits(expected) - credits(current);
+            long loan = loan(expected) - loan(current);
+            long totalLoan = totalLoan(expected) - totalLoan(current);
+            long amountPaid = amountPaid(expected) - amountPaid(current);
+            if (credits != 0 || loan != 0 || totalLoan != 0 || amountPaid != 0) {
+                log.warn("Portfolio summary for {} was off by {} credits, {} loan, {} total loan, {} paid; correcting",
+                        status.getDescription(), credits, loan, totalLoan, amountPaid);
+                counterDao.increment(status.getDescription(), 0, credits, loan, totalLoan, amountPaid);
+            }
+        }
+    }
+
+
+    private void add(String status, long credits, long loan, long totalLoan, long amountPaid) {
+        int slot = ThreadLocalRandom.current().nextInt(slots);
+        if (counterDao.increment(status, slot, credits, loan, totalLoan, amountPaid) == 0) {
+            log.warn("Portfolio counter {}/{} does not exist, the next reconciliation will fix the summary", status, slot);
+        }
+    }
+
+    private static PortfolioCounter emptyCounter(String status, int slot) {
+        PortfolioCounter counter = new PortfolioCounter();
+        counter.setStatus(status);
+        counter.setSlot(slot);
+        counter.setCredits(0L);
+        counter.setLoan(0L);
+        counter.setTotalLoan(0L);
+        counter.setAmountPaid(0L);
+        return counter;
+    }
+
+    private static long credits(StatusTotals totals) {
+        return totals == null ? 0 : totals.credits();
+    }
+
+    private static long loan(StatusTotals totals) {
+        return totals == null ? 0 : totals.loan();
+    }
+
+    private static long totalLoan(StatusTotals totals) {
+        return totals == null ? 0 : totals.totalLoan();
+    }
+
+    private static long amountPaid(StatusTotals totals) {
+        return totals == null ? 0 : totals.amountPaid();
+    }
+}
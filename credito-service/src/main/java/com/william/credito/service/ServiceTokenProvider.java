@@ -0,0 +1,83 @@
+package com.william.credito.service;
+
+
+import com.william.credito.config.feign.AuthFeign;
+import com.william.credito.infrastructure.dto.ServiceTokenDTO;
+import com.william.credito.infrastructure.dto.ServiceTokenRequestDTO;
+import feign.FeignException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.locks.ReentrantLock;
+
+
+/**
+ * Token propio de credito-service para las llamadas que no ocurren dentro de la peticion de un
+ * usuario, como el debito de los pagos en el relay. Se pide a auth-service con las credenciales de
+ * credit.service-client y se reutiliza hasta poco antes de vencer; solo vive en memoria.
+ */
+@Component
+public class ServiceTokenProvider {
+
+    private static final Duration RENEW_BEFORE_EXPIRY = Duration.ofSeconds(30);
+
+    private final AuthFeign authFeign;
+    private final ServiceTokenRequestDTO credentials;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile ServiceTokenDTO current;
+
+    public ServiceTokenProvider(AuthFeign authFeign,
+                                @Value("${credit.service-client.id}") String clientId,
+                                @Value("${credit.service-client.secret}") String clientSecret) {
+        this.authFeign = authFeign;
+        this.credentials = new ServiceTokenRequestDTO(clientId, clientSecret);
+    }
+
+    /**
+     * Valor para la cabecera Authorization; falla con IllegalStateException si auth-service no entrega un token.
+     */
+    public String bearerToken() {
+        ServiceTokenDTO token = current;
+        if (!isUsable(token)) {
+            lock.lock();
+            try {
+                token = current;
+                if (!isUsable(token)) {
+                    token = requestToken();
+                    current = token;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return "Bearer " + token.getAccessToken();
+    }
+
+    /**
+     * Descarta el token en cache, p. ej. cuando otro servicio lo rechazo.
+     */
+    public void invalidate() {
+        current = null;
+    }
+
+
+    private ServiceTokenDTO requestToken() {
+        ServiceTokenDTO token;
+        try {
+            token = authFeign.getServiceToken(credentials);
+        } catch (FeignException e) {
+            throw new IllegalStateException("Service token for " + credentials.getClientId() + " could not be obtained", e);
+        }
+        if (token == null || token.getAccessToken() == null) {
+            throw new IllegalStateException("auth-service returned no service token for " + credentials.getClientId());
+        }
+        return token;
+    }
+
+    private static boolean isUsable(ServiceTokenDTO token) {
+        return token != null && token.getExpiresAt() != null
+                && Instant.now().isBefore(token.getExpiresAt().minus(RENEW_BEFORE_EXPIRY));
+    }
+}
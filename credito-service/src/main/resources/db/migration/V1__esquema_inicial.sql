@@ -0,0 +1,50 @@
+-- Esquema que hasta ahora generaba ddl-auto=update. IF NOT EXISTS permite aplicarlo sobre una base existente.
+CREATE TABLE IF NOT EXISTS creditos (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    monto            BIGINT NOT NULL,
+    monto_total      BIGINT NOT NULL,
+    monto_pagado     BIGINT NOT NULL,
+    cuota_a_pagar    BIGINT NOT NULL,
+    tasa_interes     REAL,
+    cuotas_acordadas INTEGER,
+    cuotas_pagadas   INTEGER,
+    fecha_inicio     TIMESTAMP(6),
+    fecha_expiracion TIMESTAMP(6),
+    cuenta_id        BIGINT,
+    estado           VARCHAR(255),
+    version          BIGINT DEFAULT 0 NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_creditos_estado_expiracion ON creditos (estado, fecha_expiracion, id);
+CREATE INDEX IF NOT EXISTS idx_creditos_monto_id ON creditos (monto, id);
+
+CREATE TABLE IF NOT EXISTS pagos_salientes (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    credito_id          BIGINT NOT NULL,
+    persona_id          BIGINT NOT NULL,
+    monto               BIGINT NOT NULL,
+    estado              VARCHAR(255) NOT NULL,
+    intentos            INTEGER NOT NULL,
+    token               VARCHAR(4000),
+    respuesta           VARCHAR(1000),
+    fecha_creacion      TIMESTAMP(6) NOT NULL,
+    fecha_actualizacion TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS claves_idempotencia (
+    clave          VARCHAR(255) PRIMARY KEY,
+    huella         VARCHAR(64) NOT NULL,
+    pago_id        BIGINT,
+    respuesta      VARCHAR(1000) NOT NULL,
+    fecha_creacion TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS resumen_cartera (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    estado       VARCHAR(255) NOT NULL,
+    slot         INTEGER NOT NULL,
+    creditos     BIGINT NOT NULL,
+    monto        BIGINT NOT NULL,
+    monto_pagado BIGINT NOT NULL,
+    CONSTRAINT uk_resumen_cartera_estado_slot UNIQUE (estado, slot)
+);
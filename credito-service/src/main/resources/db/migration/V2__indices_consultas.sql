@@ -0,0 +1,9 @@
+-- findByAccountId al listar los creditos de una persona
+CREATE INDEX IF NOT EXISTS idx_creditos_cuenta_id ON creditos (cuenta_id);
+
+-- el relay recorre los pagos pendientes por id y el registro cuenta los pagos en curso de cada credito
+CREATE INDEX IF NOT EXISTS idx_pagos_salientes_estado_id ON pagos_salientes (estado, id);
+CREATE INDEX IF NOT EXISTS idx_pagos_salientes_credito_estado ON pagos_salientes (credito_id, estado);
+
+-- purga de claves vencidas
+CREATE INDEX IF NOT EXISTS idx_claves_idempotencia_fecha ON claves_idempotencia (fecha_creacion);
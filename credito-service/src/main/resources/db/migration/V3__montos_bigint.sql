@@ -0,0 +1,19 @@
+-- ddl-auto=update dejo los montos como numeric(38,0) y sin NOT NULL; las entidades los leen como long.
+-- Sobre una base creada por V1 los ALTER no cambian nada.
+-- Solo se completa lo pagado de los creditos sin cuotas pagadas. Cualquier otro monto nulo no se puede
+-- deducir: el SET NOT NULL de esa columna falla y la fila se corrige a mano antes de reintentar.
+UPDATE creditos SET monto_pagado = 0 WHERE monto_pagado IS NULL AND COALESCE(cuotas_pagadas, 0) = 0;
+
+ALTER TABLE creditos ALTER COLUMN monto SET DATA TYPE BIGINT;
+ALTER TABLE creditos ALTER COLUMN monto SET NOT NULL;
+ALTER TABLE creditos ALTER COLUMN monto_total SET DATA TYPE BIGINT;
+ALTER TABLE creditos ALTER COLUMN monto_total SET NOT NULL;
+ALTER TABLE creditos ALTER COLUMN monto_pagado SET DATA TYPE BIGINT;
+ALTER TABLE creditos ALTER COLUMN monto_pagado SET NOT NULL;
+ALTER TABLE creditos ALTER COLUMN cuota_a_pagar SET DATA TYPE BIGINT;
+ALTER TABLE creditos ALTER COLUMN cuota_a_pagar SET NOT NULL;
+
+-- pagos_salientes y resumen_cartera pudieron crearse con update antes de que los montos fueran long
+ALTER TABLE pagos_salientes ALTER COLUMN monto SET DATA TYPE BIGINT;
+ALTER TABLE resumen_cartera ALTER COLUMN monto SET DATA TYPE BIGINT;
+ALTER TABLE resumen_cartera ALTER COLUMN monto_pagado SET DATA TYPE BIGINT;
@@ -0,0 +1,3 @@
+-- Columna agregada despues del esquema que genero ddl-auto=update; V1 no la crea en una base existente.
+-- Las filas existentes quedan en la version 0.
+ALTER TABLE creditos ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
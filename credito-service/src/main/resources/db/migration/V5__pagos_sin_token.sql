@@ -0,0 +1,2 @@
+-- El relay debita con el token de servicio de credito-service: los tokens de usuario guardados se eliminan
+ALTER TABLE pagos_salientes DROP COLUMN IF EXISTS token;
@@ -0,0 +1,7 @@
+-- El relay espera cada vez mas entre reintentos: un pago pendiente no se reenvia antes de proximo_intento
+ALTER TABLE pagos_salientes ADD COLUMN IF NOT EXISTS proximo_intento TIMESTAMP(6);
+UPDATE pagos_salientes SET proximo_intento = fecha_actualizacion WHERE proximo_intento IS NULL;
+ALTER TABLE pagos_salientes ALTER COLUMN proximo_intento SET NOT NULL;
+
+-- Pagos enviados sin respuesta de cuenta-service: el debito pudo aplicarse, asi que nunca se marcan fallidos
+ALTER TABLE pagos_salientes ADD COLUMN IF NOT EXISTS resultado_incierto BOOLEAN DEFAULT FALSE NOT NULL;
@@ -0,0 +1,4 @@
+-- El saldo pendiente del resumen se calcula sobre el total a pagar: lo pagado incluye intereses
+ALTER TABLE resumen_cartera ADD COLUMN IF NOT EXISTS monto_total BIGINT DEFAULT 0 NOT NULL;
+UPDATE resumen_cartera r SET monto_total = (SELECT COALESCE(SUM(c.monto_total), 0) FROM creditos c WHERE c.estado = r.estado)
+    WHERE r.slot = 0;
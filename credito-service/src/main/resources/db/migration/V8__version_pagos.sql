@@ -0,0 +1,3 @@
+-- Dos relays pueden liquidar el mismo pago si uno lo reenvia mientras el otro aun no termina;
+-- la version hace fallar la segunda escritura para que no cuente la cuota dos veces
+ALTER TABLE pagos_salientes ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,124 @@
+package com.william.credito.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Enruta sobre dos bases H2, una como primaria y otra como replica, cada una con una fila que la
+ * identifica y la replica con su retraso simulado en una tabla.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final Duration MAX_LAG = Duration.ofSeconds(2);
+    private static final Duration CHECK_INTERVAL = Duration.ofHours(1);
+
+    private HikariDataSource primary;
+    private HikariDataSource replica;
+    private ReplicaLagMonitor lagMonitor;
+    private ReplicaRoutingDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        primary = h2("primaria");
+        replica = h2("replica");
+        new JdbcTemplate(replica).execute("CREATE TABLE retraso (segundos DOUBLE)");
+        new JdbcTemplate(replica).update("INSERT INTO retraso VALUES (0)");
+
+        lagMonitor = new ReplicaLagMonitor(replica, "SELECT segundos FROM retraso", MAX_LAG, CHECK_INTERVAL,
+                new SimpleMeterRegistry());
+        dataSource = new ReplicaRoutingDataSource(primary, replica, lagMonitor);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingDataSource.reset();
+        dataSource.close();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplicaOnlyWhenAllowed() {
+        ReplicaRoutingDataSource.allowReplica(true);
+        assertEquals("replica", readOnly.execute(status -> node()));
+        assertEquals("primaria", readWrite.execute(status -> node()));
+        assertEquals("primaria", node());
+
+        ReplicaRoutingDataSource.allowReplica(false);
+        assertEquals("primaria", readOnly.execute(status -> node()));
+    }
+
+    @Test
+    void laggingOrUnreachableReplicaSendsReadsToThePrimary() {
+        ReplicaRoutingDataSource.allowReplica(true);
+
+        new JdbcTemplate(replica).update("UPDATE retraso SET segundos = 10");
+        lagMonitor.check();
+        assertEquals("primaria", readOnly.execute(status -> node()));
+
+        new JdbcTemplate(replica).update("UPDATE retraso SET segundos = 1");
+        lagMonitor.check();
+        assertEquals("replica", readOnly.execute(status -> node()));
+
+        new JdbcTemplate(replica).execute("DROP TABLE retraso");
+        lagMonitor.check();
+        assertEquals("primaria", readOnly.execute(status -> node()));
+    }
+
+    @Test
+    void readsAfterAWriteStayOnThePrimaryForTheSameUser() throws Exception {
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(MAX_LAG, Duration.ofSeconds(1));
+
+        assertEquals("replica", request(filter, "GET", "ana"));
+        assertEquals("primaria", request(filter, "POST", "ana"));
+        assertEquals("primaria", request(filter, "GET", "ana"));
+        assertEquals("replica", request(filter, "GET", "luis"));
+        assertEquals("replica", request(filter, "GET", null));
+    }
+
+
+    private String request(ReadYourWritesFilter filter, String method, String user) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/credits");
+        if (user != null) {
+            request.setUserPrincipal(() -> user);
+        }
+        AtomicReference<String> node = new AtomicReference<>();
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> node.set(readOnly.execute(status -> node())));
+        return node.get();
+    }
+
+    private String node() {
+        return jdbcTemplate.queryForObject("SELECT nombre FROM nodo", String.class);
+    }
+
+    private static HikariDataSource h2(String name) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl("jdbc:h2:mem:" + name + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        pool.setUsername("sa");
+        JdbcTemplate jdbc = new JdbcTemplate(pool);
+        jdbc.execute("CREATE TABLE nodo (nombre VARCHAR(20))");
+        jdbc.update("INSERT INTO nodo VALUES (?)", name);
+        return pool;
+    }
+}
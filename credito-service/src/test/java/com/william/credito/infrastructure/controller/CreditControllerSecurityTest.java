@@ -0,0 +1,140 @@
+package com.william.credito.infrastructure.controller;
+
+import com.william.credito.config.SecurityConfig;
+import com.william.credito.infrastructure.dto.SimulationResultDTO;
+import com.william.credito.service.AccountCache;
+import com.william.credito.service.AmortizationScheduleService;
+import com.william.credito.service.CreditExportService;
+import com.william.credito.service.CreditService;
+import com.william.credito.service.LateInterestAccrualService;
+import com.william.credito.service.LoanQuoteService;
+import com.william.credito.service.PortfolioRiskSimulator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// las propiedades de test reemplazan a las del servicio, que definen la clave publica
+@WebMvcTest(controllers = CreditController.class, properties = "rsa.public-key=classpath:certs/public.pem")
+@Import({SecurityConfig.class, CreditControllerSecurityTest.Metrics.class})
+class CreditControllerSecurityTest {
+
+    private static final String INVALIDATION = "{\"accountId\":3,\"personId\":9}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private CreditService service;
+
+    @MockitoBean
+    private LateInterestAccrualService accrualService;
+
+    @MockitoBean
+    private PortfolioRiskSimulator riskSimulator;
+
+    @MockitoBean
+    private LoanQuoteService quoteService;
+
+    @MockitoBean
+    private AmortizationScheduleService scheduleService;
+
+    @MockitoBean
+    private CreditExportService exportService;
+
+    @MockitoBean
+    private AccountCache accountCache;
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Test
+    void accrual_userTokenIsForbidden() throws Exception {
+        mockMvc.perform(post("/api/credits/accrual")
+                        .with(jwt().jwt(token -> token.subject("12345678").claim("personId", 1L))))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(accrualService);
+    }
+
+    @Test
+    void accrual_adminTokenStartsTheJobWithoutWaiting() throws Exception {
+        when(accrualService.startNow()).thenReturn(LocalDateTime.of(2025, 6, 15, 1, 0));
+
+        mockMvc.perform(post("/api/credits/accrual")
+                        .with(jwt().jwt(token -> token.subject("credito-admin"))
+                                .authorities(new SimpleGrantedAuthority("SCOPE_credits.admin"))))
+                .andExpect(status().isAccepted());
+
+        verify(accrualService).startNow();
+        verify(accrualService, never()).accrueNow();
+    }
+
+    @Test
+    void simulation_userTokenIsForbidden() throws Exception {
+        mockMvc.perform(post("/api/credits/simulation")
+                        .with(jwt().jwt(token -> token.subject("12345678").claim("personId", 1L)))
+                        .param("scenarios", "1000"))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(riskSimulator);
+    }
+
+    @Test
+    void simulation_adminTokenRunsTheSimulation() throws Exception {
+        when(riskSimulator.simulate(eq(1000), eq(7L))).thenReturn(new SimulationResultDTO());
+
+        mockMvc.perform(post("/api/credits/simulation")
+                        .with(jwt().jwt(token -> token.subject("credito-admin"))
+                                .authorities(new SimpleGrantedAuthority("SCOPE_credits.admin")))
+                        .param("scenarios", "1000")
+                        .param("seed", "7"))
+                .andExpect(status().isOk());
+
+        verify(riskSimulator).simulate(1000, 7L);
+    }
+
+    @Test
+    void accountInvalidation_userTokenIsForbidden() throws Exception {
+        mockMvc.perform(post("/api/credits/account-cache/invalidations")
+                        .with(jwt().jwt(token -> token.subject("12345678").claim("personId", 1L)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INVALIDATION))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(accountCache);
+    }
+
+    @Test
+    void accountInvalidation_cuentaServiceTokenEvictsTheAccount() throws Exception {
+        mockMvc.perform(post("/api/credits/account-cache/invalidations")
+                        .with(jwt().jwt(token -> token.subject("cuenta-service"))
+                                .authorities(new SimpleGrantedAuthority("SCOPE_accounts.invalidate")))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INVALIDATION))
+                .andExpect(status().isNoContent());
+
+        verify(accountCache).invalidate(3L, 9L);
+    }
+}
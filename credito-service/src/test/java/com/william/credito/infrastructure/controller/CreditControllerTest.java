@@ -9,7 +9,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
-import java.math.BigInteger;
 import java.util.List;
 
 import static org.mockito.Mockito.when;
@@ -58,7 +57,7 @@ class CreditControllerTest {
     void sendPayment() throws Exception {
         Long personId = 1L;
         Long creditId = 1L;
-        BigInteger amount = BigInteger.valueOf(1000);
+        long amount = 1000;
 
         mockMvc.perform(put("/credit/payment")
                         .param("PersonId", String.valueOf(personId))
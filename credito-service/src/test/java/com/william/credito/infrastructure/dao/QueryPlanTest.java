@@ -0,0 +1,66 @@
+package com.william.credito.infrastructure.dao;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Comprueba que la pagina siguiente del listado por monto acota el recorrido del indice (monto, id)
+ * en lugar de leerlo desde el principio y filtrar.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class QueryPlanTest {
+
+    private static final int CREDITS = 5_000;
+
+    // misma condicion que CreditRepository.findAfterByLoanDesc
+    private static final String NEXT_PAGE = "SELECT * FROM creditos c WHERE c.monto <= 500000"
+            + " AND (c.monto < 500000 OR (c.monto = 500000 AND c.id < 100))"
+            + " ORDER BY c.monto DESC, c.id DESC FETCH FIRST 20 ROWS ONLY";
+    private static final String UNBOUNDED_NEXT_PAGE = "SELECT * FROM creditos c"
+            + " WHERE c.monto < 500000 OR (c.monto = 500000 AND c.id < 100)"
+            + " ORDER BY c.monto DESC, c.id DESC FETCH FIRST 20 ROWS ONLY";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM creditos", Integer.class) > 0) {
+            return;
+        }
+        List<Object[]> credits = new ArrayList<>(CREDITS);
+        for (long id = 1; id <= CREDITS; id++) {
+            credits.add(new Object[]{id, 1_000 * (id % 997)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO creditos (id, monto, monto_total, monto_pagado, cuota_a_pagar)"
+                + " VALUES (?, ?, 0, 0, 0)", credits);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void nextPageByLoanStartsTheIndexScanAtTheCursor() {
+        String bounded = explain(NEXT_PAGE);
+        String unbounded = explain(UNBOUNDED_NEXT_PAGE);
+
+        assertTrue(bounded.contains("IDX_CREDITOS_MONTO_ID: MONTO <="), bounded);
+        assertTrue(bounded.contains("index sorted"), bounded);
+        assertFalse(unbounded.contains("IDX_CREDITOS_MONTO_ID: MONTO"), unbounded);
+    }
+
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+}
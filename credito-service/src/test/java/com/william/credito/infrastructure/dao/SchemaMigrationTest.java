@@ -0,0 +1,92 @@
+package com.william.credito.infrastructure.dao;
+
+import com.william.credito.domain.model.Credit;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Aplica las migraciones sobre el esquema que generaba ddl-auto=update, con datos, antes de que Hibernate
+ * lo valide al arrancar el contexto.
+ */
+// las propiedades de test reemplazan a las del servicio: se repite la configuracion de Flyway
+@DataJpaTest(properties = {"spring.jpa.show-sql=false", "spring.flyway.table=flyway_historial_credito",
+        "spring.flyway.baseline-on-migrate=true", "spring.flyway.baseline-version=0"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SchemaMigrationTest {
+
+    private static final String URL = "jdbc:h2:mem:ddl-auto-update;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CreditRepository creditRepository;
+
+    @DynamicPropertySource
+    static void previousSchema(DynamicPropertyRegistry registry) {
+        new ResourceDatabasePopulator(new ClassPathResource("db/ddl-auto-update/esquema_previo.sql"))
+                .execute(new DriverManagerDataSource(URL, "sa", ""));
+        registry.add("spring.datasource.url", () -> URL);
+        registry.add("spring.datasource.username", () -> "sa");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @Test
+    void moneyColumnsBecomeBigintAndKeepTheirValues() {
+        List<String> types = jdbcTemplate.queryForList("SELECT DATA_TYPE || ' ' || IS_NULLABLE FROM INFORMATION_SCHEMA.COLUMNS"
+                + " WHERE TABLE_NAME = 'CREDITOS' AND COLUMN_NAME IN ('MONTO', 'MONTO_TOTAL', 'MONTO_PAGADO', 'CUOTA_A_PAGAR')",
+                String.class);
+        assertEquals(List.of("BIGINT NO", "BIGINT NO", "BIGINT NO", "BIGINT NO"), types);
+
+        Credit paid = creditRepository.findById(1L).orElseThrow();
+        assertEquals(1_200_000L, paid.getLoan());
+        assertEquals(110_000L, paid.getAmountPaid());
+        assertEquals(1000, paid.getInterestRate());
+        assertEquals(0L, paid.getVersion());
+        assertEquals(0L, creditRepository.findById(2L).orElseThrow().getAmountPaid());
+    }
+
+    @Test
+    void everyMigrationRunsAfterTheBaseline() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "SELECT \"version\" FROM \"flyway_historial_credito\" WHERE \"version\" IS NOT NULL"
+                        + " ORDER BY \"installed_rank\"", String.class);
+        assertEquals(List.of("0", "1", "2", "3", "4", "5", "6", "7", "8"), versions);
+    }
+
+    @Test
+    void missingLoanAmountStopsTheMigrationInsteadOfBecomingZero() {
+        String url = "jdbc:h2:mem:ddl-auto-update-null-loan;DB_CLOSE_DELAY=-1";
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url, "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("db/ddl-auto-update/esquema_previo.sql")).execute(dataSource);
+        new JdbcTemplate(dataSource).update("UPDATE creditos SET monto = NULL WHERE id = 2");
+
+        Flyway flyway = Flyway.configure()
+                .dataSource(dataSource)
+                .table("flyway_historial_credito")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load();
+
+        assertThrows(FlywayException.class, flyway::migrate);
+        assertEquals(null, new JdbcTemplate(dataSource).queryForObject("SELECT monto FROM creditos WHERE id = 2", Long.class));
+    }
+}
@@ -0,0 +1,149 @@
+package com.william.credito.service;
+
+import com.william.credito.config.exceptions.AccountServiceUnavailableException;
+import com.william.credito.config.feign.AccountFeign;
+import com.william.credito.infrastructure.dto.AccountDTO;
+import com.william.credito.infrastructure.dto.PersonResponseDTO;
+import feign.Request;
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AccountCacheTest {
+
+    private AccountFeign feign;
+    private AccountClient accountClient;
+    private AccountCache accountCache;
+
+    @BeforeEach
+    void setUp() {
+        feign = mock(AccountFeign.class);
+        when(feign.getAccountsByIds(anyCollection(), any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ResponseEntity.ok(ids.stream().collect(Collectors.toMap(id -> id, id -> account(id, 5000))));
+        });
+        accountClient = new AccountClient(feign, CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(),
+                RetryRegistry.of(RetryConfig.custom().maxAttempts(1).build()), TimeLimiterRegistry.ofDefaults(),
+                new SimpleMeterRegistry());
+        accountCache = new AccountCache(accountClient, 100, Duration.ofMinutes(5), Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        accountClient.shutdown();
+    }
+
+    @Test
+    void getByPersonId_secondLookupIsServedFromCache() {
+        when(feign.getAccountByPersonId(eq(20L), any())).thenReturn(ResponseEntity.ok(account(2L, 5000)));
+
+        accountCache.getByPersonId(20L, "token");
+        AccountDTO account = accountCache.getByPersonId(20L, "token");
+
+        assertEquals(2L, account.getId());
+        verify(feign, times(1)).getAccountByPersonId(eq(20L), any());
+        assertEquals(1, accountCache.stats().getHits());
+    }
+
+    @Test
+    void getByIds_onlyFetchesMissingAccounts() {
+        accountCache.getByIds(List.of(1L, 2L), "token");
+        Map<Long, AccountDTO> accounts = accountCache.getByIds(List.of(1L, 2L, 3L), "token");
+
+        assertEquals(3, accounts.size());
+        verify(feign).getAccountsByIds(eq(List.of(1L, 2L)), any());
+        verify(feign).getAccountsByIds(eq(List.of(3L)), any());
+    }
+
+    @Test
+    void invalidate_nextLookupSeesTheNewBalance() {
+        when(feign.getAccountByPersonId(eq(10L), any()))
+                .thenReturn(ResponseEntity.ok(account(1L, 5000)))
+                .thenReturn(ResponseEntity.ok(account(1L, 4000)));
+        accountCache.getByPersonId(10L, "token");
+
+        accountCache.invalidate(1L, 10L);
+
+        assertEquals(4000L, accountCache.getByPersonId(10L, "token").getBalance());
+        assertEquals(4000L, accountCache.getByIds(List.of(1L), "token").get(1L).getBalance());
+    }
+
+    @Test
+    void invalidationDuringFetchIsNotOverwritten() {
+        when(feign.getAccountByPersonId(eq(10L), any())).thenAnswer(invocation -> {
+            // cuenta-service cambia la cuenta mientras responde la consulta
+            accountCache.invalidate(1L, 10L);
+            return ResponseEntity.ok(account(1L, 5000));
+        });
+
+        accountCache.getByPersonId(10L, "token");
+        accountCache.getByIds(List.of(1L), "token");
+
+        verify(feign).getAccountsByIds(eq(List.of(1L)), any());
+    }
+
+    @Test
+    void getByPersonId_fallsBackToLastKnownAccountWhenCuentaIsDown() {
+        when(feign.getAccountByPersonId(eq(10L), any()))
+                .thenReturn(ResponseEntity.ok(account(1L, 5000)))
+                .thenThrow(unavailable());
+        when(feign.getAccountByPersonId(eq(20L), any())).thenThrow(unavailable());
+        accountCache.getByPersonId(10L, "token");
+        accountCache.invalidate(1L, 10L);
+
+        assertEquals(5000L, accountCache.getByPersonId(10L, "token").getBalance());
+        assertThrows(AccountServiceUnavailableException.class, () -> accountCache.getByPersonId(20L, "token"));
+        assertEquals(1, accountCache.stats().getFallbacks());
+    }
+
+    @Test
+    void getByIds_fallsBackOnlyWhenEveryAccountIsKnown() {
+        accountCache.getByIds(List.of(1L, 2L), "token");
+        accountCache.invalidate(1L, null);
+        accountCache.invalidate(2L, null);
+        when(feign.getAccountsByIds(anyCollection(), any())).thenThrow(unavailable());
+
+        assertEquals(2, accountCache.getByIds(List.of(1L, 2L), "token").size());
+        assertThrows(AccountServiceUnavailableException.class, () -> accountCache.getByIds(List.of(1L, 3L), "token"));
+    }
+
+    private static RetryableException unavailable() {
+        Request request = Request.create(Request.HttpMethod.GET, "/cuenta/api", Map.of(), null, StandardCharsets.UTF_8, null);
+        return new RetryableException(-1, "Connection refused", Request.HttpMethod.GET, (Long) null, request);
+    }
+
+    private static AccountDTO account(Long id, long balance) {
+        PersonResponseDTO person = new PersonResponseDTO();
+        person.setId(id * 10);
+        AccountDTO account = new AccountDTO();
+        account.setId(id);
+        account.setBalance(balance);
+        account.setPerson(person);
+        return account;
+    }
+}
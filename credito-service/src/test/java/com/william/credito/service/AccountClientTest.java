@@ -0,0 +1,248 @@
+package com.william.credito.service;
+
+import com.william.credito.config.exceptions.AccountServiceUnavailableException;
+import com.william.credito.config.feign.AccountFeign;
+import com.william.credito.infrastructure.dto.AccountDTO;
+import com.william.credito.infrastructure.dto.DebitDTO;
+import com.william.credito.infrastructure.dto.DebitResultDTO;
+import feign.FeignException;
+import feign.Request;
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Inyecta latencia en un sustituto de cuenta-service para comprobar que las consultas fallan rapido,
+ * abren el circuito y respetan el limite de concurrencia.
+ */
+class AccountClientTest {
+
+    private static final Long MISSING_PERSON = 404L;
+
+    private SlowAccountService cuentaService;
+    private CircuitBreakerRegistry circuitBreakers;
+    private SimpleMeterRegistry meterRegistry;
+    private AccountClient accountClient;
+
+    @BeforeEach
+    void setUp() {
+        cuentaService = new SlowAccountService();
+        circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .ignoreExceptions(FeignException.FeignClientException.class)
+                .build());
+        BulkheadRegistry bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(2)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        RetryRegistry retries = RetryRegistry.of(RetryConfig.custom()
+                .maxAttempts(2)
+                .intervalFunction(IntervalFunction.ofExponentialRandomBackoff(Duration.ofMillis(10), 2, 0.5))
+                .retryExceptions(RetryableException.class, FeignException.FeignServerException.class)
+                .build());
+        TimeLimiterRegistry timeLimiters = TimeLimiterRegistry.of(TimeLimiterConfig.custom()
+                .timeoutDuration(Duration.ofSeconds(5))
+                .build());
+        timeLimiters.timeLimiter(AccountClient.BY_PERSON, TimeLimiterConfig.custom()
+                .timeoutDuration(Duration.ofMillis(300))
+                .build());
+        meterRegistry = new SimpleMeterRegistry();
+        accountClient = new AccountClient(cuentaService, circuitBreakers, bulkheads, retries, timeLimiters, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cuentaService.release.countDown();
+        accountClient.shutdown();
+    }
+
+    @Test
+    void slowAccountServiceFailsFastAndOpensTheCircuit() {
+        cuentaService.latency = Duration.ofSeconds(5);
+
+        for (int i = 0; i < 4; i++) {
+            long start = System.nanoTime();
+            assertThrows(AccountServiceUnavailableException.class, () -> accountClient.getAccountByPersonId(1L, "token"));
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue(elapsedMillis < 1000, "call should give up after the time limit, took " + elapsedMillis + " ms");
+        }
+        // el intento abandonado registra su fallo al interrumpirse, en su propio hilo
+        awaitState(CircuitBreaker.State.OPEN);
+
+        AccountServiceUnavailableException rejected = assertThrows(AccountServiceUnavailableException.class,
+                () -> accountClient.getAccountByPersonId(1L, "token"));
+        assertInstanceOf(CallNotPermittedException.class, rejected.getCause());
+        assertEquals(4, cuentaService.calls.get());
+
+        // el circuito es por metodo: la consulta por ids sigue cerrada
+        cuentaService.latency = Duration.ZERO;
+        assertEquals(1, accountClient.getAccountsByIds(List.of(1L), "token").size());
+    }
+
+    @Test
+    void timeLimitCoversEveryRetry() {
+        cuentaService.latency = Duration.ofMillis(200);
+        cuentaService.failures = 10;
+
+        long start = System.nanoTime();
+        assertThrows(AccountServiceUnavailableException.class, () -> accountClient.getAccountByPersonId(1L, "token"));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // con 2 intentos de 200 ms el limite de 300 ms corta el segundo
+        assertTrue(elapsedMillis < 1000, "retries should stop at the time limit, took " + elapsedMillis + " ms");
+        assertEquals(2, cuentaService.calls.get());
+    }
+
+    @Test
+    void bulkheadRejectsCallsBeyondTheConcurrencyLimit() throws Exception {
+        cuentaService.blocking = true;
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            List<CompletableFuture<Map<Long, AccountDTO>>> inFlight = List.of(
+                    CompletableFuture.supplyAsync(() -> accountClient.getAccountsByIds(List.of(1L), "token"), callers),
+                    CompletableFuture.supplyAsync(() -> accountClient.getAccountsByIds(List.of(2L), "token"), callers));
+            assertTrue(cuentaService.entered.await(5, TimeUnit.SECONDS));
+
+            for (int i = 0; i < 3; i++) {
+                AccountServiceUnavailableException e = assertThrows(AccountServiceUnavailableException.class,
+                        () -> accountClient.getAccountsByIds(List.of(3L), "token"));
+                assertInstanceOf(BulkheadFullException.class, e.getCause());
+            }
+
+            cuentaService.release.countDown();
+            for (CompletableFuture<Map<Long, AccountDTO>> call : inFlight) {
+                assertEquals(1, call.get(5, TimeUnit.SECONDS).size());
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertEquals(2, cuentaService.calls.get());
+        assertEquals(3, meterRegistry.get("resilience4j.bulkhead.rejected.calls")
+                .tag("name", AccountClient.BY_IDS).counter().count());
+    }
+
+    @Test
+    void clientErrorsAreNeitherRetriedNorCountedAsFailures() {
+        for (int i = 0; i < 5; i++) {
+            assertThrows(FeignException.NotFound.class, () -> accountClient.getAccountByPersonId(MISSING_PERSON, "token"));
+        }
+
+        assertEquals(5, cuentaService.calls.get());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreakers.circuitBreaker(AccountClient.BY_PERSON).getState());
+    }
+
+    private void awaitState(CircuitBreaker.State expected) {
+        CircuitBreaker circuitBreaker = circuitBreakers.circuitBreaker(AccountClient.BY_PERSON);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (circuitBreaker.getState() != expected && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(expected, circuitBreaker.getState());
+    }
+
+    /**
+     * Sustituto de cuenta-service que tarda {@code latency} en responder o, con {@code blocking}, espera
+     * a que el test lo libere.
+     */
+    static class SlowAccountService implements AccountFeign {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final CountDownLatch entered = new CountDownLatch(2);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private volatile Duration latency = Duration.ZERO;
+        private volatile boolean blocking;
+        private volatile int failures;
+
+        @Override
+        public ResponseEntity<AccountDTO> getAccountByPersonId(Long personId, String token) {
+            respond();
+            if (failures > 0) {
+                failures--;
+                Request request = Request.create(Request.HttpMethod.GET, "/cuenta/api/by-person/" + personId,
+                        Map.of(), null, StandardCharsets.UTF_8, null);
+                throw new FeignException.ServiceUnavailable("cuenta-service unavailable", request, null, Map.of());
+            }
+            if (MISSING_PERSON.equals(personId)) {
+                Request request = Request.create(Request.HttpMethod.GET, "/cuenta/api/by-person/" + personId,
+                        Map.of(), null, StandardCharsets.UTF_8, null);
+                throw new FeignException.NotFound("Account not found", request, null, Map.of());
+            }
+            return ResponseEntity.ok(account(personId));
+        }
+
+        @Override
+        public ResponseEntity<Map<Long, AccountDTO>> getAccountsByIds(Collection<Long> accountIds, String token) {
+            respond();
+            return ResponseEntity.ok(accountIds.stream().collect(Collectors.toMap(id -> id, AccountClientTest::account)));
+        }
+
+        @Override
+        public ResponseEntity<AccountDTO> getAccountById(Long accountId, String token) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ResponseEntity<List<DebitResultDTO>> sendPayments(Long personId, List<DebitDTO> debits, String token) {
+            throw new UnsupportedOperationException();
+        }
+
+        private void respond() {
+            calls.incrementAndGet();
+            try {
+                if (blocking) {
+                    entered.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                } else if (!latency.isZero()) {
+                    Thread.sleep(latency.toMillis());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("request cancelled", e);
+            }
+        }
+    }
+
+    private static AccountDTO account(Long id) {
+        AccountDTO account = new AccountDTO();
+        account.setId(id);
+        account.setBalance(5000L);
+        return account;
+    }
+}
@@ -0,0 +1,100 @@
+package com.william.credito.service;
+
+import com.william.credito.domain.model.AmortizationMethod;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AmortizationEngineTest {
+
+    private static final long LOAN = 100_000;
+    private static final long ONE_PERCENT = AmortizationEngine.monthlyRate(1200);
+
+    @Test
+    void french_constantPaymentAndBalanceEndsAtZero() {
+        List<long[]> rows = generate(AmortizationMethod.FRENCH, LOAN, ONE_PERCENT, 12);
+
+        assertEquals(12, rows.size());
+        assertEquals(8885, rows.get(0)[1]);
+        assertEquals(1000, rows.get(0)[3]);
+        rows.subList(0, 11).forEach(row -> assertEquals(8885, row[1]));
+        assertEquals(0, rows.get(11)[4]);
+        assertEquals(LOAN, rows.stream().mapToLong(row -> row[2]).sum());
+        assertTrue(Math.abs(rows.get(11)[1] - 8885) <= 12, "rounding residue should stay within a few pesos");
+    }
+
+    @Test
+    void german_constantPrincipalAndDecreasingInterest() {
+        List<long[]> rows = generate(AmortizationMethod.GERMAN, LOAN, ONE_PERCENT, 3);
+
+        assertEquals(33333, rows.get(0)[2]);
+        assertEquals(33333, rows.get(1)[2]);
+        assertEquals(33334, rows.get(2)[2]);
+        assertEquals(1000, rows.get(0)[3]);
+        assertEquals(667, rows.get(1)[3]);
+        assertEquals(333, rows.get(2)[3]);
+        assertEquals(0, rows.get(2)[4]);
+    }
+
+    @Test
+    void bullet_paysInterestOnlyUntilMaturity() {
+        List<long[]> rows = generate(AmortizationMethod.BULLET, LOAN, ONE_PERCENT, 4);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(1000, rows.get(i)[1]);
+            assertEquals(0, rows.get(i)[2]);
+            assertEquals(LOAN, rows.get(i)[4]);
+        }
+        assertEquals(LOAN + 1000, rows.get(3)[1]);
+        assertEquals(0, rows.get(3)[4]);
+    }
+
+    @Test
+    void zeroRate_splitsLoanEvenly() {
+        List<long[]> rows = generate(AmortizationMethod.FRENCH, 1000, 0, 3);
+
+        assertEquals(334, rows.get(0)[1]);
+        assertEquals(332, rows.get(2)[1]);
+        assertEquals(0, rows.get(2)[4]);
+    }
+
+    @Test
+    void interest_matchesBigDecimalWithoutOverflow() {
+        long[] balances = {1, 999, 1_234_567_891, 987_654_321_987_654L, Long.MAX_VALUE / 2};
+        long[] rates = {0, 1, ONE_PERCENT, AmortizationEngine.monthlyRate(3650), AmortizationEngine.RATE_SCALE};
+        for (long balance : balances) {
+            for (long rate : rates) {
+                long expected = BigDecimal.valueOf(balance).multiply(BigDecimal.valueOf(rate))
+                        .divide(BigDecimal.valueOf(AmortizationEngine.RATE_SCALE), 0, RoundingMode.HALF_UP)
+                        .longValueExact();
+                assertEquals(expected, AmortizationEngine.interest(balance, rate), balance + " x " + rate);
+            }
+        }
+    }
+
+    @Test
+    void longSchedule_isStreamedPeriodByPeriod() {
+        long[] count = new long[2];
+        AmortizationEngine.generate(AmortizationMethod.FRENCH, 250_000_000, AmortizationEngine.monthlyRate(950), 360,
+                (period, payment, principal, interest, balance) -> {
+                    count[0]++;
+                    count[1] += principal;
+                });
+
+        assertEquals(360, count[0]);
+        assertEquals(250_000_000, count[1]);
+    }
+
+    private static List<long[]> generate(AmortizationMethod method, long loan, long rate, int periods) {
+        List<long[]> rows = new ArrayList<>();
+        AmortizationEngine.generate(method, loan, rate, periods,
+                (period, payment, principal, interest, balance) -> rows.add(new long[]{period, payment, principal, interest, balance}));
+        return rows;
+    }
+}
@@ -0,0 +1,257 @@
+package com.william.credito.service;
+
+import com.william.credito.config.exceptions.CreditException;
+import com.william.credito.config.feign.AccountFeign;
+import com.william.credito.config.mapper.MapCreditFactory;
+import com.william.credito.domain.model.Credit;
+import com.william.credito.domain.model.OutboxStatus;
+import com.william.credito.domain.model.PaymentOutbox;
+import com.william.credito.domain.model.Status;
+import com.william.credito.infrastructure.dao.CreditDaoImpl;
+import com.william.credito.infrastructure.dao.CreditRepository;
+import com.william.credito.infrastructure.dao.PaymentOutboxDaoImpl;
+import com.william.credito.infrastructure.dao.PaymentOutboxRepository;
+import com.william.credito.infrastructure.dto.AccountDTO;
+import com.william.credito.infrastructure.dto.DebitDTO;
+import com.william.credito.infrastructure.dto.DebitResultDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.bean.override.convention.TestBean;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Dispara miles de pagos concurrentes sobre unos pocos creditos contra H2 y un cuenta-service en
+ * memoria, con varios relays aplicando los debitos a la vez. Ninguna cuota puede perderse ni
+ * cobrarse de mas: lo aplicado en cada credito debe coincidir con lo debitado en la cuenta.
+ */
+@DataJpaTest(properties = {
+        // los relays esperan los bloqueos de fila de los clientes mas que el segundo por defecto de H2
+        "spring.datasource.url=jdbc:h2:mem:pagos-concurrentes;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.jpa.show-sql=false",
+        "credit.optimistic.max-attempts=50",
+        "credit.optimistic.backoff=PT0.002S",
+        "credit.outbox.stale-after=PT1S"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({CreditServiceImpl.class, CreditDaoImpl.class, PaymentOutboxDaoImpl.class, PaymentSettlementService.class,
+        PaymentOutboxRelay.class, OptimisticRetry.class, MapCreditFactory.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ConcurrentPaymentStressTest {
+
+    private static final int HOT_CREDITS = 3;
+    private static final int INSTALLMENTS = 400;
+    private static final int PAYMENTS_PER_CREDIT = 600;
+    private static final int CLIENTS = 16;
+    private static final int RELAYS = 4;
+    private static final long INSTALLMENT = 1000;
+
+    @Autowired
+    private CreditService creditService;
+
+    @Autowired
+    private PaymentOutboxRelay relay;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private CreditRepository creditRepository;
+
+    @Autowired
+    private PaymentOutboxRepository outboxRepository;
+
+    // reemplaza el cliente Feign que registra @EnableFeignClients, que no arranca sin FeignAutoConfiguration
+    @TestBean(methodName = "inProcessAccountService")
+    private AccountFeign cuentaService;
+
+    @MockitoBean
+    private ServiceTokenProvider serviceToken;
+
+    @MockitoBean
+    private AccountCache accountCache;
+
+    @MockitoBean
+    private PortfolioSummaryService portfolioSummary;
+
+    @MockitoBean
+    private PaymentIdempotencyService idempotencyService;
+
+    private final List<Long> creditIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < HOT_CREDITS; i++) {
+            Credit credit = new Credit();
+            credit.setLoan(INSTALLMENT * INSTALLMENTS);
+            credit.setTotalLoan(INSTALLMENT * INSTALLMENTS);
+            credit.setAmountToPay(INSTALLMENT);
+            credit.setAmountPaid(0);
+            credit.setInterestRate(0);
+            credit.setAgreedPayments(INSTALLMENTS);
+            credit.setPaymentsMade(0);
+            credit.setCreditGivenDate(LocalDateTime.now().withNano(0));
+            credit.setCreditExpirationDate(LocalDateTime.now().plusYears(1).withNano(0));
+            credit.setAccountId((long) i + 1);
+            credit.setStatus(Status.PENDING.getDescription());
+            creditIds.add(creditRepository.save(credit).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxRepository.deleteAll();
+        creditRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentPayments_applyEveryInstallmentExactlyOnce() throws Exception {
+        List<Long> requests = new ArrayList<>();
+        creditIds.forEach(id -> requests.addAll(Collections.nCopies(PAYMENTS_PER_CREDIT, id)));
+        Collections.shuffle(requests, new Random(42));
+
+        Map<Long, LongAdder> accepted = new ConcurrentHashMap<>();
+        LongAdder rejected = new LongAdder();
+        LongAdder exhausted = new LongAdder();
+        AtomicInteger next = new AtomicInteger();
+        CountDownLatch clientsDone = new CountDownLatch(CLIENTS);
+
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS + RELAYS);
+        List<Future<?>> tasks = new ArrayList<>();
+        try {
+            for (int i = 0; i < CLIENTS; i++) {
+                tasks.add(executor.submit(() -> {
+                    try {
+                        for (int index = next.getAndIncrement(); index < requests.size(); index = next.getAndIncrement()) {
+                            Long creditId = requests.get(index);
+                            try {
+                                creditService.sendPayment(creditId, INSTALLMENT, creditId, null);
+                                accepted.computeIfAbsent(creditId, id -> new LongAdder()).increment();
+                            } catch (CreditException e) {
+                                rejected.increment();
+                            } catch (OptimisticLockingFailureException e) {
+                                exhausted.increment();
+                            }
+                        }
+                    } finally {
+                        clientsDone.countDown();
+                    }
+                }));
+            }
+            for (int i = 0; i < RELAYS; i++) {
+                tasks.add(executor.submit(() -> {
+                    while (clientsDone.getCount() > 0 || hasPaymentsInProcess()) {
+                        relay.relayPending();
+                        Thread.sleep(1);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<PaymentOutbox> outbox = outboxRepository.findAll();
+        assertEquals(0, exhausted.sum(), "no payment should give up on the optimistic retries");
+        assertEquals((long) HOT_CREDITS * INSTALLMENTS, accepted.values().stream().mapToLong(LongAdder::sum).sum());
+        assertEquals(requests.size() - (long) HOT_CREDITS * INSTALLMENTS, rejected.sum(),
+                "every payment beyond the agreed installments should be rejected");
+        assertTrue(optimisticRetry.getConflicts() > 0, "the clients should have competed for the same credits");
+        assertTrue(outbox.stream().allMatch(payment -> payment.getStatus() == OutboxStatus.APPLIED),
+                "every registered payment should be applied");
+
+        for (Long creditId : creditIds) {
+            Credit credit = creditRepository.findById(creditId).orElseThrow();
+            long applied = outbox.stream().filter(payment -> payment.getCreditId().equals(creditId)).count();
+
+            assertEquals(INSTALLMENTS, credit.getPaymentsMade(), "credit " + creditId);
+            assertEquals(INSTALLMENT * INSTALLMENTS, credit.getAmountPaid(), "credit " + creditId);
+            assertEquals(Status.PAID_OFF.getDescription(), credit.getStatus(), "credit " + creditId);
+            assertEquals(credit.getPaymentsMade().longValue(), applied, "credit " + creditId);
+            assertEquals(applied, accepted.get(creditId).sum(), "credit " + creditId);
+            assertEquals(applied, ((InProcessAccountService) cuentaService).debits(creditId), "credit " + creditId);
+        }
+    }
+
+    private boolean hasPaymentsInProcess() {
+        return !outboxRepository.findByStatusOrderByIdAsc(OutboxStatus.PENDING, PageRequest.of(0, 1)).isEmpty()
+                || !outboxRepository.findByStatusOrderByIdAsc(OutboxStatus.IN_PROGRESS, PageRequest.of(0, 1)).isEmpty();
+    }
+
+    static AccountFeign inProcessAccountService() {
+        return new InProcessAccountService();
+    }
+
+    /**
+     * Cuenta-service en memoria, seguro entre hilos y con la misma deduplicacion por Idempotency-Key.
+     */
+    static class InProcessAccountService implements AccountFeign {
+
+        private final Set<String> references = ConcurrentHashMap.newKeySet();
+        private final Map<Long, LongAdder> debits = new ConcurrentHashMap<>();
+
+        long debits(Long creditId) {
+            LongAdder count = debits.get(creditId);
+            return count == null ? 0 : count.sum();
+        }
+
+        @Override
+        public ResponseEntity<List<DebitResultDTO>> sendPayments(Long personId, List<DebitDTO> debits, String token) {
+            List<DebitResultDTO> results = new ArrayList<>();
+            for (DebitDTO debit : debits) {
+                if (references.add(debit.getReference())) {
+                    this.debits.computeIfAbsent(debit.getCreditId(), id -> new LongAdder()).increment();
+                }
+                results.add(new DebitResultDTO(debit.getReference(), true, "Payment sent successfully"));
+            }
+            return ResponseEntity.ok(results);
+        }
+
+        @Override
+        public ResponseEntity<AccountDTO> getAccountById(Long accountId, String token) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ResponseEntity<AccountDTO> getAccountByPersonId(Long personId, String token) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ResponseEntity<Map<Long, AccountDTO>> getAccountsByIds(Collection<Long> accountIds, String token) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
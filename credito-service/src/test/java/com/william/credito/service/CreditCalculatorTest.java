@@ -0,0 +1,58 @@
+package com.william.credito.service;
+
+import com.william.credito.config.exceptions.CreditException;
+import com.william.credito.domain.model.BasisPoints;
+import com.william.credito.domain.model.BasisPointsConverter;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CreditCalculatorTest {
+
+    @Test
+    void calculateAmountToPay_matchesExactDecimalArithmetic() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 10_000; i++) {
+            long loan = random.nextLong(1, 10_000_000_000L);
+            int rate = random.nextInt(0, 10_000);
+            int payments = random.nextInt(1, 361);
+
+            BigDecimal amount = BigDecimal.valueOf(loan);
+            BigDecimal interest = amount.multiply(BigDecimal.valueOf(rate, 4)).setScale(1, RoundingMode.HALF_UP);
+            long expected = amount.add(interest)
+                    .divide(BigDecimal.valueOf(payments), 1, RoundingMode.HALF_UP)
+                    .longValue();
+
+            assertEquals(expected, CreditCalculator.calculateAmountToPay(loan, rate, payments),
+                    loan + " at " + rate + "bp in " + payments);
+        }
+    }
+
+    @Test
+    void calculateAmountToPay_rejectsOverflow() {
+        assertThrows(CreditException.class,
+                () -> CreditCalculator.calculateAmountToPay(Long.MAX_VALUE / 2, 1000, 12));
+    }
+
+    @Test
+    void calculateAmountToPay_rejectsZeroAgreedPayments() {
+        CreditException e = assertThrows(CreditException.class,
+                () -> CreditCalculator.calculateAmountToPay(1_000_000L, 1000, 0));
+        assertEquals("Agreed payments must be greater than 0", e.getMessage());
+    }
+
+    @Test
+    void basisPoints_roundTripThroughPercentColumn() {
+        BasisPointsConverter converter = new BasisPointsConverter();
+        for (int basisPoints = 0; basisPoints <= 100_000; basisPoints++) {
+            assertEquals(basisPoints, converter.convertToEntityAttribute(converter.convertToDatabaseColumn(basisPoints)));
+        }
+        assertEquals(1250, BasisPoints.fromPercent(12.5f));
+        assertEquals(12.34f, BasisPoints.toPercent(1234));
+    }
+}
@@ -0,0 +1,124 @@
+package com.william.credito.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.william.credito.domain.model.Credit;
+import com.william.credito.domain.model.Status;
+import com.william.credito.infrastructure.dao.CreditDao;
+import com.william.credito.infrastructure.dto.AccountDTO;
+import com.william.credito.infrastructure.dto.PersonResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CreditExportServiceTest {
+
+    private static final int CREDITS = 1200;
+    private static final LocalDateTime GIVEN = LocalDateTime.of(2025, 1, 10, 9, 30);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private CreditDao creditDao;
+    private AccountClient accountClient;
+    private ServiceTokenProvider serviceToken;
+    private CreditExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        creditDao = mock(CreditDao.class);
+        when(creditDao.findPageAfterId(anyLong(), anyInt())).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            int limit = invocation.getArgument(1);
+            return LongStream.rangeClosed(afterId + 1, Math.min(CREDITS, afterId + limit))
+                    .mapToObj(CreditExportServiceTest::credit)
+                    .toList();
+        });
+        accountClient = mock(AccountClient.class);
+        when(accountClient.getAccountsByIds(anyCollection(), any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            Map<Long, AccountDTO> accounts = new HashMap<>();
+            ids.forEach(id -> accounts.put(id, account(id)));
+            return accounts;
+        });
+        serviceToken = mock(ServiceTokenProvider.class);
+        when(serviceToken.bearerToken()).thenReturn("Bearer service");
+        exportService = new CreditExportService(creditDao, accountClient, serviceToken, objectMapper, 500);
+    }
+
+    @Test
+    void export_csvWritesEveryCreditResolvingAccountsPerBatch() throws Exception {
+        List<String> lines = export(CreditExportService.Format.CSV);
+
+        assertEquals(CREDITS + 1, lines.size());
+        assertEquals("1,1,1001,5000,12000,13200,0,1100,1000,12,0,2025-01-10T09:30,2026-01-10T09:30,Pendiente",
+                lines.get(1));
+        // cada bloque se lee por separado y resuelve sus cuentas en una sola llamada con el token de servicio
+        verify(creditDao).findPageAfterId(0, 500);
+        verify(creditDao).findPageAfterId(500, 500);
+        verify(creditDao).findPageAfterId(1000, 500);
+        verify(accountClient, times(3)).getAccountsByIds(anyCollection(), eq("Bearer service"));
+    }
+
+    @Test
+    void export_ndjsonWritesOneObjectPerLine() throws Exception {
+        List<String> lines = export(CreditExportService.Format.NDJSON);
+
+        assertEquals(CREDITS, lines.size());
+        JsonNode last = objectMapper.readTree(lines.get(CREDITS - 1));
+        assertEquals(CREDITS, last.get("id").asLong());
+        assertEquals(1000 + CREDITS, last.get("personId").asLong());
+        assertEquals(1000, last.get("interestRateBasisPoints").asInt());
+        assertEquals("2025-01-10T09:30", last.get("creditGivenDate").asText());
+    }
+
+    private List<String> export(CreditExportService.Format format) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        exportService.export(format).writeTo(output);
+        return output.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    private static Credit credit(long id) {
+        Credit credit = new Credit();
+        credit.setId(id);
+        credit.setAccountId(id);
+        credit.setLoan(12000);
+        credit.setTotalLoan(13200);
+        credit.setAmountPaid(0);
+        credit.setAmountToPay(1100);
+        credit.setInterestRate(1000);
+        credit.setAgreedPayments(12);
+        credit.setPaymentsMade(0);
+        credit.setCreditGivenDate(GIVEN);
+        credit.setCreditExpirationDate(GIVEN.plusYears(1));
+        credit.setStatus(Status.PENDING.getDescription());
+        return credit;
+    }
+
+    private static AccountDTO account(Long id) {
+        PersonResponseDTO person = new PersonResponseDTO();
+        person.setId(1000 + id);
+        AccountDTO account = new AccountDTO();
+        account.setId(id);
+        account.setBalance(5000L);
+        account.setPerson(person);
+        return account;
+    }
+}
@@ -0,0 +1,111 @@
+package com.william.credito.service;
+
+import com.william.credito.config.datasource.DataSourceProxyConfig;
+import com.william.credito.config.mapper.MapCreditFactory;
+import com.william.credito.domain.model.Credit;
+import com.william.credito.domain.model.Status;
+import com.william.credito.infrastructure.dao.CreditDaoImpl;
+import com.william.credito.infrastructure.dao.PaymentOutboxDaoImpl;
+import com.william.credito.infrastructure.dto.AccountDTO;
+import com.william.credito.infrastructure.dto.CreditDTO;
+import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cota de sentencias JDBC para la pagina de creditos: la pagina y su conteo, sin una consulta por credito.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Import({CreditServiceImpl.class, CreditDaoImpl.class, PaymentOutboxDaoImpl.class, OptimisticRetry.class,
+        MapCreditFactory.class, DataSourceProxyConfig.class})
+class CreditQueryCountTest {
+
+    private static final int CREDITS = 60;
+    private static final int ACCOUNTS = 12;
+    private static final int PAGE_SIZE = 20;
+    private static final int MAX_STATEMENTS = 2;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CreditService creditService;
+
+    @MockitoBean
+    private AccountCache accountCache;
+
+    @MockitoBean
+    private PortfolioSummaryService portfolioSummary;
+
+    @MockitoBean
+    private PaymentIdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < CREDITS; i++) {
+            Credit credit = new Credit();
+            credit.setLoan(10_000L + i);
+            credit.setTotalLoan(10_000L + i);
+            credit.setAmountToPay(1000);
+            credit.setInterestRate(0);
+            credit.setAgreedPayments(10);
+            credit.setPaymentsMade(0);
+            credit.setCreditGivenDate(LocalDateTime.now().withNano(0));
+            credit.setCreditExpirationDate(LocalDateTime.now().plusYears(1).withNano(0));
+            credit.setAccountId((long) i % ACCOUNTS + 1);
+            credit.setStatus(Status.PENDING.getDescription());
+            entityManager.persist(credit);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        when(accountCache.getByIds(any(), any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().collect(Collectors.toMap(Function.identity(), CreditQueryCountTest::account));
+        });
+        QueryCountHolder.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        QueryCountHolder.clear();
+    }
+
+    @Test
+    void getAllCreditsRunsAFixedNumberOfStatements() {
+        Page<CreditDTO> page = creditService.getAllCredits(PageRequest.of(1, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "loan")));
+
+        QueryCount queries = QueryCountHolder.getGrandTotal();
+
+        assertEquals(PAGE_SIZE, page.getNumberOfElements());
+        assertEquals(CREDITS, page.getTotalElements());
+        assertTrue(queries.getTotal() <= MAX_STATEMENTS,
+                "getAllCredits ran " + queries.getTotal() + " statements, expected at most " + MAX_STATEMENTS);
+    }
+
+    private static AccountDTO account(Long id) {
+        AccountDTO account = new AccountDTO();
+        account.setId(id);
+        return account;
+    }
+}
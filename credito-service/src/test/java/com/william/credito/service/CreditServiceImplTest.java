@@ -1,22 +1,46 @@
 package com.william.credito.service;
 
 import com.william.credito.config.exceptions.CreditException;
-import com.william.credito.config.feign.AccountFeign;
 import com.william.credito.domain.model.Credit;
+import com.william.credito.domain.model.OutboxStatus;
+import com.william.credito.domain.model.PaymentOutbox;
 import com.william.credito.domain.model.Status;
 import com.william.credito.infrastructure.dao.CreditDao;
+import com.william.credito.infrastructure.dao.PaymentOutboxDao;
+import com.william.credito.infrastructure.dto.AccountDTO;
+import com.william.credito.infrastructure.dto.BatchPaymentDTO;
+import com.william.credito.infrastructure.dto.BatchPaymentResultDTO;
+import com.william.credito.infrastructure.dto.CreditDTO;
+import com.william.credito.infrastructure.dto.CreditSliceDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.http.ResponseEntity;
+import org.mockito.Spy;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
-import java.math.BigInteger;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 class CreditServiceImplTest {
@@ -25,7 +49,22 @@ class CreditServiceImplTest {
     private CreditDao creditDao;
 
     @Mock
-    private AccountFeign feign;
+    private AccountCache accountCache;
+
+    @Mock
+    private PaymentOutboxDao outboxDao;
+
+    @Mock
+    private PaymentIdempotencyService idempotencyService;
+
+    @Mock
+    private Function<Credit, CreditDTO> entityToCreditDTO;
+
+    @Spy
+    private OptimisticRetry optimisticRetry = new OptimisticRetry(3, Duration.ZERO);
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
 
     @InjectMocks
     private CreditServiceImpl creditService;
@@ -39,7 +78,7 @@ class CreditServiceImplTest {
     void sendPayment_validPayment() {
         Long personId = 1L;
         Long creditId = 1L;
-        BigInteger amount = BigInteger.valueOf(1000);
+        long amount = 1000;
 
         Credit credit = new Credit();
         credit.setId(creditId);
@@ -47,33 +86,229 @@ class CreditServiceImplTest {
         credit.setStatus(Status.PENDING.getDescription());
         credit.setCreditExpirationDate(LocalDateTime.now().plusDays(1));
         credit.setPaymentsMade(0);
-        credit.setAmountPaid(BigInteger.ZERO);
-        credit.setLoan(BigInteger.valueOf(10000));
-        credit.setInterestRate(5.0f);
+        credit.setAmountPaid(0);
+        credit.setLoan(10000);
+        credit.setInterestRate(500);
         credit.setAgreedPayments(10);
 
-        when(creditDao.creditExists(creditId)).thenReturn(true);
-        when(creditDao.findByCreditId(creditId)).thenReturn(Optional.of(credit));
-        when(feign.sendPayment(personId, amount, creditId)).thenReturn(ResponseEntity.ok("Payment successful"));
+        when(creditDao.lockForPayment(creditId)).thenReturn(Optional.of(credit));
+        when(outboxDao.countInProcess(creditId)).thenReturn(0L);
 
-        String response = creditService.sendPayment(personId, amount, creditId);
+        String response = creditService.sendPayment(personId, amount, creditId, null);
 
-        assertEquals("Payment successful", response);
-        assertEquals(1, credit.getPaymentsMade());
-        assertEquals(amount, credit.getAmountPaid());
+        ArgumentCaptor<PaymentOutbox> outbox = ArgumentCaptor.forClass(PaymentOutbox.class);
+        verify(outboxDao).save(outbox.capture());
+        assertEquals(OutboxStatus.PENDING, outbox.getValue().getStatus());
+        assertEquals(amount, outbox.getValue().getAmount());
+        assertEquals(personId, outbox.getValue().getPersonId());
+        assertTrue(response.endsWith("pending confirmation"));
+        assertEquals(0, credit.getPaymentsMade());
+        assertEquals(0, credit.getAmountPaid());
         assertEquals(Status.PENDING.getDescription(), credit.getStatus());
+        verifyNoInteractions(accountCache);
+    }
+
+    @Test
+    void sendPayment_recordsIdempotencyKey() {
+        Long personId = 1L;
+        Long creditId = 1L;
+        long amount = 1000;
+        String fingerprint = PaymentIdempotencyService.fingerprint(personId, creditId, amount);
+
+        Credit credit = new Credit();
+        credit.setId(creditId);
+        credit.setAmountToPay(amount);
+        credit.setStatus(Status.PENDING.getDescription());
+        credit.setCreditExpirationDate(LocalDateTime.now().plusDays(1));
+        credit.setPaymentsMade(0);
+        credit.setAgreedPayments(10);
+
+        when(idempotencyService.replay("key-1", fingerprint)).thenReturn(Optional.empty());
+        when(creditDao.lockForPayment(creditId)).thenReturn(Optional.of(credit));
+        when(outboxDao.countInProcess(creditId)).thenReturn(0L);
+
+        String response = creditService.sendPayment(personId, amount, creditId, "key-1");
+
+        verify(outboxDao).save(any());
+        verify(idempotencyService).record(eq("key-1"), eq(fingerprint), any(), eq(response));
+    }
+
+    @Test
+    void sendPayment_replayedKeyReturnsStoredResponse() {
+        Long personId = 1L;
+        Long creditId = 1L;
+        long amount = 1000;
+        String fingerprint = PaymentIdempotencyService.fingerprint(personId, creditId, amount);
+
+        when(idempotencyService.replay("key-1", fingerprint))
+                .thenReturn(Optional.of("Payment with id: 5 registered, pending confirmation"));
+
+        String response = creditService.sendPayment(personId, amount, creditId, "key-1");
+
+        assertEquals("Payment with id: 5 registered, pending confirmation", response);
+        verifyNoInteractions(creditDao, outboxDao, accountCache);
+        verify(idempotencyService, never()).record(any(), any(), any(), any());
+    }
+
+    @Test
+    void sendPayment_installmentsAlreadyInProcess() {
+        Long personId = 1L;
+        Long creditId = 1L;
+        long amount = 1000;
+
+        Credit credit = new Credit();
+        credit.setId(creditId);
+        credit.setAmountToPay(amount);
+        credit.setStatus(Status.PENDING.getDescription());
+        credit.setCreditExpirationDate(LocalDateTime.now().plusDays(1));
+        credit.setPaymentsMade(8);
+        credit.setAmountPaid(8000);
+        credit.setLoan(10000);
+        credit.setInterestRate(500);
+        credit.setAgreedPayments(10);
+
+        when(creditDao.lockForPayment(creditId)).thenReturn(Optional.of(credit));
+        when(outboxDao.countInProcess(creditId)).thenReturn(2L);
+
+        CreditException exception = assertThrows(CreditException.class,
+                () -> creditService.sendPayment(personId, amount, creditId, null));
+
+        assertEquals("Credit with id: 1 has no installments left to pay", exception.getMessage());
+        verify(outboxDao, never()).save(any());
+    }
+
+    @Test
+    void sendPayment_retriesWhenAnotherPaymentCommittedFirst() {
+        Long personId = 1L;
+        Long creditId = 1L;
+        long amount = 1000;
+
+        Credit credit = new Credit();
+        credit.setId(creditId);
+        credit.setAmountToPay(amount);
+        credit.setStatus(Status.PENDING.getDescription());
+        credit.setPaymentsMade(0);
+        credit.setAgreedPayments(10);
+
+        when(creditDao.lockForPayment(creditId))
+                .thenThrow(new OptimisticLockingFailureException("Credit was updated by another transaction"))
+                .thenReturn(Optional.of(credit));
+        when(outboxDao.countInProcess(creditId)).thenReturn(0L);
+
+        String response = creditService.sendPayment(personId, amount, creditId, null);
+
+        assertTrue(response.endsWith("pending confirmation"));
+        verify(outboxDao).save(any());
+        assertEquals(1, optimisticRetry.getConflicts());
+    }
+
+    @Test
+    void getCredit_readsBearerTokenOnVirtualThread() throws InterruptedException {
+        AccountDTO account = new AccountDTO();
+        account.setId(9L);
+        when(accountCache.getByPersonId(1L, "Bearer token")).thenReturn(account);
+        when(creditDao.findByAccountId(9L)).thenReturn(List.of());
+
+        // con spring.threads.virtual.enabled cada peticion corre en su propio hilo virtual
+        Thread request = Thread.ofVirtual().start(() -> {
+            MockHttpServletRequest servletRequest = new MockHttpServletRequest();
+            servletRequest.addHeader(HttpHeaders.AUTHORIZATION, "Bearer token");
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(servletRequest));
+            try {
+                creditService.getCredit(1L);
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+        });
+        request.join();
+
+        verify(accountCache).getByPersonId(1L, "Bearer token");
     }
 
     @Test
     void sendPayment_invalidAmount() {
         Long personId = 1L;
         Long creditId = 1L;
-        BigInteger amount = BigInteger.valueOf(0);
+        long amount = 0;
 
         CreditException exception = assertThrows(CreditException.class, () -> {
-            creditService.sendPayment(personId, amount, creditId);
+            creditService.sendPayment(personId, amount, creditId, null);
         });
 
         assertEquals("Amount must be greater than 0", exception.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void sendPayments_validatesEachItemAgainstOneLoadOfTheBatch() {
+        Credit credit = new Credit();
+        credit.setId(1L);
+        credit.setAmountToPay(1000);
+        credit.setStatus(Status.PENDING.getDescription());
+        credit.setPaymentsMade(8);
+        credit.setAgreedPayments(10);
+
+        when(creditDao.lockForPayment(List.of(1L, 99L))).thenReturn(List.of(credit));
+        when(outboxDao.countInProcess(List.of(1L, 99L))).thenReturn(Map.of(1L, 1L));
+
+        List<BatchPaymentResultDTO> results = creditService.sendPayments(List.of(
+                new BatchPaymentDTO(1L, 5L, 1000L, null),
+                new BatchPaymentDTO(1L, 5L, 1000L, null),
+                new BatchPaymentDTO(99L, 5L, 1000L, null),
+                new BatchPaymentDTO(1L, 5L, 0L, null)));
+
+        assertEquals(4, results.size());
+        assertTrue(results.get(0).isAccepted());
+        assertEquals("Credit with id: 1 has no installments left to pay", results.get(1).getMessage());
+        assertEquals("Credit with id: 99 not found", results.get(2).getMessage());
+        assertEquals("Amount must be greater than 0", results.get(3).getMessage());
+
+        ArgumentCaptor<List<PaymentOutbox>> outbox = ArgumentCaptor.captor();
+        verify(outboxDao).saveAll(outbox.capture());
+        assertEquals(1, outbox.getValue().size());
+        assertEquals(5L, outbox.getValue().getFirst().getPersonId());
+        verify(outboxDao, never()).save(any());
+    }
+
+    @Test
+    void getCreditsByCursor_returnsNextCursorWithoutCounting() {
+        Credit first = creditWithLoan(1L, 5000);
+        Credit second = creditWithLoan(2L, 3000);
+        Credit third = creditWithLoan(3L, 1000);
+        AccountDTO account = new AccountDTO();
+        account.setId(9L);
+
+        when(creditDao.findPageAfter(null, null, 3)).thenReturn(List.of(first, second, third));
+        when(accountCache.getByIds(any(), any())).thenReturn(Map.of(9L, account));
+        when(entityToCreditDTO.apply(any())).thenAnswer(invocation -> new CreditDTO());
+
+        CreditSliceDTO slice = creditService.getCreditsByCursor(null, 2);
+
+        assertEquals(2, slice.getContent().size());
+        assertTrue(slice.isHasNext());
+
+        when(creditDao.findPageAfter(3000L, 2L, 3)).thenReturn(List.of(third));
+
+        CreditSliceDTO next = creditService.getCreditsByCursor(slice.getNextCursor(), 2);
+
+        assertEquals(1, next.getContent().size());
+        assertFalse(next.isHasNext());
+        assertNull(next.getNextCursor());
+        verify(creditDao, never()).findAll(any());
+    }
+
+    @Test
+    void getCreditsByCursor_invalidCursor() {
+        CreditException exception = assertThrows(CreditException.class,
+                () -> creditService.getCreditsByCursor("not-a-cursor", 20));
+
+        assertEquals("Invalid cursor: not-a-cursor", exception.getMessage());
+    }
+
+    private static Credit creditWithLoan(Long id, long loan) {
+        Credit credit = new Credit();
+        credit.setId(id);
+        credit.setLoan(loan);
+        credit.setAccountId(9L);
+        return credit;
+    }
+}
@@ -0,0 +1,166 @@
+package com.william.credito.service;
+
+import com.william.credito.config.exceptions.CreditException;
+import com.william.credito.domain.model.LateInterestAccrual;
+import com.william.credito.domain.model.OverdueCredit;
+import com.william.credito.infrastructure.dao.CreditAccrualDao;
+import com.william.credito.infrastructure.dto.AccrualReportDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+class LateInterestAccrualServiceTest {
+
+    private static final LocalDateTime AS_OF = LocalDateTime.of(2025, 6, 15, 1, 0);
+    private static final long LOAN = 12000;
+
+    private InMemoryCreditAccrualDao accrualDao;
+    private LateInterestAccrualService accrualService;
+
+    @BeforeEach
+    void setUp() {
+        accrualDao = new InMemoryCreditAccrualDao();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        accrualService = new LateInterestAccrualService(accrualDao, transactionTemplate, 7, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        accrualService.shutdown();
+    }
+
+    @Test
+    void accrue_appliesEveryMissedMonthOnce() {
+        accrualDao.add(1L, LocalDateTime.of(2025, 6, 1, 0, 0));
+        accrualDao.add(2L, LocalDateTime.of(2025, 3, 20, 0, 0));
+        accrualDao.add(3L, LocalDateTime.of(2025, 7, 1, 0, 0));
+
+        AccrualReportDTO report = accrualService.accrue(AS_OF);
+
+        assertEquals(2, report.getCreditsScanned());
+        assertEquals(2, report.getCreditsUpdated());
+
+        OverdueCredit oneMonth = accrualDao.credits.get(1L);
+        assertEquals(1300, oneMonth.interestRate());
+        assertEquals(LocalDateTime.of(2025, 7, 1, 0, 0), oneMonth.creditExpirationDate());
+        assertEquals(CreditCalculator.calculateAmountToPay(LOAN, 1300, 12), accrualDao.amountsToPay.get(1L));
+
+        OverdueCredit threeMonths = accrualDao.credits.get(2L);
+        assertEquals(1900, threeMonths.interestRate());
+        assertEquals(LocalDateTime.of(2025, 6, 20, 0, 0), threeMonths.creditExpirationDate());
+
+        assertEquals(1000, accrualDao.credits.get(3L).interestRate());
+    }
+
+    @Test
+    void accrue_rerunDoesNotChargeTwice() {
+        for (long id = 1; id <= 100; id++) {
+            accrualDao.add(id, AS_OF.minusDays(id));
+        }
+
+        AccrualReportDTO first = accrualService.accrue(AS_OF);
+        AccrualReportDTO second = accrualService.accrue(AS_OF);
+
+        assertEquals(100, first.getCreditsUpdated());
+        assertEquals(0, second.getCreditsScanned());
+        assertEquals(0, second.getCreditsUpdated());
+        for (long id = 1; id <= 100; id++) {
+            int months = id <= 31 ? 1 : id <= 61 ? 2 : id <= 92 ? 3 : 4;
+            assertEquals(1000 + 300 * months, accrualDao.credits.get(id).interestRate(), "credit " + id);
+        }
+    }
+
+    @Test
+    void accrue_skipsCreditsChangedAfterTheyWereRead() {
+        accrualDao.add(1L, LocalDateTime.of(2025, 6, 1, 0, 0));
+        // otro proceso movio la fecha entre la lectura y el update
+        accrualDao.moveExpirationOnRead = true;
+
+        AccrualReportDTO report = accrualService.accrue(AS_OF);
+
+        assertEquals(1, report.getCreditsScanned());
+        assertEquals(0, report.getCreditsUpdated());
+    }
+
+    @Test
+    void startNow_runsInTheBackgroundOneRunAtATime() throws Exception {
+        accrualDao.add(1L, LocalDateTime.now().minusDays(10));
+        accrualDao.reads = new CountDownLatch(1);
+
+        accrualService.startNow();
+        assertThrows(CreditException.class, accrualService::startNow);
+
+        accrualDao.reads.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (accrualDao.credits.get(1L).interestRate() == 1000 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1300, accrualDao.credits.get(1L).interestRate());
+    }
+
+    static class InMemoryCreditAccrualDao implements CreditAccrualDao {
+
+        private static final Comparator<OverdueCredit> KEYSET = Comparator
+                .comparing(OverdueCredit::creditExpirationDate)
+                .thenComparing(OverdueCredit::id);
+
+        private final Map<Long, OverdueCredit> credits = new ConcurrentHashMap<>();
+        private final Map<Long, Long> amountsToPay = new ConcurrentHashMap<>();
+        private volatile boolean moveExpirationOnRead;
+        private volatile CountDownLatch reads = new CountDownLatch(0);
+
+        void add(Long id, LocalDateTime expirationDate) {
+            credits.put(id, new OverdueCredit(id, LOAN, 1000, 12, expirationDate));
+        }
+
+        @Override
+        public List<OverdueCredit> findOverdue(LocalDateTime asOf, OverdueCredit after, int limit) {
+            try {
+                reads.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            List<OverdueCredit> chunk = credits.values().stream()
+                    .filter(credit -> credit.creditExpirationDate().isBefore(asOf))
+                    .filter(credit -> after == null || KEYSET.compare(credit, after) > 0)
+                    .sorted(KEYSET)
+                    .limit(limit)
+                    .toList();
+            if (moveExpirationOnRead) {
+                chunk.forEach(credit -> credits.put(credit.id(), new OverdueCredit(credit.id(), credit.loan(),
+                        credit.interestRate(), credit.agreedPayments(), credit.creditExpirationDate().plusMonths(1))));
+            }
+            return chunk;
+        }
+
+        @Override
+        public int applyAccruals(List<LateInterestAccrual> accruals) {
+            int updated = 0;
+            for (LateInterestAccrual accrual : accruals) {
+                OverdueCredit current = credits.get(accrual.creditId());
+                if (!current.creditExpirationDate().equals(accrual.previousExpirationDate())) {
+                    continue;
+                }
+                credits.put(current.id(), new OverdueCredit(current.id(), current.loan(), accrual.interestRate(),
+                        current.agreedPayments(), accrual.creditExpirationDate()));
+                amountsToPay.put(current.id(), accrual.amountToPay());
+                updated++;
+            }
+            return updated;
+        }
+    }
+}
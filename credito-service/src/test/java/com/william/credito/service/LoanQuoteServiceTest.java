@@ -0,0 +1,55 @@
+package com.william.credito.service;
+
+import com.william.credito.config.exceptions.CreditException;
+import com.william.credito.infrastructure.dto.QuoteDTO;
+import com.william.credito.infrastructure.dto.QuoteRequestDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LoanQuoteServiceTest {
+
+    private final LoanQuoteService quoteService = new LoanQuoteService(1000);
+
+    @Test
+    void quote_usesCreditFormula() {
+        QuoteDTO quote = quoteService.quote(new QuoteRequestDTO(12_000_000L, 1000, 12));
+
+        long expected = CreditCalculator.calculateAmountToPay(12_000_000, 1000, 12);
+        assertEquals(1_100_000, expected);
+        assertEquals(expected, quote.getAmountToPay());
+        assertEquals(expected * 12, quote.getTotalLoan());
+    }
+
+    @Test
+    void quote_batchReturnsOneQuotePerRequestInOrder() {
+        List<QuoteRequestDTO> requests = new ArrayList<>();
+        for (int i = 1; i <= 3000; i++) {
+            requests.add(new QuoteRequestDTO(1_000_000L * (i % 10 + 1), 1250, i % 48 + 1));
+        }
+
+        List<QuoteDTO> quotes = quoteService.quote(requests);
+
+        assertEquals(3000, quotes.size());
+        for (int i = 0; i < requests.size(); i++) {
+            QuoteRequestDTO request = requests.get(i);
+            assertEquals(CreditCalculator.calculateAmountToPay(request.getLoan(), 1250, request.getAgreedPayments()),
+                    quotes.get(i).getAmountToPay());
+        }
+    }
+
+    @Test
+    void quote_rejectsOversizedBatchAndInvalidInput() {
+        List<QuoteRequestDTO> tooMany = Collections.nCopies(LoanQuoteService.MAX_BATCH_SIZE + 1,
+                new QuoteRequestDTO(10L, 100, 1));
+
+        assertThrows(CreditException.class, () -> quoteService.quote(tooMany));
+        assertThrows(CreditException.class, () -> quoteService.quote(new QuoteRequestDTO(10L, 100, 0)));
+        assertThrows(CreditException.class, () -> quoteService.quote(new QuoteRequestDTO(0L, 100, 12)));
+    }
+}
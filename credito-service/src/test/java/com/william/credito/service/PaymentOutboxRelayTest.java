@@ -0,0 +1,445 @@
+package com.william.credito.service;
+
+import com.william.credito.config.feign.AccountFeign;
+import com.william.credito.domain.model.Credit;
+import com.william.credito.domain.model.OutboxStatus;
+import com.william.credito.domain.model.PaymentOutbox;
+import com.william.credito.domain.model.Status;
+import com.william.credito.infrastructure.dao.CreditDao;
+import com.william.credito.infrastructure.dao.PaymentOutboxDao;
+import com.william.credito.infrastructure.dto.AccountDTO;
+import com.william.credito.infrastructure.dto.DebitDTO;
+import com.william.credito.infrastructure.dto.DebitResultDTO;
+import feign.FeignException;
+import feign.Request;
+import feign.RetryableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PaymentOutboxRelayTest {
+
+    private static final Long CREDIT_ID = 7L;
+    private static final Long PERSON_ID = 3L;
+    private static final long INSTALLMENT = 1000;
+    private static final String SERVICE_TOKEN = "Bearer service-token";
+
+    private InProcessAccountService cuentaService;
+    private ServiceTokenProvider serviceToken;
+    private InMemoryPaymentOutboxDao outboxDao;
+    private CreditDao creditDao;
+    private PaymentOutboxRelay relay;
+    private Credit credit;
+
+    @BeforeEach
+    void setUp() {
+        credit = new Credit();
+        credit.setId(CREDIT_ID);
+        credit.setLoan(3000);
+        credit.setAmountToPay(INSTALLMENT);
+        credit.setAmountPaid(0);
+        credit.setPaymentsMade(0);
+        credit.setAgreedPayments(3);
+        credit.setStatus(Status.PENDING.getDescription());
+
+        creditDao = mock(CreditDao.class);
+        when(creditDao.findAllById(any())).thenReturn(List.of(credit));
+
+        cuentaService = new InProcessAccountService(2500);
+        serviceToken = mock(ServiceTokenProvider.class);
+        when(serviceToken.bearerToken()).thenReturn(SERVICE_TOKEN);
+        outboxDao = new InMemoryPaymentOutboxDao();
+        relay = relay(Duration.ZERO);
+    }
+
+    private PaymentOutboxRelay relay(Duration retryBackoff) {
+        return relay(retryBackoff, Duration.ofSeconds(10));
+    }
+
+    private PaymentOutboxRelay relay(Duration retryBackoff, Duration sendTimeout) {
+        PaymentSettlementService settlementService = new PaymentSettlementService(outboxDao, creditDao,
+                mock(PortfolioSummaryService.class), 3, retryBackoff, Duration.ofMinutes(5));
+        return new PaymentOutboxRelay(cuentaService, serviceToken, outboxDao, settlementService, new OptimisticRetry(3, Duration.ZERO),
+                50, Duration.ofMinutes(1), sendTimeout);
+    }
+
+    @Test
+    void relayPending_debitsAccountAndAppliesPayment() {
+        PaymentOutbox payment = enqueue();
+
+        relay.relayPending();
+
+        assertEquals(OutboxStatus.APPLIED, payment.getStatus());
+        assertEquals(1, cuentaService.debits);
+        assertEquals(1500, cuentaService.balance);
+        assertEquals(1, credit.getPaymentsMade());
+        assertEquals(INSTALLMENT, credit.getAmountPaid());
+    }
+
+    @Test
+    void relayPending_debitsEachAccountOnceForAllItsPayments() {
+        List<PaymentOutbox> payments = List.of(enqueue(), enqueue());
+
+        relay.relayPending();
+
+        assertEquals(1, cuentaService.calls);
+        assertEquals(2, cuentaService.debits);
+        assertEquals(500, cuentaService.balance);
+        payments.forEach(payment -> assertEquals(OutboxStatus.APPLIED, payment.getStatus()));
+        assertEquals(2, credit.getPaymentsMade());
+        assertEquals(2 * INSTALLMENT, credit.getAmountPaid());
+    }
+
+    @Test
+    void relayPending_debitsWithTheServiceToken() {
+        enqueue();
+
+        relay.relayPending();
+
+        assertEquals(List.of(SERVICE_TOKEN), cuentaService.tokens);
+    }
+
+    @Test
+    void relayPending_rejectedServiceTokenIsRenewedAndPaymentRetried() {
+        PaymentOutbox payment = enqueue();
+        when(serviceToken.bearerToken()).thenReturn("Bearer expired", SERVICE_TOKEN);
+
+        relay.relayPending();
+        assertEquals(OutboxStatus.PENDING, payment.getStatus());
+        assertEquals(1, payment.getAttempts());
+        verify(serviceToken).invalidate();
+
+        relay.relayPending();
+        assertEquals(OutboxStatus.APPLIED, payment.getStatus());
+        assertEquals(1, cuentaService.debits);
+    }
+
+    @Test
+    void relayPending_runningTwiceAppliesPaymentOnce() {
+        enqueue();
+
+        relay.relayPending();
+        relay.relayPending();
+
+        assertEquals(1, cuentaService.debits);
+        assertEquals(1, credit.getPaymentsMade());
+    }
+
+    @Test
+    void relayPending_redeliveryAfterCrashDoesNotDebitTwice() {
+        PaymentOutbox payment = enqueue();
+        // cuenta-service ya debito el pago pero el relay murio antes de aplicarlo
+        cuentaService.sendPayments(PERSON_ID, List.of(new DebitDTO(payment.getReference(), CREDIT_ID, INSTALLMENT)), SERVICE_TOKEN);
+        payment.setStatus(OutboxStatus.IN_PROGRESS);
+        payment.setUpdatedAt(LocalDateTime.now().minusMinutes(5));
+
+        relay.relayPending();
+
+        assertEquals(OutboxStatus.APPLIED, payment.getStatus());
+        assertEquals(1, cuentaService.debits);
+        assertEquals(1, credit.getPaymentsMade());
+    }
+
+    @Test
+    void relayPending_rejectedPaymentIsNotApplied() {
+        enqueue();
+        enqueue();
+        PaymentOutbox third = enqueue();
+
+        relay.relayPending();
+
+        assertEquals(OutboxStatus.FAILED, third.getStatus());
+        assertEquals("Insufficient funds", third.getResponse());
+        assertEquals(1, cuentaService.calls);
+        assertEquals(2, cuentaService.debits);
+        assertEquals(2, credit.getPaymentsMade());
+        assertEquals(2000, credit.getAmountPaid());
+    }
+
+    @Test
+    void relayPending_unavailableServiceIsRetriedUntilMaxAttempts() {
+        PaymentOutbox payment = enqueue();
+        cuentaService.available = false;
+
+        relay.relayPending();
+        assertEquals(OutboxStatus.PENDING, payment.getStatus());
+        assertEquals(1, payment.getAttempts());
+
+        cuentaService.available = true;
+        relay.relayPending();
+        assertEquals(OutboxStatus.APPLIED, payment.getStatus());
+
+        PaymentOutbox failing = enqueue();
+        cuentaService.available = false;
+        relay.relayPending();
+        relay.relayPending();
+        relay.relayPending();
+        assertEquals(OutboxStatus.FAILED, failing.getStatus());
+        assertEquals(1, credit.getPaymentsMade());
+    }
+
+    @Test
+    void relayPending_waitLongerAfterEachFailedAttempt() {
+        relay = relay(Duration.ofMinutes(1));
+        PaymentOutbox payment = enqueue();
+        cuentaService.available = false;
+
+        relay.relayPending();
+        assertEquals(Duration.ofMinutes(1), Duration.between(payment.getUpdatedAt(), payment.getNextAttemptAt()));
+
+        // todavia no toca reenviarlo
+        relay.relayPending();
+        assertEquals(1, payment.getAttempts());
+
+        payment.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        relay.relayPending();
+        assertEquals(2, payment.getAttempts());
+        assertEquals(Duration.ofMinutes(2), Duration.between(payment.getUpdatedAt(), payment.getNextAttemptAt()));
+        assertEquals(OutboxStatus.PENDING, payment.getStatus());
+    }
+
+    @Test
+    void relayPending_paymentWithoutResponseIsNeverFailed() {
+        PaymentOutbox payment = enqueue();
+        cuentaService.timesOut = true;
+
+        for (int i = 0; i < 5; i++) {
+            relay.relayPending();
+        }
+        assertEquals(OutboxStatus.PENDING, payment.getStatus());
+        assertEquals(5, payment.getAttempts());
+        assertTrue(payment.isOutcomeUnknown());
+
+        // el reenvio con la misma referencia confirma el debito que ya se habia hecho
+        cuentaService.timesOut = false;
+        relay.relayPending();
+        assertEquals(OutboxStatus.APPLIED, payment.getStatus());
+        assertEquals(1, cuentaService.debits);
+        assertEquals(1, credit.getPaymentsMade());
+    }
+
+    @Test
+    void relayPending_responseSlowerThanTheSendTimeoutAwaitsTheOutcome() {
+        relay = relay(Duration.ZERO, Duration.ofMillis(100));
+        PaymentOutbox payment = enqueue();
+        cuentaService.delay = Duration.ofSeconds(5);
+
+        relay.relayPending();
+        assertEquals(OutboxStatus.PENDING, payment.getStatus());
+        assertEquals(1, payment.getAttempts());
+        assertTrue(payment.isOutcomeUnknown());
+
+        cuentaService.delay = Duration.ZERO;
+        relay.relayPending();
+        assertEquals(OutboxStatus.APPLIED, payment.getStatus());
+        assertEquals(1, cuentaService.debits);
+        assertEquals(1, credit.getPaymentsMade());
+    }
+
+    @Test
+    void relayPending_paymentWithoutResponseIsNotFailedByLaterConnectionErrors() {
+        PaymentOutbox payment = enqueue();
+        cuentaService.timesOut = true;
+        relay.relayPending();
+
+        cuentaService.timesOut = false;
+        cuentaService.available = false;
+        relay.relayPending();
+        relay.relayPending();
+        relay.relayPending();
+
+        assertEquals(OutboxStatus.PENDING, payment.getStatus());
+        assertEquals(4, payment.getAttempts());
+    }
+
+    private PaymentOutbox enqueue() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        PaymentOutbox payment = new PaymentOutbox();
+        payment.setCreditId(CREDIT_ID);
+        payment.setPersonId(PERSON_ID);
+        payment.setAmount(INSTALLMENT);
+        payment.setStatus(OutboxStatus.PENDING);
+        payment.setAttempts(0);
+        payment.setCreatedAt(now);
+        payment.setUpdatedAt(now);
+        payment.setNextAttemptAt(now);
+        outboxDao.save(payment);
+        return payment;
+    }
+
+    /**
+     * Sustituto en memoria de cuenta-service con la misma deduplicacion por referencia.
+     */
+    static class InProcessAccountService implements AccountFeign {
+
+        private final Set<String> references = new HashSet<>();
+        private final List<String> tokens = new ArrayList<>();
+        private long balance;
+        private int debits;
+        private int calls;
+        private boolean available = true;
+        private boolean timesOut;
+        private volatile Duration delay = Duration.ZERO;
+
+        InProcessAccountService(long balance) {
+            this.balance = balance;
+        }
+
+        @Override
+        public ResponseEntity<List<DebitResultDTO>> sendPayments(Long personId, List<DebitDTO> debits, String token) {
+            if (!available) {
+                throw new IllegalStateException("cuenta-service unavailable");
+            }
+            Request request = Request.create(Request.HttpMethod.POST, "/cuenta/api/send-payments",
+                    Map.of(), null, StandardCharsets.UTF_8, null);
+            if (!SERVICE_TOKEN.equals(token)) {
+                throw new FeignException.Unauthorized("invalid token", request, null, Map.of());
+            }
+            tokens.add(token);
+            calls++;
+            List<DebitResultDTO> results = debit(debits);
+            if (!delay.isZero()) {
+                // cuenta-service debito pero la respuesta llega de a poco, sin agotar el tiempo limite de lectura
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (timesOut) {
+                // cuenta-service debito pero la respuesta no llego antes del tiempo limite de lectura
+                throw new RetryableException(-1, "Read timed out executing POST /cuenta/api/send-payments",
+                        Request.HttpMethod.POST, new SocketTimeoutException("Read timed out"), (Long) null, request);
+            }
+            return ResponseEntity.ok(results);
+        }
+
+        private List<DebitResultDTO> debit(List<DebitDTO> debits) {
+            List<DebitResultDTO> results = new ArrayList<>();
+            for (DebitDTO debit : debits) {
+                if (references.contains(debit.getReference())) {
+                    results.add(new DebitResultDTO(debit.getReference(), true, "Payment sent successfully"));
+                } else if (balance < debit.getAmount()) {
+                    results.add(new DebitResultDTO(debit.getReference(), false, "Insufficient funds"));
+                } else {
+                    references.add(debit.getReference());
+                    balance -= debit.getAmount();
+                    this.debits++;
+                    results.add(new DebitResultDTO(debit.getReference(), true, "Payment sent successfully"));
+                }
+            }
+            return results;
+        }
+
+        @Override
+        public ResponseEntity<AccountDTO> getAccountById(Long accountId, String token) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ResponseEntity<AccountDTO> getAccountByPersonId(Long personId, String token) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ResponseEntity<Map<Long, AccountDTO>> getAccountsByIds(Collection<Long> accountIds, String token) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    static class InMemoryPaymentOutboxDao implements PaymentOutboxDao {
+
+        private final Map<Long, PaymentOutbox> rows = new LinkedHashMap<>();
+        private long sequence;
+
+        @Override
+        public void save(PaymentOutbox payment) {
+            if (payment.getId() == null) {
+                payment.setId(++sequence);
+            }
+            rows.put(payment.getId(), payment);
+        }
+
+        @Override
+        public void saveAll(List<PaymentOutbox> payments) {
+            payments.forEach(this::save);
+        }
+
+        @Override
+        public Optional<PaymentOutbox> findById(Long id) {
+            return Optional.ofNullable(rows.get(id));
+        }
+
+        @Override
+        public List<PaymentOutbox> findAllById(Collection<Long> ids) {
+            return ids.stream().map(rows::get).filter(Objects::nonNull).toList();
+        }
+
+        @Override
+        public List<PaymentOutbox> findPending(Long afterId, LocalDateTime dueAt, int limit) {
+            return rows.values().stream()
+                    .filter(payment -> payment.getStatus() == OutboxStatus.PENDING)
+                    .filter(payment -> !payment.getNextAttemptAt().isAfter(dueAt))
+                    .filter(payment -> afterId == null || payment.getId() > afterId)
+                    .limit(limit)
+                    .toList();
+        }
+
+        @Override
+        public long countInProcess(Long creditId) {
+            return rows.values().stream()
+                    .filter(payment -> payment.getCreditId().equals(creditId))
+                    .filter(payment -> payment.getStatus() == OutboxStatus.PENDING
+                            || payment.getStatus() == OutboxStatus.IN_PROGRESS)
+                    .count();
+        }
+
+        @Override
+        public Map<Long, Long> countInProcess(Collection<Long> creditIds) {
+            Map<Long, Long> counts = new HashMap<>();
+            for (Long creditId : creditIds) {
+                long count = countInProcess(creditId);
+                if (count > 0) {
+                    counts.put(creditId, count);
+                }
+            }
+            return counts;
+        }
+
+        @Override
+        public boolean claim(Long id) {
+            PaymentOutbox payment = rows.get(id);
+            if (payment == null || payment.getStatus() != OutboxStatus.PENDING) {
+                return false;
+            }
+            payment.setStatus(OutboxStatus.IN_PROGRESS);
+            payment.setUpdatedAt(LocalDateTime.now().withNano(0));
+            return true;
+        }
+
+        @Override
+        public int requeueStale(LocalDateTime staleBefore) {
+            int requeued = 0;
+            for (PaymentOutbox payment : rows.values()) {
+                if (payment.getStatus() == OutboxStatus.IN_PROGRESS && payment.getUpdatedAt().isBefore(staleBefore)) {
+                    payment.setStatus(OutboxStatus.PENDING);
+                    requeued++;
+                }
+            }
+            return requeued;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.william.credito.service;
+
+import com.william.credito.config.exceptions.CreditException;
+import com.william.credito.domain.model.PortfolioSnapshot;
+import com.william.credito.infrastructure.dao.PortfolioSnapshotDao;
+import com.william.credito.infrastructure.dto.SimulationResultDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PortfolioRiskSimulatorTest {
+
+    private static final LocalDate AS_OF = LocalDate.of(2025, 6, 1);
+    private static final double LGD = 0.45;
+
+    private PortfolioRiskSimulator simulator;
+    private PortfolioSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        simulator = new PortfolioRiskSimulator(mock(PortfolioSnapshotDao.class), 0.02, 5, LGD, 0.15, 0, 0.5, 0, 10_000, 1);
+
+        SplittableRandom random = new SplittableRandom(1);
+        long today = AS_OF.toEpochDay();
+        PortfolioSnapshot.Builder builder = PortfolioSnapshot.builder(200_000);
+        for (int i = 0; i < 200_000; i++) {
+            int agreed = 12 + random.nextInt(49);
+            builder.add(1_000_000L + random.nextInt(50_000_000), 500 + 100 * random.nextInt(30), agreed,
+                    random.nextInt(agreed), today - 30 + random.nextInt(400));
+        }
+        snapshot = builder.build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        simulator.shutdown();
+    }
+
+    @Test
+    void simulate_expectedLossMatchesModel() {
+        double analytic = 0;
+        for (int i = 0; i < snapshot.size(); i++) {
+            analytic += LGD * simulator.probabilityOfDefault(snapshot, i, AS_OF.toEpochDay()) * snapshot.outstandingPrincipal(i);
+        }
+
+        SimulationResultDTO result = simulator.simulate(snapshot, 2_000, 42, AS_OF);
+
+        assertEquals(analytic, result.getExpectedLoss(), analytic * 0.05);
+        assertEquals(200_000, result.getCredits());
+        assertTrue(result.getCreditScenariosPerSecond() > 0);
+
+        List<Double> percentiles = List.copyOf(result.getLossPercentiles().values());
+        for (int i = 1; i < percentiles.size(); i++) {
+            assertTrue(percentiles.get(i) >= percentiles.get(i - 1), "percentiles must be non-decreasing");
+        }
+        assertTrue(result.getLossPercentiles().get("p99") > result.getExpectedLoss());
+    }
+
+    @Test
+    void simulate_sameSeedGivesSameResult() {
+        SimulationResultDTO first = simulator.simulate(snapshot, 1_000, 7, AS_OF);
+        SimulationResultDTO second = simulator.simulate(snapshot, 1_000, 7, AS_OF);
+
+        assertEquals(first.getExpectedLoss(), second.getExpectedLoss());
+        assertEquals(first.getLossPercentiles(), second.getLossPercentiles());
+    }
+
+    @Test
+    void simulate_rejectsMoreScenariosThanConfigured() {
+        assertThrows(CreditException.class, () -> simulator.simulate(snapshot, 10_001, 7, AS_OF));
+    }
+
+    @Test
+    void simulate_rejectsWhileAnotherSimulationIsRunning() throws Exception {
+        PortfolioSnapshotDao snapshotDao = mock(PortfolioSnapshotDao.class);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(snapshotDao.loadPendingCredits()).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return snapshot;
+        });
+        PortfolioRiskSimulator busy = new PortfolioRiskSimulator(snapshotDao, 0.02, 5, LGD, 0.15, 0, 0.5, 0, 10_000, 1);
+        try {
+            CompletableFuture<SimulationResultDTO> first = CompletableFuture.supplyAsync(() -> busy.simulate(100, 7));
+            assertTrue(loading.await(10, TimeUnit.SECONDS));
+
+            assertThrows(CreditException.class, () -> busy.simulate(100, 7));
+
+            release.countDown();
+            assertEquals(100, first.get(10, TimeUnit.SECONDS).getScenarios());
+            assertEquals(100, busy.simulate(100, 7).getScenarios());
+        } finally {
+            release.countDown();
+            busy.shutdown();
+        }
+    }
+}
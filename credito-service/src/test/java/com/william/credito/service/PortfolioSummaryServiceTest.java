@@ -0,0 +1,137 @@
+package com.william.credito.service;
+
+import com.william.credito.domain.model.Credit;
+import com.william.credito.domain.model.PortfolioCounter;
+import com.william.credito.domain.model.Status;
+import com.william.credito.domain.model.StatusTotals;
+import com.william.credito.infrastructure.dao.CreditDao;
+import com.william.credito.infrastructure.dao.PortfolioCounterDao;
+import com.william.credito.infrastructure.dto.PortfolioSummaryDTO;
+import com.william.credito.infrastructure.dto.StatusSummaryDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PortfolioSummaryServiceTest {
+
+    private InMemoryPortfolioCounterDao counterDao;
+    private CreditDao creditDao;
+    private PortfolioSummaryService summaryService;
+
+    @BeforeEach
+    void setUp() {
+        counterDao = new InMemoryPortfolioCounterDao();
+        creditDao = mock(CreditDao.class);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        summaryService = new PortfolioSummaryService(counterDao, creditDao, transactionTemplate, 4);
+        summaryService.initializeCounters();
+    }
+
+    @Test
+    void getSummary_tracksCreatePaymentAndStatusChanges() {
+        Credit first = credit(10_000);
+        Credit second = credit(4_000);
+        summaryService.creditCreated(first);
+        summaryService.creditCreated(second);
+
+        first.setAmountPaid(2_500L);
+        summaryService.paymentApplied(2_500L, Status.PENDING.getDescription());
+
+        second.setStatus(Status.CANCELED.getDescription());
+        summaryService.statusChanged(second, Status.PENDING.getDescription());
+
+        PortfolioSummaryDTO summary = summaryService.getSummary();
+
+        assertEquals(2, summary.getTotalCredits());
+        assertEquals(9_500L, summary.getOutstandingBalance());
+        assertEquals(2_500L, summary.getAmountPaid());
+        assertEquals(1, byStatus(summary, Status.PENDING).getCredits());
+        assertEquals(1, byStatus(summary, Status.CANCELED).getCredits());
+        assertEquals(4_000L, byStatus(summary, Status.CANCELED).getLoan());
+        assertEquals(4_800L, byStatus(summary, Status.CANCELED).getTotalLoan());
+        assertEquals(0, byStatus(summary, Status.PAID_OFF).getCredits());
+    }
+
+    @Test
+    void reconcile_correctsDrift() {
+        summaryService.creditCreated(credit(10_000));
+        when(creditDao.sumByStatus()).thenReturn(List.of(
+                new StatusTotals(Status.PENDING.getDescription(), 3L, 30_000L, 36_000L, 1_000L),
+                new StatusTotals(Status.PAID_OFF.getDescription(), 1L, 5_000L, 5_500L, 5_500L)));
+
+        summaryService.reconcile();
+        summaryService.reconcile();
+
+        PortfolioSummaryDTO summary = summaryService.getSummary();
+        assertEquals(4, summary.getTotalCredits());
+        assertEquals(35_000L, summary.getOutstandingBalance());
+        assertEquals(6_500L, summary.getAmountPaid());
+    }
+
+    private static Credit credit(long loan) {
+        Credit credit = new Credit();
+        credit.setLoan(loan);
+        credit.setTotalLoan(loan * 12 / 10);
+        credit.setAmountPaid(0);
+        credit.setStatus(Status.PENDING.getDescription());
+        return credit;
+    }
+
+    private static StatusSummaryDTO byStatus(PortfolioSummaryDTO summary, Status status) {
+        return summary.getByStatus().stream()
+                .filter(dto -> dto.getStatus().equals(status.getDescription()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    static class InMemoryPortfolioCounterDao implements PortfolioCounterDao {
+
+        private final Map<String, PortfolioCounter> counters = new HashMap<>();
+
+        @Override
+        public boolean exists(String status, int slot) {
+            return counters.containsKey(status + "/" + slot);
+        }
+
+        @Override
+        public void insert(PortfolioCounter counter) {
+            counters.put(counter.getStatus() + "/" + counter.getSlot(), counter);
+        }
+
+        @Override
+        public int increment(String status, int slot, long credits, long loan, long totalLoan, long amountPaid) {
+            PortfolioCounter counter = counters.get(status + "/" + slot);
+            if (counter == null) {
+                return 0;
+            }
+            counter.setCredits(counter.getCredits() + credits);
+            counter.setLoan(counter.getLoan() + loan);
+            counter.setTotalLoan(counter.getTotalLoan() + totalLoan);
+            counter.setAmountPaid(counter.getAmountPaid() + amountPaid);
+            return 1;
+        }
+
+        @Override
+        public List<StatusTotals> sumByStatus() {
+            Map<String, StatusTotals> totals = new HashMap<>();
+            for (PortfolioCounter counter : counters.values()) {
+                totals.merge(counter.getStatus(),
+                        new StatusTotals(counter.getStatus(), counter.getCredits(), counter.getLoan(),
+                                counter.getTotalLoan(), counter.getAmountPaid()),
+                        (a, b) -> new StatusTotals(a.status(), a.credits() + b.credits(), a.loan() + b.loan(),
+                                a.totalLoan() + b.totalLoan(), a.amountPaid() + b.amountPaid()));
+            }
+            return new ArrayList<>(totals.values());
+        }
+    }
+}
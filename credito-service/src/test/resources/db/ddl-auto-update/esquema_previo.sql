@@ -0,0 +1,5 @@
+-- DDL que generaba Hibernate con ddl-auto=update en H2 antes de Flyway, con filas de ejemplo
+create table creditos (cuota_a_pagar numeric(38,0), cuotas_acordadas integer, cuotas_pagadas integer, monto numeric(38,0), monto_pagado numeric(38,0), monto_total numeric(38,0), tasa_interes float(24), cuenta_id bigint, fecha_expiracion timestamp(6), fecha_inicio timestamp(6), id bigint generated by default as identity, estado varchar(255), primary key (id));
+
+insert into creditos (cuota_a_pagar, cuotas_acordadas, cuotas_pagadas, monto, monto_pagado, monto_total, tasa_interes, cuenta_id, fecha_expiracion, fecha_inicio, estado) values (110000, 12, 1, 1200000, 110000, 1320000, 10.0, 1, TIMESTAMP '2027-01-01 00:00:00', TIMESTAMP '2026-01-01 00:00:00', 'ACTIVO');
+insert into creditos (cuota_a_pagar, cuotas_acordadas, cuotas_pagadas, monto, monto_pagado, monto_total, tasa_interes, cuenta_id, fecha_expiracion, fecha_inicio, estado) values (55000, 6, 0, 300000, null, 330000, 10.0, 2, TIMESTAMP '2026-07-01 00:00:00', TIMESTAMP '2026-01-01 00:00:00', 'ACTIVO');
@@ -0,0 +1,52 @@
+package com.william.cuenta.benchmark;
+
+import com.william.cuenta.config.mapper.MapAccountFactory;
+import com.william.cuenta.domain.model.Account;
+import com.william.cuenta.infrastructure.dto.AccountDTO;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Account -> AccountDTO con ModelMapper STRICT (mapeo anterior) contra el mapper escrito a mano.
+ * Con {@code -prof gc} el valor gc.alloc.rate.norm da los bytes asignados por mapeo.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private Account account;
+    private ModelMapper modelMapper;
+    private Function<Account, AccountDTO> handWritten;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
+        handWritten = new MapAccountFactory().entityToAccountDTO();
+
+        account = new Account();
+        account.setId(7L);
+        account.setBalance(25_000_000);
+        account.setPersonId(3L);
+        account.setPaymentList(List.of());
+    }
+
+    @Benchmark
+    public AccountDTO modelMapper() {
+        return modelMapper.map(account, AccountDTO.class);
+    }
+
+    @Benchmark
+    public AccountDTO handWritten() {
+        return handWritten.apply(account);
+    }
+}
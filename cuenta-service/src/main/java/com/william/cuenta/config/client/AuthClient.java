@@ -0,0 +1,32 @@
+package com.william.cuenta.config.client;
+
+import com.william.cuenta.infrastructure.dto.ServiceTokenDTO;
+import com.william.cuenta.infrastructure.dto.ServiceTokenRequestDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Cliente HTTP hacia auth-service, solo para pedir el token de servicio de cuenta-service.
+ */
+@Component
+public class AuthClient {
+
+    private final RestClient restClient;
+    private final String authServiceUrl;
+
+    public AuthClient(RestClient restClient, @Value("${auth.base-url}") String authServiceUrl) {
+        this.restClient = restClient;
+        this.authServiceUrl = authServiceUrl;
+    }
+
+    public ServiceTokenDTO getServiceToken(ServiceTokenRequestDTO request) {
+        return restClient.post()
+                .uri(authServiceUrl + "/api/service-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(request)
+                .retrieve()
+                .body(ServiceTokenDTO.class);
+    }
+}
@@ -0,0 +1,61 @@
+package com.william.cuenta.config.client;
+
+import com.william.cuenta.infrastructure.dto.AccountInvalidationDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Cliente HTTP hacia credito-service. Cada instancia de credito-service guarda su propia copia de
+ * las cuentas, asi que los avisos de cambio se envian a todas las instancias registradas en Eureka.
+ */
+@Component
+@Slf4j
+public class CreditoClient {
+
+    private static final String INVALIDATION_PATH = "/credito/api/credits/account-cache/invalidations";
+
+    private final RestClient restClient;
+    private final DiscoveryClient discoveryClient;
+    private final String serviceId;
+
+    public CreditoClient(RestClient restClient,
+                         DiscoveryClient discoveryClient,
+                         @Value("${credito.service-id:credito-service}") String serviceId) {
+        this.restClient = restClient;
+        this.discoveryClient = discoveryClient;
+        this.serviceId = serviceId;
+    }
+
+    /**
+     * Pide a cada instancia que descarte la cuenta. Devuelve cuantas instancias recibieron el aviso.
+     * Si una instancia rechaza el token se corta el envio: las demas tambien lo rechazarian.
+     */
+    public int invalidateAccount(AccountInvalidationDTO invalidation, String bearerToken) {
+        int notified = 0;
+        for (ServiceInstance instance : discoveryClient.getInstances(serviceId)) {
+            try {
+                restClient.post()
+                        .uri(instance.getUri() + INVALIDATION_PATH)
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(invalidation)
+                        .retrieve()
+                        .toBodilessEntity();
+                notified++;
+            } catch (HttpClientErrorException.Unauthorized | HttpClientErrorException.Forbidden e) {
+                throw e;
+            } catch (RestClientException e) {
+                log.warn("Could not invalidate account {} on {}: {}", invalidation.getAccountId(), instance.getUri(), e.getMessage());
+            }
+        }
+        return notified;
+    }
+}
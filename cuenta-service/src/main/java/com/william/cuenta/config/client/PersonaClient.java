@@ -0,0 +1,157 @@
+package com.william.cuenta.config.client;
+
+import com.william.cuenta.config.exceptions.AccountException;
+import com.william.cuenta.config.exceptions.AccountNotFoundException;
+import com.william.cuenta.infrastructure.dto.PersonResponseDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Cliente HTTP hacia persona-service. Las consultas masivas se dividen en lotes de
+ * {@code persona.batch.size} ids y, si {@code persona.batch.parallelism} es mayor a 1,
+ * los lotes se resuelven en paralelo. Con hilos virtuales cada lote corre en su propio hilo virtual.
+ */
+@Component
+@Slf4j
+public class PersonaClient {
+
+    private static final ParameterizedTypeReference<List<PersonResponseDTO>> PERSON_LIST =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final RestClient restClient;
+    private final String personaServiceUrl;
+    private final int batchSize;
+    private final ExecutorService executor;
+
+    public PersonaClient(RestClient restClient,
+                         @Value("${persona.base-url}") String personaServiceUrl,
+                         @Value("${persona.batch.size:500}") int batchSize,
+                         @Value("${persona.batch.parallelism:1}") int parallelism,
+                         @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("persona.batch.size must be greater than 0");
+        }
+        this.restClient = restClient;
+        this.personaServiceUrl = personaServiceUrl;
+        this.batchSize = batchSize;
+        if (parallelism <= 1) {
+            this.executor = null;
+        } else if (virtualThreads) {
+            // un pool fijo compartido serializaria las consultas de todas las peticiones concurrentes
+            this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("persona-batch-", 0).factory());
+        } else {
+            this.executor = Executors.newFixedThreadPool(parallelism);
+        }
+    }
+
+    public PersonResponseDTO fetchPerson(Long personId, String bearerToken) {
+        return restClient.get()
+                .uri(personaServiceUrl + "/private?personaId={personId}", personId)
+                .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                .retrieve()
+                .onStatus(status -> status.value() == HttpStatus.NOT_FOUND.value(),
+                        (request, response) -> {
+                            log.error(new String(response.getBody().readAllBytes()));
+                            throw new AccountNotFoundException("Person with document: " + personId + " not found");
+                        })
+                .onStatus(HttpStatusCode::is4xxClientError,
+                        (request, response) -> {
+                            String body = new String(response.getBody().readAllBytes());
+                            log.error(body);
+                            throw new AccountException(body);
+                        })
+                .onStatus(HttpStatusCode::is5xxServerError,
+                        (request, response) -> {
+                            log.error(new String(response.getBody().readAllBytes()));
+                            throw new AccountException("External service error");
+                        })
+                .body(PersonResponseDTO.class);
+    }
+
+    /**
+     * Resuelve varias personas por id. Los ids que persona-service no conoce no aparecen en el mapa.
+     */
+    public Map<Long, PersonResponseDTO> fetchPersons(Collection<Long> personIds, String bearerToken) {
+        List<Long> distinctIds = personIds.stream().distinct().toList();
+        if (distinctIds.isEmpty()) {
+            return Map.of();
+        }
+
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int i = 0; i < distinctIds.size(); i += batchSize) {
+            chunks.add(distinctIds.subList(i, Math.min(i + batchSize, distinctIds.size())));
+        }
+
+        Map<Long, PersonResponseDTO> result = new HashMap<>(distinctIds.size() * 2);
+        if (executor == null || chunks.size() == 1) {
+            chunks.forEach(chunk -> addAll(result, fetchChunk(chunk, bearerToken)));
+            return result;
+        }
+
+        List<CompletableFuture<List<PersonResponseDTO>>> futures = chunks.stream()
+                .map(chunk -> CompletableFuture.supplyAsync(() -> fetchChunk(chunk, bearerToken), executor))
+                .toList();
+        try {
+            futures.forEach(future -> addAll(result, future.join()));
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new AccountException("External service error");
+        }
+        return result;
+    }
+
+    private List<PersonResponseDTO> fetchChunk(List<Long> personIds, String bearerToken) {
+        List<PersonResponseDTO> persons = restClient.post()
+                .uri(personaServiceUrl + "/private/batch")
+                .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(personIds)
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError,
+                        (request, response) -> {
+                            String body = new String(response.getBody().readAllBytes());
+                            log.error(body);
+                            throw new AccountException(body);
+                        })
+                .onStatus(HttpStatusCode::is5xxServerError,
+                        (request, response) -> {
+                            log.error(new String(response.getBody().readAllBytes()));
+                            throw new AccountException("External service error");
+                        })
+                .body(PERSON_LIST);
+        return persons == null ? List.of() : persons;
+    }
+
+    private static void addAll(Map<Long, PersonResponseDTO> result, List<PersonResponseDTO> persons) {
+        persons.forEach(person -> result.put(person.getId(), person));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
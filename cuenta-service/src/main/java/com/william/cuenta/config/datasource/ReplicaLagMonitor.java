@@ -0,0 +1,78 @@
+package com.william.cuenta.config.datasource;
+
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Mide cada datasource.replica.lag-check-interval el retraso de la replica con
+ * datasource.replica.lag-query. La replica solo recibe lecturas mientras el ultimo retraso medido no
+ * supere datasource.replica.max-lag; si la consulta falla o no devuelve valor, las lecturas vuelven a
+ * la primaria hasta la siguiente medicion.
+ */
+@Slf4j
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    private final JdbcTemplate replica;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, Duration maxLag, Duration checkInterval,
+                             MeterRegistry meterRegistry) {
+        this.replica = new JdbcTemplate(replica);
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+
+        Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+                .description("Replication lag of the read replica, NaN when it could not be measured")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+
+        check();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("replica-lag-monitor").daemon().factory());
+        scheduler.scheduleWithFixedDelay(this::check, checkInterval.toMillis(), checkInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    public boolean acceptsReads() {
+        return lagSeconds <= maxLagSeconds;
+    }
+
+    void check() {
+        boolean accepted = acceptsReads();
+        try {
+            Double lag = replica.queryForObject(lagQuery, Double.class);
+            lagSeconds = lag != null ? lag : Double.NaN;
+        } catch (DataAccessException e) {
+            lagSeconds = Double.NaN;
+            if (accepted) {
+                log.warn("Replica lag check failed, routing reads to the primary", e);
+            }
+            return;
+        }
+        if (accepted && !acceptsReads()) {
+            log.warn("Replica lag {}s exceeds {}s, routing reads to the primary", lagSeconds, maxLagSeconds);
+        } else if (!accepted && acceptsReads()) {
+            log.info("Replica lag {}s within {}s, routing read-only transactions to the replica", lagSeconds, maxLagSeconds);
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
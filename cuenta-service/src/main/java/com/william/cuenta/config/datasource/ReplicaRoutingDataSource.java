@@ -0,0 +1,69 @@
+package com.william.cuenta.config.datasource;
+
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+
+
+/**
+ * Envia a la replica las transacciones {@code readOnly} del hilo que la tenga habilitada (ver
+ * {@link ReadYourWritesFilter}) mientras su retraso este dentro de la tolerancia; todo lo demas va a
+ * la primaria. La conexion real se pide en la primera sentencia, cuando la transaccion ya se marco
+ * como de solo lectura.
+ */
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    enum Node { PRIMARY, REPLICA }
+
+    private static final ThreadLocal<Boolean> REPLICA_ALLOWED = ThreadLocal.withInitial(() -> false);
+
+    private final HikariDataSource primary;
+    private final HikariDataSource replica;
+    private final ReplicaLagMonitor lagMonitor;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, HikariDataSource replica, ReplicaLagMonitor lagMonitor) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagMonitor = lagMonitor;
+
+        Router router = new Router();
+        router.setTargetDataSources(Map.of(Node.PRIMARY, primary, Node.REPLICA, replica));
+        router.setDefaultTargetDataSource(primary);
+        router.afterPropertiesSet();
+        setTargetDataSource(router);
+        afterPropertiesSet();
+    }
+
+    public static void allowReplica(boolean allowed) {
+        REPLICA_ALLOWED.set(allowed);
+    }
+
+    public static void reset() {
+        REPLICA_ALLOWED.remove();
+    }
+
+    @Override
+    public void close() {
+        lagMonitor.close();
+        replica.close();
+        primary.close();
+    }
+
+
+    private class Router extends AbstractRoutingDataSource {
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            if (REPLICA_ALLOWED.get()
+                    && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                    && lagMonitor.acceptsReads()) {
+                return Node.REPLICA;
+            }
+            return Node.PRIMARY;
+        }
+    }
+}
@@ -1,19 +1,44 @@
 package com.william.cuenta.config.mapper;
 
 import com.william.cuenta.domain.model.Account;
+import com.william.cuenta.domain.model.Payment;
 import com.william.cuenta.infrastructure.dto.AccountDTO;
-import org.modelmapper.ModelMapper;
+import com.william.cuenta.infrastructure.dto.PaymentDTO;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.util.function.Function;
 
+/**
+ * Mapeos escritos a mano: se ejecutan por cada fila de los listados, asi que evitan la reflexion.
+ * Al agregar un campo a una entidad o DTO hay que copiarlo aqui.
+ */
 @Configuration
 public class MapAccountFactory {
 
+    /**
+     * La persona y el numero de abonos los completa el servicio.
+     */
     @Bean
-    public Function<Account, AccountDTO> entityToAccountDTO(ModelMapper mapper) {
-        return persona -> mapper.map(persona, AccountDTO.class);
+    public Function<Account, AccountDTO> entityToAccountDTO() {
+        return account -> {
+            AccountDTO dto = new AccountDTO();
+            dto.setId(account.getId());
+            dto.setBalance(account.getBalance());
+            return dto;
+        };
+    }
+
+    @Bean
+    public Function<Payment, PaymentDTO> entityToPaymentDTO() {
+        return payment -> {
+            PaymentDTO dto = new PaymentDTO();
+            dto.setId(payment.getId());
+            dto.setPaymentDate(payment.getPaymentDate());
+            dto.setDescription(payment.getDescription());
+            dto.setValue(payment.getValue());
+            return dto;
+        };
     }
 
 
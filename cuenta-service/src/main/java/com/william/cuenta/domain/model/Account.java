@@ -6,7 +6,6 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
-import java.math.BigInteger;
 import java.util.List;
 
 @Entity
@@ -22,8 +21,11 @@ public class Account {
     @OneToMany(mappedBy = "account", cascade = CascadeType.ALL)
     private List<Payment> paymentList;
 
+    /**
+     * Saldo en pesos enteros.
+     */
     @Column(name = "saldo")
-    private BigInteger balance;
+    private long balance;
 
     @Column(name = "persona_id")
     private Long personId;
@@ -6,7 +6,6 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
-import java.math.BigInteger;
 import java.time.LocalDateTime;
 
 @Entity
@@ -24,11 +23,14 @@ public class Payment {
     private LocalDateTime paymentDate;
 
     @Column(name = "valor")
-    private BigInteger value;
+    private long value;
 
     @Column(name = "descripcion")
     private String description;
 
+    @Column(name = "referencia", unique = true)
+    private String reference;
+
     @ManyToOne
     @JoinColumn(name = "cuenta_id")
     private Account account;
@@ -1,14 +1,21 @@
 package com.william.cuenta.infrastructure.controller;
 
 import com.william.cuenta.infrastructure.dto.AccountDTO;
+import com.william.cuenta.infrastructure.dto.DebitDTO;
+import com.william.cuenta.infrastructure.dto.DebitResultDTO;
+import com.william.cuenta.infrastructure.dto.PaymentDTO;
 import com.william.cuenta.service.AccountService;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.math.BigInteger;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api")
@@ -22,30 +29,41 @@ public class AccountController {
         return ResponseEntity.ok(service.getAccountById(accountId));
     }
 
+    @GetMapping("/by-account/{accountId}/payments")
+    public ResponseEntity<Page<PaymentDTO>> getPayments(@PathVariable Long accountId,
+                                                        @PageableDefault(size = 20, sort = "paymentDate", direction = Sort.Direction.DESC)
+                                                        Pageable pageable) {
+        return ResponseEntity.ok(service.getPayments(accountId, pageable));
+    }
+
     @GetMapping("/by-person/{personId}")
     public ResponseEntity<AccountDTO> getAccountByPersonId(@PathVariable Long personId) {
         return ResponseEntity.ok(service.getAccountByPersonId(personId));
     }
 
+    @PostMapping("/by-accounts")
+    public ResponseEntity<Map<Long, AccountDTO>> getAccountsByIds(@RequestBody List<Long> accountIds) {
+        return ResponseEntity.ok(service.getAccountsByIds(accountIds));
+    }
+
     @GetMapping("/all")
     public ResponseEntity<List<AccountDTO>> getAllAccounts() {
         return ResponseEntity.ok(service.getAllAccounts());
     }
 
     @PostMapping("/create-account")
-    public ResponseEntity<String> createAccount(@RequestParam Long personId, @RequestParam BigInteger balance) {
+    public ResponseEntity<String> createAccount(@RequestParam Long personId, @RequestParam long balance) {
         return ResponseEntity.ok(service.createAccount(personId, balance));
     }
 
-    @PostMapping("/send-payment")
-    public ResponseEntity<String> sendPayment(@RequestParam Long personId,
-                                              @RequestParam BigInteger amount,
-                                              @RequestParam Long creditId) {
-        return ResponseEntity.ok(service.sendPayment(personId, amount, creditId));
+    @PostMapping("/send-payments")
+    public ResponseEntity<List<DebitResultDTO>> sendPayments(@RequestParam Long personId,
+                                                             @RequestBody List<DebitDTO> debits) {
+        return ResponseEntity.ok(service.sendPayments(personId, debits));
     }
 
     @PutMapping("/update-balance")
-    public ResponseEntity<String> updateBalance(@RequestParam Long personId, @RequestParam(name = "addAmount") BigInteger amount) {
+    public ResponseEntity<String> updateBalance(@RequestParam Long personId, @RequestParam(name = "addAmount") long amount) {
         return ResponseEntity.ok(service.updateBalance(personId, amount));
     }
 
@@ -3,6 +3,7 @@ package com.william.cuenta.infrastructure.dao.account;
 
 import com.william.cuenta.domain.model.Account;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,6 +11,11 @@ public interface AccountDao {
 
     Optional<Account> findAccount(Long personId);
 
+    /**
+     * Lee la cuenta bloqueando su fila hasta el fin de la transaccion; exige una transaccion activa.
+     */
+    Optional<Account> findAccountForUpdate(Long personId);
+
     void save(Account account);
 
     Boolean existsAccount(Long personId);
@@ -21,4 +27,6 @@ public interface AccountDao {
     Account findById(Long accountId);
 
     Account findByPersonId(Long personId);
+
+    List<Account> findAllById(Collection<Long> accountIds);
 }
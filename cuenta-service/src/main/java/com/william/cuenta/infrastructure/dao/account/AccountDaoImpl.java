@@ -5,7 +5,9 @@ import com.william.cuenta.config.exceptions.AccountNotFoundException;
 import com.william.cuenta.domain.model.Account;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +24,11 @@ public class AccountDaoImpl implements AccountDao {
         return accountRepository.findByPersonId(personId);
     }
 
+    @Override
+    public Optional<Account> findAccountForUpdate(Long personId) {
+        return accountRepository.findForUpdateByPersonId(personId);
+    }
+
     @Override
     public void save(Account account) {
         accountRepository.save(account);
@@ -37,6 +44,7 @@ public class AccountDaoImpl implements AccountDao {
         accountRepository.delete(account);
     }
 
+    @Transactional(readOnly = true)
     @Override
     public List<Account> findAll() {
         return accountRepository.findAll();
@@ -53,4 +61,9 @@ public class AccountDaoImpl implements AccountDao {
         return accountRepository.findByPersonId(personId)
                 .orElseThrow(() -> new AccountNotFoundException("Account for person with id: " + personId + " not found"));
     }
+
+    @Override
+    public List<Account> findAllById(Collection<Long> accountIds) {
+        return accountRepository.findAllById(accountIds);
+    }
 }
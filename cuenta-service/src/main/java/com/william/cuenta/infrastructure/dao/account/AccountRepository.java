@@ -2,7 +2,9 @@ package com.william.cuenta.infrastructure.dao.account;
 
 
 import com.william.cuenta.domain.model.Account;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 
 import java.util.Optional;
 
@@ -11,6 +13,10 @@ public interface AccountRepository extends JpaRepository<Account,Long> {
 
     Optional<Account> findByPersonId(Long personId);
 
+    // SELECT ... FOR UPDATE: los debitos y ajustes concurrentes de la misma cuenta esperan su turno
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Account> findForUpdateByPersonId(Long personId);
+
     Boolean existsByPersonId(Long personId);
 
 }
@@ -2,8 +2,30 @@ package com.william.cuenta.infrastructure.dao.payment;
 
 
 import com.william.cuenta.domain.model.Payment;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public interface PaymentDao {
 
     void save(Payment payment);
+
+    void saveAll(List<Payment> payments);
+
+    Page<Payment> findByAccountId(Long accountId, Pageable pageable);
+
+    long countByAccountId(Long accountId);
+
+    boolean existsByReference(String reference);
+
+    /**
+     * Referencias de la lista que ya tienen un abono registrado.
+     */
+    Set<String> findExistingReferences(Collection<String> references);
+
+    Map<Long, Long> countByAccountIds(Collection<Long> accountIds);
 }
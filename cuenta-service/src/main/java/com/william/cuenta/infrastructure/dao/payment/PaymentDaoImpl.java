@@ -4,17 +4,76 @@ package com.william.cuenta.infrastructure.dao.payment;
 
 import com.william.cuenta.domain.model.Payment;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 
 @Repository
 @RequiredArgsConstructor
 public class PaymentDaoImpl implements PaymentDao {
 
+    private static final int IN_CLAUSE_CHUNK = 1000;
+
     private final PaymentRepository paymentRepository;
 
     @Override
     public void save(Payment payment) {
         paymentRepository.save(payment);
     }
-}
\ No newline at end of file
+
+    @Override
+    public void saveAll(List<Payment> payments) {
+        paymentRepository.saveAll(payments);
+    }
+
+    @Override
+    public Page<Payment> findByAccountId(Long accountId, Pageable pageable) {
+        return paymentRepository.findByAccountId(accountId, pageable);
+    }
+
+    @Override
+    public long countByAccountId(Long accountId) {
+        return paymentRepository.countByAccountId(accountId);
+    }
+
+    @Override
+    public boolean existsByReference(String reference) {
+        return paymentRepository.existsByReference(reference);
+    }
+
+    @Override
+    public Set<String> findExistingReferences(Collection<String> references) {
+        Set<String> existing = new HashSet<>();
+        List<String> values = List.copyOf(references);
+        for (int i = 0; i < values.size(); i += IN_CLAUSE_CHUNK) {
+            existing.addAll(paymentRepository.findReferencesIn(values.subList(i, Math.min(i + IN_CLAUSE_CHUNK, values.size()))));
+        }
+        return existing;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Map<Long, Long> countByAccountIds(Collection<Long> accountIds) {
+        Map<Long, Long> counts = new HashMap<>();
+        if (accountIds.isEmpty()) {
+            return counts;
+        }
+        List<Long> ids = List.copyOf(accountIds);
+        for (int i = 0; i < ids.size(); i += IN_CLAUSE_CHUNK) {
+            List<Long> chunk = ids.subList(i, Math.min(i + IN_CLAUSE_CHUNK, ids.size()));
+            for (Object[] row : paymentRepository.countByAccountIds(chunk)) {
+                counts.put((Long) row[0], (Long) row[1]);
+            }
+        }
+        return counts;
+    }
+}
@@ -2,10 +2,27 @@ package com.william.cuenta.infrastructure.dao.payment;
 
 
 import com.william.cuenta.domain.model.Payment;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
 
 
 public interface PaymentRepository extends JpaRepository<Payment,Long> {
 
+    Page<Payment> findByAccountId(Long accountId, Pageable pageable);
+
+    long countByAccountId(Long accountId);
+
+    boolean existsByReference(String reference);
+
+    @Query("select p.reference from Payment p where p.reference in ?1")
+    List<String> findReferencesIn(Collection<String> references);
+
+    @Query("select p.account.id, count(p) from Payment p where p.account.id in ?1 group by p.account.id")
+    List<Object[]> countByAccountIds(Collection<Long> accountIds);
+
 }
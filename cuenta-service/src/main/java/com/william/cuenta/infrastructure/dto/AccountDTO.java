@@ -1,17 +1,14 @@
 package com.william.cuenta.infrastructure.dto;
 
 import lombok.Data;
-import java.math.BigInteger;
-
-import java.util.List;
 
 @Data
 public class AccountDTO {
     private Long id;
 
-    private List<PaymentDTO> paymentList;
+    private long paymentCount;
 
-    private BigInteger balance;
+    private Long balance;
 
     private PersonResponseDTO person;
 }
@@ -0,0 +1,13 @@
+package com.william.cuenta.infrastructure.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountInvalidationDTO {
+    private Long accountId;
+    private Long personId;
+}
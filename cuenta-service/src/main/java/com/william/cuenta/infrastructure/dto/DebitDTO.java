@@ -0,0 +1,14 @@
+package com.william.cuenta.infrastructure.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DebitDTO {
+    private String reference;
+    private Long creditId;
+    private long amount;
+}
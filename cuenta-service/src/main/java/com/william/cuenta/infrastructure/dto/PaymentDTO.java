@@ -2,7 +2,6 @@ package com.william.cuenta.infrastructure.dto;
 
 import lombok.Data;
 
-import java.math.BigInteger;
 import java.time.LocalDateTime;
 
 @Data
@@ -10,5 +9,5 @@ public class PaymentDTO {
     private Long id;
     private LocalDateTime paymentDate;
     private String description;
-    private BigInteger value;
+    private Long value;
 }
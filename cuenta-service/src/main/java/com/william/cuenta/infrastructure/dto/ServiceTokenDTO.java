@@ -0,0 +1,16 @@
+package com.william.cuenta.infrastructure.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ServiceTokenDTO {
+    private String accessToken;
+    private String tokenType;
+    private Instant expiresAt;
+}
@@ -0,0 +1,76 @@
+package com.william.cuenta.service;
+
+import com.william.cuenta.config.client.CreditoClient;
+import com.william.cuenta.domain.model.Account;
+import com.william.cuenta.infrastructure.dto.AccountInvalidationDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Avisa a credito-service que una cuenta cambio, una vez confirmada la transaccion y en un hilo
+ * propio para no demorar la respuesta. El aviso va con el token de servicio de cuenta-service, no con el
+ * del usuario, que puede vencer antes de que salga. Si la cola se llena o el aviso falla, credito-service
+ * descarta su copia cuando vence el TTL.
+ */
+@Component
+@Slf4j
+public class AccountChangeNotifier {
+
+    private final CreditoClient creditoClient;
+    private final ServiceTokenProvider serviceToken;
+    private final ExecutorService executor;
+
+    public AccountChangeNotifier(CreditoClient creditoClient,
+                                 ServiceTokenProvider serviceToken,
+                                 @Value("${credito.invalidation.queue-capacity:10000}") int queueCapacity) {
+        this.creditoClient = creditoClient;
+        this.serviceToken = serviceToken;
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                (task, pool) -> log.warn("Account invalidation queue is full, credito-service will rely on its TTL"));
+    }
+
+    public void accountChanged(Account account) {
+        AccountInvalidationDTO invalidation = new AccountInvalidationDTO(account.getId(), account.getPersonId());
+        Runnable send = () -> executor.execute(() -> notify(invalidation));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send.run();
+                }
+            });
+        } else {
+            send.run();
+        }
+    }
+
+    private void notify(AccountInvalidationDTO invalidation) {
+        try {
+            creditoClient.invalidateAccount(invalidation, serviceToken.bearerToken());
+        } catch (HttpClientErrorException.Unauthorized | HttpClientErrorException.Forbidden e) {
+            // se pide un token nuevo en el proximo aviso
+            serviceToken.invalidate();
+            log.warn("credito-service rejected the service token, account {} will expire by TTL", invalidation.getAccountId());
+        } catch (IllegalStateException e) {
+            log.warn("Account {} could not be invalidated, credito-service will rely on its TTL: {}",
+                    invalidation.getAccountId(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
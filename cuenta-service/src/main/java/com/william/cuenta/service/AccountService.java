@@ -2,18 +2,28 @@ package com.william.cuenta.service;
 
 
 import com.william.cuenta.infrastructure.dto.AccountDTO;
+import com.william.cuenta.infrastructure.dto.DebitDTO;
+import com.william.cuenta.infrastructure.dto.DebitResultDTO;
+import com.william.cuenta.infrastructure.dto.PaymentDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
-import java.math.BigInteger;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface AccountService {
 
 
-    String createAccount(Long personId, BigInteger balance);
+    String createAccount(Long personId, long balance);
 
-    String sendPayment(Long personId, BigInteger amount, Long creditId);
+    /**
+     * Debita varios pagos de la misma cuenta en una sola transaccion. Cada debito se resuelve por
+     * separado y el resultado se devuelve en el mismo orden de la lista.
+     */
+    List<DebitResultDTO> sendPayments(Long personId, List<DebitDTO> debits);
 
-    String updateBalance(Long personId, BigInteger amount);
+    String updateBalance(Long personId, long amount);
 
     String deleteAccount(Long personId);
 
@@ -22,4 +32,8 @@ public interface AccountService {
     AccountDTO getAccountById(Long accountId);
 
     AccountDTO getAccountByPersonId(Long personId);
+
+    Map<Long, AccountDTO> getAccountsByIds(Collection<Long> accountIds);
+
+    Page<PaymentDTO> getPayments(Long accountId, Pageable pageable);
 }
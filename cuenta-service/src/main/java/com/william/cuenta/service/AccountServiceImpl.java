@@ -1,6 +1,7 @@
 package com.william.cuenta.service;
 
 
+import com.william.cuenta.config.client.PersonaClient;
 import com.william.cuenta.config.exceptions.AccountException;
 import com.william.cuenta.config.exceptions.AccountNotFoundException;
 import com.william.cuenta.domain.model.Account;
@@ -8,50 +9,50 @@ import com.william.cuenta.domain.model.Payment;
 import com.william.cuenta.infrastructure.dao.account.AccountDao;
 import com.william.cuenta.infrastructure.dao.payment.PaymentDao;
 import com.william.cuenta.infrastructure.dto.AccountDTO;
+import com.william.cuenta.infrastructure.dto.DebitDTO;
+import com.william.cuenta.infrastructure.dto.DebitResultDTO;
+import com.william.cuenta.infrastructure.dto.PaymentDTO;
 import com.william.cuenta.infrastructure.dto.PersonResponseDTO;
+import io.micrometer.core.annotation.Timed;
 import jakarta.servlet.http.HttpServletRequest;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.HttpStatusCode;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClient;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
-import java.math.BigInteger;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(value = "account.service", histogram = true)
 public class AccountServiceImpl implements AccountService {
 
-    private final RestClient restClient;
+    private final PersonaClient personaClient;
     private final Function<Account, AccountDTO> entityToAccountDTO;
+    private final Function<Payment, PaymentDTO> entityToPaymentDTO;
     private final AccountDao accountDao;
     private final PaymentDao paymentDao;
-    @Value("${persona.base-url}")
-    private String personaServiceUrl;
+    private final AccountChangeNotifier accountChangeNotifier;
 
 
     @Override
     public List<AccountDTO> getAllAccounts() {
         List<Account> accounts = accountDao.findAll();
-        String authToken = extractAuthToken();
-
-        return accounts.stream()
-                .map(account -> {
-                    PersonResponseDTO person = fetchPerson(account.getPersonId(), authToken);
-                    AccountDTO accountDTO = entityToAccountDTO.apply(account);
-                    accountDTO.setPerson(person);
-                    return accountDTO;
-                })
-                .toList();
+        return buildAccountDTOs(accounts).values().stream().toList();
     }
 
     @Override
@@ -67,14 +68,29 @@ public class AccountServiceImpl implements AccountService {
     }
 
     @Override
-    public String createAccount(Long personId, BigInteger balance) {
+    public Map<Long, AccountDTO> getAccountsByIds(Collection<Long> accountIds) {
+        if (accountIds == null || accountIds.isEmpty()) {
+            return Map.of();
+        }
+
+        return buildAccountDTOs(accountDao.findAllById(accountIds));
+    }
+
+    @Override
+    public Page<PaymentDTO> getPayments(Long accountId, Pageable pageable) {
+        accountDao.findById(accountId);
+        return paymentDao.findByAccountId(accountId, pageable).map(entityToPaymentDTO);
+    }
+
+    @Override
+    public String createAccount(Long personId, long balance) {
 
         if (Boolean.TRUE.equals(accountDao.existsAccount(personId))) {
             throw new AccountException("Account with personId: " + personId + " already exists");
         }
 
         String authToken = extractAuthToken();
-        PersonResponseDTO person = fetchPerson(personId, authToken);
+        PersonResponseDTO person = personaClient.fetchPerson(personId, authToken);
         if (person.getStatus().equals("INACTIVO")) {
             throw new AccountException("Person with id: " + personId + " is inactive");
         }
@@ -88,30 +104,71 @@ public class AccountServiceImpl implements AccountService {
 
     @Transactional
     @Override
-    public String sendPayment(Long personId, BigInteger amount, Long creditId) {
-        Account account = fetchAccount(personId);
-        if (account.getBalance().compareTo(amount) < 0) {
-            throw new AccountException("Insufficient funds");
+    public List<DebitResultDTO> sendPayments(Long personId, List<DebitDTO> debits) {
+        if (debits == null || debits.isEmpty()) {
+            return List.of();
         }
 
-        Payment payment = new Payment();
-        payment.setPaymentDate(LocalDateTime.now().withNano(0));
-        payment.setValue(amount);
-        payment.setAccount(account);
-        payment.setDescription("Payment to credit id: " + creditId);
-        paymentDao.save(payment);
-
-        account.setBalance(account.getBalance().subtract(amount));
-        accountDao.save(account);
+        // el bloqueo va antes de leer las referencias: un reenvio concurrente ve el debito ya aplicado
+        Account account = fetchAccountForUpdate(personId);
+        Set<String> applied = new HashSet<>(paymentDao.findExistingReferences(debits.stream()
+                .map(DebitDTO::getReference)
+                .filter(Objects::nonNull)
+                .toList()));
+
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        long balance = account.getBalance();
+        List<Payment> payments = new ArrayList<>();
+        List<DebitResultDTO> results = new ArrayList<>(debits.size());
+        for (DebitDTO debit : debits) {
+            String reference = debit.getReference();
+            if (reference != null && applied.contains(reference)) {
+                results.add(new DebitResultDTO(reference, true, "Payment sent successfully"));
+                continue;
+            }
+            if (debit.getAmount() <= 0) {
+                results.add(new DebitResultDTO(reference, false, "Amount must be greater than 0"));
+                continue;
+            }
+            if (balance < debit.getAmount()) {
+                results.add(new DebitResultDTO(reference, false, "Insufficient funds"));
+                continue;
+            }
+
+            Payment payment = new Payment();
+            payment.setPaymentDate(now);
+            payment.setValue(debit.getAmount());
+            payment.setAccount(account);
+            payment.setDescription("Payment to credit id: " + debit.getCreditId());
+            payment.setReference(reference);
+            payments.add(payment);
+            if (reference != null) {
+                applied.add(reference);
+            }
+            balance -= debit.getAmount();
+            results.add(new DebitResultDTO(reference, true, "Payment sent successfully"));
+        }
 
-        return "Payment sent successfully";
+        if (!payments.isEmpty()) {
+            paymentDao.saveAll(payments);
+            account.setBalance(balance);
+            accountDao.save(account);
+            accountChangeNotifier.accountChanged(account);
+        }
+        return results;
     }
 
+    @Transactional
     @Override
-    public String updateBalance(Long personId, BigInteger amount) {
-        Account account = fetchAccount(personId);
-        account.setBalance(account.getBalance().add(amount));
+    public String updateBalance(Long personId, long amount) {
+        Account account = fetchAccountForUpdate(personId);
+        try {
+            account.setBalance(Math.addExact(account.getBalance(), amount));
+        } catch (ArithmeticException e) {
+            throw new AccountException("Balance is out of range");
+        }
         accountDao.save(account);
+        accountChangeNotifier.accountChanged(account);
         return "Balance updated successfully";
     }
 
@@ -119,38 +176,21 @@ public class AccountServiceImpl implements AccountService {
     public String deleteAccount(Long personId) {
         Account account = fetchAccount(personId);
         accountDao.delete(account);
+        accountChangeNotifier.accountChanged(account);
         return "Account belonging to person: " + personId + " deleted successfully";
     }
 
 
-    private PersonResponseDTO fetchPerson(Long personId, String bearerToken) {
-        return restClient.get()
-                .uri(personaServiceUrl+"/private?personaId={personId}", personId)
-                .header("Authorization", bearerToken)
-                .retrieve()
-                .onStatus(status -> status.value() == HttpStatus.NOT_FOUND.value(),
-                        (request, response) -> {
-                            log.error(new String(response.getBody().readAllBytes()));
-                            throw new AccountNotFoundException("Person with document: " + personId + " not found");
-                        })
-                .onStatus(HttpStatusCode::is4xxClientError,
-                        (request, response) -> {
-                            log.error(new String(response.getBody().readAllBytes()));
-                            throw new AccountException(new String(response.getBody().readAllBytes()));
-                        })
-                .onStatus(HttpStatusCode::is5xxServerError,
-                        (request, response) -> {
-                            log.error(new String(response.getBody().readAllBytes()));
-                            throw new AccountException("External service error");
-                        })
-                .body(PersonResponseDTO.class);
-    }
-
     private Account fetchAccount(Long personId) {
         return accountDao.findAccount(personId)
                 .orElseThrow(() -> new AccountNotFoundException("Account with personId: " + personId + " not found"));
     }
 
+    private Account fetchAccountForUpdate(Long personId) {
+        return accountDao.findAccountForUpdate(personId)
+                .orElseThrow(() -> new AccountNotFoundException("Account with personId: " + personId + " not found"));
+    }
+
     private String extractAuthToken() {
         HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
         return request.getHeader("Authorization");
@@ -158,9 +198,31 @@ public class AccountServiceImpl implements AccountService {
 
     private AccountDTO buildAccountDTO(Account account) {
         String authToken = extractAuthToken();
-        PersonResponseDTO person = fetchPerson(account.getPersonId(), authToken);
+        PersonResponseDTO person = personaClient.fetchPerson(account.getPersonId(), authToken);
         AccountDTO accountDTO = entityToAccountDTO.apply(account);
+        accountDTO.setPaymentCount(paymentDao.countByAccountId(account.getId()));
         accountDTO.setPerson(person);
         return accountDTO;
     }
+
+    private Map<Long, AccountDTO> buildAccountDTOs(List<Account> accounts) {
+        String authToken = extractAuthToken();
+        Map<Long, PersonResponseDTO> persons = personaClient.fetchPersons(
+                accounts.stream().map(Account::getPersonId).toList(), authToken);
+        Map<Long, Long> paymentCounts = paymentDao.countByAccountIds(
+                accounts.stream().map(Account::getId).toList());
+
+        Map<Long, AccountDTO> result = new LinkedHashMap<>();
+        for (Account account : accounts) {
+            PersonResponseDTO person = persons.get(account.getPersonId());
+            if (person == null) {
+                log.warn("Person with id: {} not found for account: {}", account.getPersonId(), account.getId());
+            }
+            AccountDTO accountDTO = entityToAccountDTO.apply(account);
+            accountDTO.setPaymentCount(paymentCounts.getOrDefault(account.getId(), 0L));
+            accountDTO.setPerson(person);
+            result.put(account.getId(), accountDTO);
+        }
+        return result;
+    }
 }
@@ -0,0 +1,81 @@
+package com.william.cuenta.service;
+
+import com.william.cuenta.config.client.AuthClient;
+import com.william.cuenta.infrastructure.dto.ServiceTokenDTO;
+import com.william.cuenta.infrastructure.dto.ServiceTokenRequestDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token propio de cuenta-service para avisar a credito-service que una cuenta cambio; el aviso corre
+ * despues de la peticion del usuario y no puede reutilizar su token. Se pide a auth-service con las
+ * credenciales de cuenta.service-client y se reutiliza hasta poco antes de vencer; solo vive en memoria.
+ */
+@Component
+public class ServiceTokenProvider {
+
+    private static final Duration RENEW_BEFORE_EXPIRY = Duration.ofSeconds(30);
+
+    private final AuthClient authClient;
+    private final ServiceTokenRequestDTO credentials;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile ServiceTokenDTO current;
+
+    public ServiceTokenProvider(AuthClient authClient,
+                                @Value("${cuenta.service-client.id}") String clientId,
+                                @Value("${cuenta.service-client.secret}") String clientSecret) {
+        this.authClient = authClient;
+        this.credentials = new ServiceTokenRequestDTO(clientId, clientSecret);
+    }
+
+    /**
+     * Valor para la cabecera Authorization; falla con IllegalStateException si auth-service no entrega un token.
+     */
+    public String bearerToken() {
+        ServiceTokenDTO token = current;
+        if (!isUsable(token)) {
+            lock.lock();
+            try {
+                token = current;
+                if (!isUsable(token)) {
+                    token = requestToken();
+                    current = token;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return "Bearer " + token.getAccessToken();
+    }
+
+    /**
+     * Descarta el token en cache, p. ej. cuando credito-service lo rechazo.
+     */
+    public void invalidate() {
+        current = null;
+    }
+
+
+    private ServiceTokenDTO requestToken() {
+        ServiceTokenDTO token;
+        try {
+            token = authClient.getServiceToken(credentials);
+        } catch (RestClientException e) {
+            throw new IllegalStateException("Service token for " + credentials.getClientId() + " could not be obtained", e);
+        }
+        if (token == null || token.getAccessToken() == null) {
+            throw new IllegalStateException("auth-service returned no service token for " + credentials.getClientId());
+        }
+        return token;
+    }
+
+    private static boolean isUsable(ServiceTokenDTO token) {
+        return token != null && token.getExpiresAt() != null
+                && Instant.now().isBefore(token.getExpiresAt().minus(RENEW_BEFORE_EXPIRY));
+    }
+}
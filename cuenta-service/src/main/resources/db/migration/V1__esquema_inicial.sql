@@ -0,0 +1,17 @@
+-- Esquema que hasta ahora generaba ddl-auto=update. IF NOT EXISTS permite aplicarlo sobre una base existente.
+CREATE TABLE IF NOT EXISTS cuentas (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    saldo      BIGINT NOT NULL,
+    persona_id BIGINT
+);
+
+CREATE TABLE IF NOT EXISTS abonos (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    fecha_abono TIMESTAMP(6),
+    valor       BIGINT NOT NULL,
+    descripcion VARCHAR(255),
+    referencia  VARCHAR(255),
+    cuenta_id   BIGINT,
+    CONSTRAINT uk_abonos_referencia UNIQUE (referencia),
+    CONSTRAINT fk_abonos_cuenta FOREIGN KEY (cuenta_id) REFERENCES cuentas (id)
+);
@@ -0,0 +1,5 @@
+-- findByPersonId, existsByPersonId y el debito de pagos; una persona tiene una sola cuenta
+CREATE UNIQUE INDEX IF NOT EXISTS uk_cuentas_persona_id ON cuentas (persona_id);
+
+-- historial paginado por fecha y conteo de abonos por cuenta
+CREATE INDEX IF NOT EXISTS idx_abonos_cuenta_fecha ON abonos (cuenta_id, fecha_abono);
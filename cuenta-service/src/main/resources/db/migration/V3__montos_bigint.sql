@@ -0,0 +1,9 @@
+-- ddl-auto=update dejo los montos como numeric(38,0) y sin NOT NULL; las entidades los leen como long.
+-- Sobre una base creada por V1 los ALTER no cambian nada.
+UPDATE cuentas SET saldo = 0 WHERE saldo IS NULL;
+UPDATE abonos SET valor = 0 WHERE valor IS NULL;
+
+ALTER TABLE cuentas ALTER COLUMN saldo SET DATA TYPE BIGINT;
+ALTER TABLE cuentas ALTER COLUMN saldo SET NOT NULL;
+ALTER TABLE abonos ALTER COLUMN valor SET DATA TYPE BIGINT;
+ALTER TABLE abonos ALTER COLUMN valor SET NOT NULL;
@@ -0,0 +1,6 @@
+-- Columna agregada despues del esquema que genero ddl-auto=update; V1 no la crea en una base existente.
+ALTER TABLE abonos ADD COLUMN IF NOT EXISTS referencia VARCHAR(255);
+
+-- Un pago reintentado con la misma referencia no debe debitar dos veces. En PostgreSQL la restriccion de
+-- V1 ya crea un indice con este nombre y la sentencia se omite.
+CREATE UNIQUE INDEX IF NOT EXISTS uk_abonos_referencia ON abonos (referencia);
@@ -0,0 +1,59 @@
+package com.william.cuenta.config.client;
+
+import com.william.cuenta.infrastructure.dto.PersonResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class PersonaClientTest {
+
+    private static final String BASE_URL = "http://persona/persona";
+
+    private MockRestServiceServer server;
+    private PersonaClient client;
+
+    @BeforeEach
+    void setUp() {
+        RestClient.Builder builder = RestClient.builder();
+        server = MockRestServiceServer.bindTo(builder).build();
+        client = new PersonaClient(builder.build(), BASE_URL, 2, 1, false);
+    }
+
+    @Test
+    void fetchPersons_splitsIdsIntoBatches() {
+        server.expect(requestTo(BASE_URL + "/private/batch"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(content().json("[1,2]"))
+                .andRespond(withSuccess("[{\"id\":1},{\"id\":2}]", MediaType.APPLICATION_JSON));
+        server.expect(requestTo(BASE_URL + "/private/batch"))
+                .andExpect(content().json("[3,4]"))
+                .andRespond(withSuccess("[{\"id\":3},{\"id\":4}]", MediaType.APPLICATION_JSON));
+        server.expect(requestTo(BASE_URL + "/private/batch"))
+                .andExpect(content().json("[5]"))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        Map<Long, PersonResponseDTO> persons = client.fetchPersons(List.of(1L, 2L, 2L, 3L, 4L, 5L), "Bearer token");
+
+        server.verify();
+        assertEquals(4, persons.size());
+        assertEquals(3L, persons.get(3L).getId());
+    }
+
+    @Test
+    void fetchPersons_withoutIdsDoesNotCallPersonaService() {
+        Map<Long, PersonResponseDTO> persons = client.fetchPersons(List.of(), "Bearer token");
+
+        server.verify();
+        assertEquals(0, persons.size());
+    }
+}
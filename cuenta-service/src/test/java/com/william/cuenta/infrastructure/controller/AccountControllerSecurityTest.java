@@ -0,0 +1,74 @@
+package com.william.cuenta.infrastructure.controller;
+
+import com.william.cuenta.config.SecurityConfig;
+import com.william.cuenta.infrastructure.dto.DebitResultDTO;
+import com.william.cuenta.service.AccountService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(AccountController.class)
+@Import({SecurityConfig.class, AccountControllerSecurityTest.Metrics.class})
+class AccountControllerSecurityTest {
+
+    private static final String DEBITS = "[{\"creditId\":7,\"amount\":100,\"reference\":\"credit-7-1\"}]";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private AccountService service;
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Test
+    void sendPayments_userTokenIsForbidden() throws Exception {
+        mockMvc.perform(post("/api/send-payments")
+                        .with(jwt().jwt(token -> token.subject("12345678").claim("personId", 1L)))
+                        .param("personId", "1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(DEBITS))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    void sendPayments_serviceTokenWithDebitScopeIsAccepted() throws Exception {
+        when(service.sendPayments(eq(1L), any())).thenReturn(List.<DebitResultDTO>of());
+
+        mockMvc.perform(post("/api/send-payments")
+                        .with(jwt().jwt(token -> token.subject("credito-service"))
+                                .authorities(new SimpleGrantedAuthority("SCOPE_payments.debit")))
+                        .param("personId", "1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(DEBITS))
+                .andExpect(status().isOk());
+
+        verify(service).sendPayments(eq(1L), any());
+    }
+}
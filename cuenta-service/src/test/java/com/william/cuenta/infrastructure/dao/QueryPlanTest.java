@@ -0,0 +1,97 @@
+package com.william.cuenta.infrastructure.dao;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica el plan de las consultas por persona y por cuenta sobre el esquema de las migraciones y,
+ * donde H2 lo permite, contra el mismo esquema sin los indices que agrega V2.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class QueryPlanTest {
+
+    private static final int ACCOUNTS = 2_000;
+    private static final int PAYMENTS_PER_ACCOUNT = 5;
+
+    private static final String FIND_BY_PERSON = "SELECT * FROM cuentas WHERE persona_id = 1500";
+    private static final String FIND_PAYMENTS = "SELECT * FROM abonos WHERE cuenta_id = 1500 ORDER BY fecha_abono DESC LIMIT 20";
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cuentas", Integer.class) > 0) {
+            return;
+        }
+        List<Object[]> accounts = new ArrayList<>(ACCOUNTS);
+        List<Object[]> payments = new ArrayList<>(ACCOUNTS * PAYMENTS_PER_ACCOUNT);
+        for (long id = 1; id <= ACCOUNTS; id++) {
+            accounts.add(new Object[]{id, id});
+            for (int j = 0; j < PAYMENTS_PER_ACCOUNT; j++) {
+                payments.add(new Object[]{id});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO cuentas (id, saldo, persona_id) VALUES (?, 1000, ?)", accounts);
+        jdbcTemplate.batchUpdate("INSERT INTO abonos (fecha_abono, valor, cuenta_id) VALUES (CURRENT_TIMESTAMP, 100, ?)",
+                payments);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void findByPersonIdUsesThePersonIndex() {
+        String after = explain(FIND_BY_PERSON);
+        String before = withoutIndex("uk_cuentas_persona_id",
+                "CREATE UNIQUE INDEX uk_cuentas_persona_id ON cuentas (persona_id)", FIND_BY_PERSON);
+
+        assertTrue(before.contains("tableScan"), before);
+        assertTrue(after.contains("UK_CUENTAS_PERSONA_ID: PERSONA_ID = CAST(1500 AS BIGINT) */"), after);
+    }
+
+    @Test
+    void paymentHistoryUsesAnAccountIndex() {
+        String plan = explain(FIND_PAYMENTS);
+
+        // H2 indexa por su cuenta las claves foraneas y elige entre ese indice y el de V2 con el mismo costo;
+        // PostgreSQL no crea el primero, asi que se comprueba que V2 deja el indice con la fecha detras de la cuenta
+        assertFalse(plan.contains("tableScan"), plan);
+        assertTrue(plan.contains(": CUENTA_ID = CAST(1500 AS BIGINT) */"), plan);
+        assertEquals(List.of("CUENTA_ID", "FECHA_ABONO"), indexColumns("IDX_ABONOS_CUENTA_FECHA"));
+    }
+
+
+    private String withoutIndex(String index, String create, String sql) {
+        jdbcTemplate.execute("DROP INDEX " + index);
+        try {
+            return explain(sql);
+        } finally {
+            jdbcTemplate.execute(create);
+        }
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+
+    private List<String> indexColumns(String index) {
+        return jdbcTemplate.queryForList("SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS"
+                + " WHERE INDEX_NAME = ? ORDER BY ORDINAL_POSITION", String.class, index);
+    }
+}
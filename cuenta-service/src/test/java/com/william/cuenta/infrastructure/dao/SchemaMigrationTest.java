@@ -0,0 +1,79 @@
+package com.william.cuenta.infrastructure.dao;
+
+import com.william.cuenta.domain.model.Account;
+import com.william.cuenta.infrastructure.dao.account.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Aplica las migraciones sobre el esquema que generaba ddl-auto=update, con datos, antes de que Hibernate
+ * lo valide al arrancar el contexto.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SchemaMigrationTest {
+
+    private static final String URL = "jdbc:h2:mem:ddl-auto-update;DB_CLOSE_DELAY=-1";
+    private static final String INSERT_PAYMENT =
+            "INSERT INTO abonos (fecha_abono, valor, cuenta_id, referencia) VALUES (CURRENT_TIMESTAMP, 100, 1, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @DynamicPropertySource
+    static void previousSchema(DynamicPropertyRegistry registry) {
+        new ResourceDatabasePopulator(new ClassPathResource("db/ddl-auto-update/esquema_previo.sql"))
+                .execute(new DriverManagerDataSource(URL, "sa", ""));
+        registry.add("spring.datasource.url", () -> URL);
+        registry.add("spring.datasource.username", () -> "sa");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @Test
+    void moneyColumnsBecomeBigintAndKeepTheirValues() {
+        List<String> types = jdbcTemplate.queryForList("SELECT DATA_TYPE || ' ' || IS_NULLABLE FROM INFORMATION_SCHEMA.COLUMNS"
+                + " WHERE (TABLE_NAME, COLUMN_NAME) IN (('CUENTAS', 'SALDO'), ('ABONOS', 'VALOR'))", String.class);
+        assertEquals(List.of("BIGINT NO", "BIGINT NO"), types);
+
+        Account withBalance = accountRepository.findById(1L).orElseThrow();
+        assertEquals(5_000_000L, withBalance.getBalance());
+        assertEquals(0L, accountRepository.findById(2L).orElseThrow().getBalance());
+        assertEquals(110_000L, jdbcTemplate.queryForObject("SELECT valor FROM abonos WHERE cuenta_id = 1", Long.class));
+    }
+
+    @Test
+    void paymentReferenceIsUnique() {
+        jdbcTemplate.update(INSERT_PAYMENT, "credito-1-pago-1");
+        jdbcTemplate.update(INSERT_PAYMENT, "credito-1-pago-2");
+
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(INSERT_PAYMENT, "credito-1-pago-1"));
+    }
+
+    @Test
+    void everyMigrationRunsAfterTheBaseline() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "SELECT \"version\" FROM \"flyway_historial_cuenta\" WHERE \"version\" IS NOT NULL"
+                        + " ORDER BY \"installed_rank\"", String.class);
+        assertEquals(List.of("0", "1", "2", "3", "4"), versions);
+    }
+}
@@ -0,0 +1,116 @@
+package com.william.cuenta.service;
+
+import com.william.cuenta.config.client.PersonaClient;
+import com.william.cuenta.config.mapper.MapAccountFactory;
+import com.william.cuenta.domain.model.Account;
+import com.william.cuenta.infrastructure.dao.account.AccountDaoImpl;
+import com.william.cuenta.infrastructure.dao.account.AccountRepository;
+import com.william.cuenta.infrastructure.dao.payment.PaymentDaoImpl;
+import com.william.cuenta.infrastructure.dao.payment.PaymentRepository;
+import com.william.cuenta.infrastructure.dto.DebitDTO;
+import com.william.cuenta.infrastructure.dto.DebitResultDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Debitos y ajustes de saldo concurrentes sobre la misma cuenta: ninguno puede pisar el saldo que
+ * escribio otro, asi que el saldo final debe cuadrar con lo abonado y lo debitado.
+ */
+@DataJpaTest(properties = {
+        // los hilos esperan el bloqueo de fila de la cuenta mas que el segundo por defecto de H2
+        "spring.datasource.url=jdbc:h2:mem:saldos-concurrentes;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({AccountServiceImpl.class, AccountDaoImpl.class, PaymentDaoImpl.class, MapAccountFactory.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AccountBalanceConcurrencyTest {
+
+    private static final Long PERSON_ID = 1L;
+    private static final long INITIAL_BALANCE = 10_000;
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 50;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @MockitoBean
+    private PersonaClient personaClient;
+
+    @MockitoBean
+    private AccountChangeNotifier accountChangeNotifier;
+
+    @BeforeEach
+    void setUp() {
+        Account account = new Account();
+        account.setPersonId(PERSON_ID);
+        account.setBalance(INITIAL_BALANCE);
+        accountRepository.save(account);
+    }
+
+    @AfterEach
+    void tearDown() {
+        paymentRepository.deleteAll();
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentDebitsAndDepositsKeepEveryUpdate() throws Exception {
+        LongAdder debited = new LongAdder();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> tasks = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                tasks.add(executor.submit(() -> {
+                    for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                        accountService.updateBalance(PERSON_ID, 3);
+                        List<DebitResultDTO> results = accountService.sendPayments(PERSON_ID,
+                                List.of(new DebitDTO("debit-" + thread + "-" + i, 7L, 5)));
+                        if (results.getFirst().isApplied()) {
+                            debited.add(5);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long operations = (long) THREADS * OPERATIONS_PER_THREAD;
+        Account account = accountRepository.findByPersonId(PERSON_ID).orElseThrow();
+        assertEquals(operations * 5, debited.sum());
+        assertEquals(operations, paymentRepository.count());
+        assertEquals(INITIAL_BALANCE + operations * 3 - operations * 5, account.getBalance());
+    }
+}
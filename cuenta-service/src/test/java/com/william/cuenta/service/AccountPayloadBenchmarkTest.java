@@ -0,0 +1,156 @@
+package com.william.cuenta.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.william.cuenta.config.client.PersonaClient;
+import com.william.cuenta.config.mapper.MapAccountFactory;
+import com.william.cuenta.domain.model.Account;
+import com.william.cuenta.domain.model.Payment;
+import com.william.cuenta.infrastructure.dao.account.AccountDaoImpl;
+import com.william.cuenta.infrastructure.dao.account.AccountRepository;
+import com.william.cuenta.infrastructure.dao.payment.PaymentDaoImpl;
+import com.william.cuenta.infrastructure.dto.AccountDTO;
+import com.william.cuenta.infrastructure.dto.PaymentDTO;
+import com.william.cuenta.infrastructure.dto.PersonResponseDTO;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.Data;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compara una consulta de cuenta con 10k abonos usando el contrato anterior (AccountDTO con
+ * paymentList completo) contra la representacion actual sin abonos.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({AccountServiceImpl.class, AccountDaoImpl.class, PaymentDaoImpl.class,
+        MapAccountFactory.class})
+class AccountPayloadBenchmarkTest {
+
+    private static final int PAYMENTS = 10_000;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private Function<Payment, PaymentDTO> entityToPaymentDTO;
+
+    @MockitoBean
+    private PersonaClient personaClient;
+
+    @MockitoBean
+    private AccountChangeNotifier accountChangeNotifier;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    private Long accountId;
+
+    @BeforeEach
+    void setUp() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        when(personaClient.fetchPerson(anyLong(), any())).thenReturn(new PersonResponseDTO());
+
+        Account account = new Account();
+        account.setPersonId(1L);
+        account.setBalance(1_000_000);
+        entityManager.persist(account);
+
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        for (int i = 0; i < PAYMENTS; i++) {
+            Payment payment = new Payment();
+            payment.setAccount(account);
+            payment.setPaymentDate(now.minusMinutes(i));
+            payment.setValue(1000);
+            payment.setDescription("Payment to credit id: " + (i % 50));
+            entityManager.persist(payment);
+            if (i % 500 == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        accountId = account.getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void accountLookupNoLongerLoadsPaymentHistory() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        LegacyAccountDTO legacy = toLegacyDTO(accountRepository.findById(accountId).orElseThrow());
+        long legacyQueries = statistics.getPrepareStatementCount();
+        long legacyEntities = statistics.getEntityLoadCount();
+        int legacyBytes = objectMapper.writeValueAsBytes(legacy).length;
+        entityManager.clear();
+
+        statistics.clear();
+        AccountDTO slim = accountService.getAccountById(accountId);
+        long slimQueries = statistics.getPrepareStatementCount();
+        long slimEntities = statistics.getEntityLoadCount();
+        int slimBytes = objectMapper.writeValueAsBytes(slim).length;
+
+        assertEquals(PAYMENTS, legacy.getPaymentList().size());
+        assertEquals(2, legacyQueries, "legacy lookup reads the account and then its whole payment list");
+        assertEquals(PAYMENTS + 1, legacyEntities, "legacy lookup hydrates every Payment");
+
+        assertEquals(PAYMENTS, slim.getPaymentCount());
+        assertEquals(2, slimQueries, "slim lookup should only read the account and count its payments");
+        assertEquals(1, slimEntities, "slim lookup should not hydrate Payment entities");
+        assertTrue(slimBytes * 100 < legacyBytes,
+                "slim payload (" + slimBytes + " bytes) should be orders of magnitude smaller than " + legacyBytes);
+    }
+
+    private LegacyAccountDTO toLegacyDTO(Account account) {
+        LegacyAccountDTO dto = new LegacyAccountDTO();
+        dto.setId(account.getId());
+        dto.setBalance(account.getBalance());
+        dto.setPaymentList(account.getPaymentList().stream().map(entityToPaymentDTO).toList());
+        return dto;
+    }
+
+    @Data
+    public static class LegacyAccountDTO {
+        private Long id;
+        private List<PaymentDTO> paymentList;
+        private Long balance;
+        private PersonResponseDTO person;
+    }
+}
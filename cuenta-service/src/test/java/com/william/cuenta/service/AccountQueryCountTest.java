@@ -0,0 +1,99 @@
+package com.william.cuenta.service;
+
+import com.william.cuenta.config.client.PersonaClient;
+import com.william.cuenta.config.datasource.DataSourceProxyConfig;
+import com.william.cuenta.config.mapper.MapAccountFactory;
+import com.william.cuenta.domain.model.Account;
+import com.william.cuenta.domain.model.Payment;
+import com.william.cuenta.infrastructure.dao.account.AccountDaoImpl;
+import com.william.cuenta.infrastructure.dao.payment.PaymentDaoImpl;
+import com.william.cuenta.infrastructure.dto.AccountDTO;
+import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cota de sentencias JDBC para listar cuentas: no debe crecer con el numero de cuentas ni de abonos.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Import({AccountServiceImpl.class, AccountDaoImpl.class, PaymentDaoImpl.class,
+        MapAccountFactory.class, DataSourceProxyConfig.class})
+class AccountQueryCountTest {
+
+    private static final int ACCOUNTS = 50;
+    private static final int PAYMENTS_PER_ACCOUNT = 3;
+    private static final int MAX_STATEMENTS = 2;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AccountService accountService;
+
+    @MockitoBean
+    private PersonaClient personaClient;
+
+    @MockitoBean
+    private AccountChangeNotifier accountChangeNotifier;
+
+    @BeforeEach
+    void setUp() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        when(personaClient.fetchPersons(any(), any())).thenReturn(Map.of());
+
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account();
+            account.setPersonId((long) i + 1);
+            account.setBalance(1000);
+            entityManager.persist(account);
+            for (int j = 0; j < PAYMENTS_PER_ACCOUNT; j++) {
+                Payment payment = new Payment();
+                payment.setAccount(account);
+                payment.setPaymentDate(now.minusDays(j));
+                payment.setValue(100);
+                entityManager.persist(payment);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        QueryCountHolder.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        QueryCountHolder.clear();
+    }
+
+    @Test
+    void getAllAccountsRunsAFixedNumberOfStatements() {
+        List<AccountDTO> accounts = accountService.getAllAccounts();
+
+        QueryCount queries = QueryCountHolder.getGrandTotal();
+
+        assertEquals(ACCOUNTS, accounts.size());
+        assertEquals(PAYMENTS_PER_ACCOUNT, accounts.getFirst().getPaymentCount());
+        assertTrue(queries.getTotal() <= MAX_STATEMENTS,
+                "getAllAccounts ran " + queries.getTotal() + " statements, expected at most " + MAX_STATEMENTS);
+    }
+}
@@ -0,0 +1,8 @@
+-- DDL que generaba Hibernate con ddl-auto=update en H2 antes de Flyway, con filas de ejemplo
+create table abonos (valor numeric(38,0), cuenta_id bigint, fecha_abono timestamp(6), id bigint generated by default as identity, descripcion varchar(255), primary key (id));
+create table cuentas (saldo numeric(38,0), id bigint generated by default as identity, persona_id bigint, primary key (id));
+alter table if exists abonos add constraint FK4loqsh6891w3xcmw987rfr42r foreign key (cuenta_id) references cuentas;
+
+insert into cuentas (saldo, persona_id) values (5000000, 1);
+insert into cuentas (saldo, persona_id) values (null, 2);
+insert into abonos (valor, cuenta_id, fecha_abono, descripcion) values (110000, 1, TIMESTAMP '2026-02-01 00:00:00', 'Pago credito 1');
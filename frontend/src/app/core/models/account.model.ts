@@ -1,6 +1,6 @@
 export interface AccountDTO {
   id: number;
-  paymentList: PaymentDTO[];
+  paymentCount: number;
   balance: number;
   person: PersonResponseDTO;
 }
@@ -6,7 +6,8 @@ export interface CreditDTO {
   totalLoan: number;
   amountPaid: number;
   amountToPay: number;
-  interestRate: number;
+  // tasa en puntos basicos: 1000 = 10 %
+  interestRateBasisPoints: number;
   agreedPayments: number;
   paymentsMade: number;
   creditGivenDate: string;
@@ -17,7 +18,7 @@ export interface CreditDTO {
 
 export interface CreateCreditDTO {
   loan: number;
-  interestRate: number;
+  interestRateBasisPoints: number;
   agreedPayments: number;
   creditExpirationDate: string;
 }
@@ -43,18 +43,6 @@ export class AccountService {
     });
   }
 
-  sendPayment(personId: number, amount: number, creditId: number): Observable<string> {
-    const params = new HttpParams()
-      .set('personId', personId.toString())
-      .set('amount', amount.toString())
-      .set('creditId', creditId.toString());
-    
-    return this.http.post(`${this.API_URL}/api/send-payment`, null, { 
-      params, 
-      responseType: 'text' 
-    });
-  }
-
   deleteAccount(personId: number): Observable<string> {
     const params = new HttpParams().set('personId', personId.toString());
     return this.http.delete(`${this.API_URL}/api/delete-account`, { 
@@ -1,5 +1,5 @@
 import { Injectable } from '@angular/core';
-import { HttpClient, HttpParams } from '@angular/common/http';
+import { HttpClient, HttpHeaders, HttpParams } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import { map } from 'rxjs/operators';
 import { CreditDTO, CreateCreditDTO, PageCreditDTO, Pageable } from '../models/credit.model';
@@ -58,10 +58,14 @@ export class CreditService {
       );
   }
 
-  makePayment(creditId: number, personId: number, payment: PaymentDTO): Observable<string> {
+  // La misma clave en un reintento devuelve la respuesta original sin registrar otro pago
+  makePayment(creditId: number, personId: number, payment: PaymentDTO,
+              idempotencyKey: string = crypto.randomUUID()): Observable<string> {
     const params = new HttpParams().set('personId', personId.toString());
+    const headers = new HttpHeaders().set('Idempotency-Key', idempotencyKey);
     return this.http.post(`${this.API_URL}/api/credits/${creditId}/payments`, payment, { 
       params, 
+      headers,
       responseType: 'text' 
     });
   }
@@ -615,7 +615,8 @@ export class CreditFormDialogComponent {
       const formValue = this.creditForm.value;
       const creditData: CreateCreditDTO = {
         loan: formValue.loan,
-        interestRate: formValue.interestRate,
+        // el formulario pide el porcentaje; la API recibe puntos basicos
+        interestRateBasisPoints: Math.round(formValue.interestRate * 100),
         agreedPayments: formValue.agreedPayments,
         creditExpirationDate: this.formatDateForAPI(formValue.creditExpirationDate)
       };
@@ -146,7 +146,7 @@ export class CustomDateAdapter extends NativeDateAdapter {
                           selected>
                           {{credit.status || 'Sin estado'}}
                         </mat-chip>
-                        <span class="interest-rate">Tasa: {{formatInterestRate(credit.interestRate)}}%</span>
+                        <span class="interest-rate">Tasa: {{formatInterestRate(credit.interestRateBasisPoints)}}%</span>
                       </div>
 
                       <div class="date-info">
@@ -216,7 +216,7 @@ export class CustomDateAdapter extends NativeDateAdapter {
                             selected>
                             {{credit.status || 'Sin estado'}}
                           </mat-chip>
-                          <span class="interest-rate">Tasa: {{formatInterestRate(credit.interestRate)}}%</span>
+                          <span class="interest-rate">Tasa: {{formatInterestRate(credit.interestRateBasisPoints)}}%</span>
                         </div>
 
                         <div class="date-info">
@@ -869,14 +869,8 @@ export class CreditListComponent implements OnInit {
     }
   }
 
-  formatInterestRate(interestRate: any): number {
-    if (typeof interestRate === 'number') {
-      return interestRate;
-    }
-    if (interestRate && typeof interestRate === 'object') {
-      return interestRate.parsedValue || parseFloat(interestRate.source) || 0;
-    }
-    return 0;
+  formatInterestRate(interestRateBasisPoints: number): number {
+    return typeof interestRateBasisPoints === 'number' ? interestRateBasisPoints / 100 : 0;
   }
 
   getTotalDebt(personId: number): string {
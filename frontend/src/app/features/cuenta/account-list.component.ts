@@ -87,7 +87,7 @@ import { AccountFormDialogComponent } from './account-form-dialog.component';
             <ng-container matColumnDef="payments">
               <th mat-header-cell *matHeaderCellDef>Pagos</th>
               <td mat-cell *matCellDef="let account">
-                <span class="payments-count">{{account.paymentList.length}} pagos</span>
+                <span class="payments-count">{{account.paymentCount}} pagos</span>
               </td>
             </ng-container>
 
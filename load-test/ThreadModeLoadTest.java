@@ -0,0 +1,146 @@
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+
+/**
+ * Generador de carga para comparar un servicio con hilos de plataforma y con hilos virtuales.
+ * Mantiene N clientes concurrentes, cada uno con su propia conexion, contra una URL durante un
+ * tiempo fijo y reporta throughput y percentiles de latencia de las respuestas exitosas.
+ *
+ * <pre>
+ * java load-test/ThreadModeLoadTest.java &lt;url&gt; [conexiones=2000] [segundos=30] [warmup=10]
+ * </pre>
+ * El header Authorization se toma de la variable de entorno {@code AUTHORIZATION}.
+ */
+public class ThreadModeLoadTest {
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 1) {
+            System.err.println("usage: java ThreadModeLoadTest.java <url> [connections=2000] [seconds=30] [warmup=10]");
+            System.exit(1);
+        }
+        URI uri = URI.create(args[0]);
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 30);
+        Duration warmup = Duration.ofSeconds(args.length > 3 ? Long.parseLong(args[3]) : 10);
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET();
+        String authorization = System.getenv("AUTHORIZATION");
+        if (authorization != null && !authorization.isBlank()) {
+            builder.header("Authorization", authorization);
+        }
+        HttpRequest request = builder.build();
+
+        System.out.printf("%s with %d connections: %ds warmup, %ds measured%n",
+                uri, connections, warmup.toSeconds(), duration.toSeconds());
+        run(client, request, connections, warmup);
+        Result result = run(client, request, connections, duration);
+        result.print(duration);
+    }
+
+    private static Result run(HttpClient client, HttpRequest request, int connections, Duration duration)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Worker> workers = new ArrayList<>(connections);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < connections; i++) {
+                Worker worker = new Worker(client, request, deadline);
+                workers.add(worker);
+                executor.execute(worker);
+            }
+        }
+        return Result.merge(workers);
+    }
+
+    private static final class Worker implements Runnable {
+
+        private final HttpClient client;
+        private final HttpRequest request;
+        private final long deadline;
+        private long[] latencies = new long[256];
+        private int count;
+        private long ioErrors;
+        private final Map<Integer, Long> errorStatuses = new TreeMap<>();
+
+        Worker(HttpClient client, HttpRequest request, long deadline) {
+            this.client = client;
+            this.request = request;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void run() {
+            while (System.nanoTime() < deadline) {
+                long start = System.nanoTime();
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() >= 400) {
+                        errorStatuses.merge(response.statusCode(), 1L, Long::sum);
+                    } else {
+                        record(System.nanoTime() - start);
+                    }
+                } catch (IOException e) {
+                    ioErrors++;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        private void record(long latency) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+        }
+    }
+
+    private record Result(long[] latencies, long ioErrors, Map<Integer, Long> errorStatuses) {
+
+        static Result merge(List<Worker> workers) {
+            int total = workers.stream().mapToInt(worker -> worker.count).sum();
+            long[] latencies = new long[total];
+            int offset = 0;
+            long ioErrors = 0;
+            Map<Integer, Long> errorStatuses = new TreeMap<>();
+            for (Worker worker : workers) {
+                System.arraycopy(worker.latencies, 0, latencies, offset, worker.count);
+                offset += worker.count;
+                ioErrors += worker.ioErrors;
+                worker.errorStatuses.forEach((status, n) -> errorStatuses.merge(status, n, Long::sum));
+            }
+            Arrays.sort(latencies);
+            return new Result(latencies, ioErrors, errorStatuses);
+        }
+
+        void print(Duration duration) {
+            System.out.printf("  ok: %d, %.0f req/s%n", latencies.length, latencies.length / (double) duration.toSeconds());
+            System.out.printf("  errors: %d I/O, HTTP %s%n", ioErrors, errorStatuses);
+            if (latencies.length > 0) {
+                System.out.printf("  latency ms: p50 %.1f, p95 %.1f, p99 %.1f, max %.1f%n",
+                        percentile(0.50), percentile(0.95), percentile(0.99), latencies[latencies.length - 1] / 1e6);
+            }
+        }
+
+        private double percentile(double p) {
+            int index = (int) Math.ceil(p * latencies.length) - 1;
+            return latencies[Math.max(0, index)] / 1e6;
+        }
+    }
+}
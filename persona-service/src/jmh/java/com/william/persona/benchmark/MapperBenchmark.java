@@ -0,0 +1,61 @@
+package com.william.persona.benchmark;
+
+import com.william.persona.config.mapper.MapPersonaFactory;
+import com.william.persona.domain.model.DocumentType;
+import com.william.persona.domain.model.Person;
+import com.william.persona.domain.model.Status;
+import com.william.persona.infrastructure.dto.PersonDTO;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Person -> PersonDTO con ModelMapper STRICT (mapeo anterior) contra el mapper escrito a mano.
+ * Con {@code -prof gc} el valor gc.alloc.rate.norm da los bytes asignados por mapeo.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private Person person;
+    private ModelMapper modelMapper;
+    private Function<Person, PersonDTO> handWritten;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
+        handWritten = new MapPersonaFactory().entityToPersonDTO();
+
+        person = new Person();
+        person.setId(3L);
+        person.setName("Ana");
+        person.setSurname("Gomez");
+        person.setAddress("Calle 10 # 20-30");
+        person.setPhoneNumber("3001234567");
+        person.setEmail("ana.gomez@example.com");
+        person.setDocumentType(DocumentType.CC);
+        person.setDocument("1020304050");
+        person.setBirthDate(LocalDate.of(1990, 5, 17));
+        person.setStatus(Status.ACTIVO);
+        person.setPassword("$2a$10$abcdefghijklmnopqrstuv");
+    }
+
+    @Benchmark
+    public PersonDTO modelMapper() {
+        return modelMapper.map(person, PersonDTO.class);
+    }
+
+    @Benchmark
+    public PersonDTO handWritten() {
+        return handWritten.apply(person);
+    }
+}
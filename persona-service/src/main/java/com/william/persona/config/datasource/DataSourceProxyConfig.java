@@ -0,0 +1,47 @@
+package com.william.persona.config.datasource;
+
+
+import net.ttddyy.dsproxy.listener.logging.SLF4JLogLevel;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Envuelve el DataSource con datasource-proxy: cuenta las sentencias de cada hilo para
+ * {@link QueryCountFilter} y registra en el logger {@code datasource.slow-query}, con sus
+ * parametros, las que superan datasource.proxy.slow-query-threshold. Con replica se envuelve
+ * {@link ReplicaRoutingDataSource}, asi que cuentan las sentencias de ambos pools.
+ */
+@Configuration
+public class DataSourceProxyConfig {
+
+    // un BeanPostProcessor estatico se crea antes que el resolvedor de ${...}: se lee con Binder
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(Environment environment) {
+        Duration slowQueryThreshold = Binder.get(environment)
+                .bind("datasource.proxy.slow-query-threshold", Duration.class)
+                .orElse(Duration.ofMillis(500));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .countQuery()
+                            .logSlowQueryBySlf4j(slowQueryThreshold.toMillis(), TimeUnit.MILLISECONDS,
+                                    SLF4JLogLevel.WARN, "datasource.slow-query")
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,97 @@
+package com.william.persona.config.datasource;
+
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+
+/**
+ * Cuenta las sentencias JDBC de cada peticion. El total sale en la cabecera {@value #HEADER}, en
+ * la metrica {@code http.server.requests.queries} por ruta, y en un aviso cuando supera
+ * datasource.proxy.request-warn-threshold, que suele delatar un N+1. Las rutas a vigilar son
+ * /private/batch, que cuenta-service llama con lotes de cientos de ids (su persona.batch.size), y
+ * /public/verifyCredentials, que auth-service llama en cada login.
+ */
+@Component
+@Slf4j
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Query-Count";
+
+    private final MeterRegistry meterRegistry;
+    private final long warnThreshold;
+
+    public QueryCountFilter(MeterRegistry meterRegistry,
+                            @Value("${datasource.proxy.request-warn-threshold:50}") long warnThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryCountHolder.clear();
+        try {
+            filterChain.doFilter(request, new CountingResponse(response));
+        } finally {
+            long statements = statements();
+            if (!response.isCommitted()) {
+                response.setHeader(HEADER, Long.toString(statements));
+            }
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            DistributionSummary.builder("http.server.requests.queries")
+                    .description("JDBC statements executed per request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(statements);
+            if (statements > warnThreshold) {
+                log.warn("{} {} executed {} statements", request.getMethod(), uri, statements);
+            }
+            QueryCountHolder.clear();
+        }
+    }
+
+
+    private static long statements() {
+        return QueryCountHolder.getGrandTotal().getTotal();
+    }
+
+    /**
+     * Fija la cabecera justo antes de escribir el cuerpo, cuando la respuesta todavia no se envio.
+     */
+    private static class CountingResponse extends HttpServletResponseWrapper {
+
+        CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            setHeader(HEADER, Long.toString(statements()));
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            setHeader(HEADER, Long.toString(statements()));
+            return super.getWriter();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.william.persona.config.datasource;
+
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+
+/**
+ * Con datasource.replica.url definida reemplaza el DataSource de Spring Boot por
+ * {@link ReplicaRoutingDataSource}: un pool hacia spring.datasource y otro de solo lectura hacia la
+ * replica. Sin esa propiedad el servicio sigue con un unico pool contra la primaria. En persona-service
+ * la carga de lectura es la consulta masiva de cuenta-service (ver {@link ReadYourWritesFilter}).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.replica", name = "url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${datasource.replica.url}") String replicaUrl,
+                                 @Value("${datasource.replica.username:${spring.datasource.username}}") String replicaUsername,
+                                 @Value("${datasource.replica.password:${spring.datasource.password}}") String replicaPassword,
+                                 @Value("${datasource.replica.lag-query}") String lagQuery,
+                                 @Value("${datasource.replica.max-lag}") Duration maxLag,
+                                 @Value("${datasource.replica.lag-check-interval}") Duration checkInterval) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(replicaUrl)
+                .username(replicaUsername)
+                .password(replicaPassword)
+                .build();
+        replica.setPoolName("replica");
+        replica.setReadOnly(true);
+        replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        ReplicaLagMonitor lagMonitor = new ReplicaLagMonitor(replica, lagQuery, maxLag, checkInterval, meterRegistry);
+        return new ReplicaRoutingDataSource(primary, replica, lagMonitor);
+    }
+}
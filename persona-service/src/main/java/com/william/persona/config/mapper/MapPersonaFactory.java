@@ -4,27 +4,65 @@ import com.william.persona.domain.model.Person;
 import com.william.persona.infrastructure.dto.AddPersonDTO;
 import com.william.persona.infrastructure.dto.EditPersonDTO;
 import com.william.persona.infrastructure.dto.PersonDTO;
-import org.modelmapper.ModelMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.util.function.Function;
 
+/**
+ * Mapeos escritos a mano: se ejecutan por cada fila de los listados, asi que evitan la reflexion.
+ * Al agregar un campo a una entidad o DTO hay que copiarlo aqui.
+ */
 @Configuration
 public class MapPersonaFactory {
 
     @Bean
-    public Function<Person, PersonDTO> entityToPersonDTO(ModelMapper mapper) {
-        return persona -> mapper.map(persona, PersonDTO.class);
+    public Function<Person, PersonDTO> entityToPersonDTO() {
+        return persona -> {
+            PersonDTO dto = new PersonDTO();
+            dto.setId(persona.getId());
+            dto.setName(persona.getName());
+            dto.setSurname(persona.getSurname());
+            dto.setPhoneNumber(persona.getPhoneNumber());
+            dto.setEmail(persona.getEmail());
+            dto.setDocumentType(persona.getDocumentType());
+            dto.setDocument(persona.getDocument());
+            dto.setBirthDate(persona.getBirthDate());
+            dto.setStatus(persona.getStatus() == null ? null : persona.getStatus().name());
+            return dto;
+        };
     }
 
     @Bean
-    public Function<AddPersonDTO, Person> addDtoToPersonEntity(ModelMapper mapper) {
-        return addPersonDTO -> mapper.map(addPersonDTO, Person.class);
+    public Function<AddPersonDTO, Person> addDtoToPersonEntity() {
+        return addPersonDTO -> {
+            Person persona = new Person();
+            persona.setName(addPersonDTO.getName());
+            persona.setSurname(addPersonDTO.getSurname());
+            persona.setPhoneNumber(addPersonDTO.getPhoneNumber());
+            persona.setAddress(addPersonDTO.getAddress());
+            persona.setEmail(addPersonDTO.getEmail());
+            persona.setDocumentType(addPersonDTO.getDocumentType());
+            persona.setDocument(addPersonDTO.getDocument());
+            persona.setBirthDate(addPersonDTO.getBirthDate());
+            persona.setPassword(addPersonDTO.getPassword());
+            return persona;
+        };
     }
 
     @Bean
-    public Function<EditPersonDTO, Person> EditDtoToPersonEntity(ModelMapper mapper) {
-        return editPersonDTO -> mapper.map(editPersonDTO, Person.class);
+    public Function<EditPersonDTO, Person> EditDtoToPersonEntity() {
+        return editPersonDTO -> {
+            Person persona = new Person();
+            persona.setId(editPersonDTO.getId());
+            persona.setName(editPersonDTO.getName());
+            persona.setSurname(editPersonDTO.getSurname());
+            persona.setPhoneNumber(editPersonDTO.getPhoneNumber());
+            persona.setAddress(editPersonDTO.getAddress());
+            persona.setEmail(editPersonDTO.getEmail());
+            persona.setBirthDate(editPersonDTO.getBirthDate());
+            persona.setStatus(editPersonDTO.getStatus());
+            return persona;
+        };
     }
 }
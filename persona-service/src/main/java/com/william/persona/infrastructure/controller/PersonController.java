@@ -36,6 +36,11 @@ public class PersonController {
         return ResponseEntity.ok(personService.findAllEntries());
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<PersonDTO>> findPersons(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(personService.findPersons(ids));
+    }
+
 
 
     @PutMapping("/update")
@@ -2,6 +2,7 @@ package com.william.persona.infrastructure.dao;
 
 import com.william.persona.domain.model.Person;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,4 +14,6 @@ public interface PersonDao {
     void savePerson(Person person);
 
     Optional<Person> findByDocument(String document);
+
+    List<Person> findAllById(Collection<Long> ids);
 }
@@ -3,7 +3,9 @@ package com.william.persona.infrastructure.dao;
 import com.william.persona.domain.model.Person;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +21,7 @@ public class PersonDaoImpl implements PersonDao {
         return personRepository.findById(id);
     }
 
+    @Transactional(readOnly = true)
     @Override
     public List<Person> findAllEntries() {
         return personRepository.findAll();
@@ -33,4 +36,9 @@ public class PersonDaoImpl implements PersonDao {
     public Optional<Person> findByDocument(String document) {
         return personRepository.findByDocument(document);
     }
+
+    @Override
+    public List<Person> findAllById(Collection<Long> ids) {
+        return personRepository.findAllById(ids);
+    }
 }
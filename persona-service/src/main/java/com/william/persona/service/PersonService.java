@@ -4,6 +4,7 @@ import com.william.persona.infrastructure.dto.AddPersonDTO;
 import com.william.persona.infrastructure.dto.EditPersonDTO;
 import com.william.persona.infrastructure.dto.PersonDTO;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface PersonService {
@@ -13,6 +14,8 @@ public interface PersonService {
 
     List<PersonDTO> findAllEntries();
 
+    List<PersonDTO> findPersons(Collection<Long> ids);
+
     String savePerson(AddPersonDTO personDTO);
 
     String updatePerson(EditPersonDTO personDTO);
@@ -10,6 +10,7 @@ import com.william.persona.infrastructure.dto.AddPersonDTO;
 import com.william.persona.infrastructure.dto.EditPersonDTO;
 import com.william.persona.infrastructure.dto.PersonDTO;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -20,6 +21,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
@@ -27,6 +29,7 @@ import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "person.service", histogram = true)
 public class PersonServiceImpl implements PersonService {
 
     private final PersonDao personDao;
@@ -37,6 +40,8 @@ public class PersonServiceImpl implements PersonService {
     private final AuthenticationManager authenticationManager;
     private final DaoAuthenticationProvider daoAuthenticationProvider;
 
+    private static final int MAX_BATCH_SIZE = 1000;
+
 
     @Override
     public PersonDTO findPerson(String document) {
@@ -59,6 +64,19 @@ public class PersonServiceImpl implements PersonService {
                 .map(entityToPersonDTO::apply).collect(Collectors.toList());
     }
 
+    @Override
+    public List<PersonDTO> findPersons(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new PersonException("A maximum of " + MAX_BATCH_SIZE + " persons can be requested at once");
+        }
+        return personDao.findAllById(ids).stream()
+                .map(entityToPersonDTO)
+                .toList();
+    }
+
     @Transactional
     @Override
     public String savePerson(AddPersonDTO addPersonDTO) {
@@ -0,0 +1,15 @@
+-- Esquema que hasta ahora generaba ddl-auto=update. IF NOT EXISTS permite aplicarlo sobre una base existente.
+CREATE TABLE IF NOT EXISTS personas (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nombre           VARCHAR(255),
+    apellido         VARCHAR(255),
+    direccion        VARCHAR(255),
+    telefono         VARCHAR(255),
+    email            VARCHAR(255),
+    tipo_documento   VARCHAR(255),
+    numero_documento VARCHAR(255),
+    fecha_nacimiento DATE,
+    estado           VARCHAR(255),
+    password         VARCHAR(255),
+    CONSTRAINT uk_personas_numero_documento UNIQUE (numero_documento)
+);